@@ -0,0 +1,63 @@
+package com.project.geofencing.benchmark;
+
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and parsing cost of a single fence, by vertex count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordsBenchmark {
+
+    @Param({"4", "64", "1024", "4096"})
+    public int vertices;
+
+    private String coords;
+
+    private GeoCoordinatesValidation validation;
+
+    @Setup
+    public void setUp() {
+        coords = new FenceGenerator(42).coords(vertices, 12.93, 77.61, 0.05);
+        validation = new GeoCoordinatesValidation("GoogleMaps", "MapBox");
+    }
+
+    @Benchmark
+    public boolean validateCoords() throws ResourceNotFoundException {
+        return validation.validateCoords(coords);
+    }
+
+    @Benchmark
+    public boolean vaildatePolygon() throws ResourceNotFoundException {
+        return validation.vaildatePolygon(coords);
+    }
+
+    @Benchmark
+    public boolean validateMapType() throws ResourceNotFoundException {
+        return validation.validateMapType("MapBox");
+    }
+
+    @Benchmark
+    public Polygon parsePolygon() {
+        return Polygon.parse(coords);
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.geofencing.benchmark;
+
+import com.project.geofencing.model.GeoCoordinates;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates synthetic, simple (non self-intersecting) fences for the benchmarks.
+ * Fences are star shaped rings around random centers, closed by repeating the first vertex.
+ */
+public final class FenceGenerator {
+
+    private final Random random;
+
+    public FenceGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the coordinates text of one fence.
+     *
+     * @param vertices - pass the number of distinct vertices, at least 3.
+     * @param lat      - pass the latitude of the center.
+     * @param lng      - pass the longitude of the center.
+     * @param radius   - pass the maximum distance of a vertex from the center, in degrees.
+     * @return Returns the coords in lat,lng;lat,lng; form.
+     */
+    public String coords(int vertices, double lat, double lng, double radius) {
+        StringBuilder builder = new StringBuilder(vertices * 40);
+        String first = null;
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double distance = radius * (0.5 + 0.5 * random.nextDouble());
+            String vertex = format(lat + distance * Math.sin(angle)) + "," + format(lng + distance * Math.cos(angle));
+            if (first == null) {
+                first = vertex;
+            }
+            builder.append(vertex).append(';');
+        }
+        return builder.append(first).append(';').toString();
+    }
+
+    /**
+     * Generates a fleet of fences spread over a square region sized so that fences rarely overlap
+     * more than a few deep.
+     *
+     * @param count    - pass the number of fences.
+     * @param vertices - pass the number of distinct vertices per fence.
+     * @param mapType  - pass the maptype of the fences.
+     * @return Returns the fences with ids 1 to count.
+     */
+    public List<GeoCoordinates> fleet(int count, int vertices, String mapType) {
+        double side = regionSide(count);
+        List<GeoCoordinates> fences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GeoCoordinates geoCoordinates = new GeoCoordinates();
+            geoCoordinates.setId(i + 1);
+            geoCoordinates.setName("fence-" + (i + 1));
+            geoCoordinates.setMapType(mapType);
+            geoCoordinates.setCoords(coords(vertices, random.nextDouble() * side, random.nextDouble() * side, 0.05));
+            fences.add(geoCoordinates);
+        }
+        return fences;
+    }
+
+    /**
+     * Generates random query points over the region of a fleet of the given size.
+     *
+     * @param count     - pass the number of points.
+     * @param fleetSize - pass the number of fences of the fleet.
+     * @return Returns the points as consecutive lat,lng pairs.
+     */
+    public double[] points(int count, int fleetSize) {
+        double side = regionSide(fleetSize);
+        double[] points = new double[count * 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextDouble() * side;
+        }
+        return points;
+    }
+
+    private static double regionSide(int count) {
+        return Math.max(0.2, Math.sqrt(count) * 0.1);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.7f", value);
+    }
+}
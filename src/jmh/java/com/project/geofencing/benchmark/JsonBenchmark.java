@@ -0,0 +1,65 @@
+package com.project.geofencing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.geofencing.model.GeoCoordinates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization cost of a single GeoCoordinates, by vertex count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"4", "64", "1024"})
+    public int vertices;
+
+    private GeoCoordinates geoCoordinates;
+
+    private byte[] json;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(GeoCoordinates.class);
+        reader = objectMapper.readerFor(GeoCoordinates.class);
+        geoCoordinates = new FenceGenerator(42).fleet(1, vertices, "MapBox").get(0);
+        geoCoordinates.setCreatedAt(new Date());
+        geoCoordinates.setUpdatedAt(new Date());
+        json = writer.writeValueAsBytes(geoCoordinates);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(geoCoordinates);
+    }
+
+    @Benchmark
+    public GeoCoordinates deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.geofencing.benchmark;
+
+import com.project.geofencing.geometry.GridCells;
+import com.project.geofencing.index.FenceIndex;
+import com.project.geofencing.model.FenceCell;
+import com.project.geofencing.model.FenceDistance;
+import com.project.geofencing.model.GeoCoordinates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-polygon lookup cost against the fence index, by fleet size and vertex count, with the
+ * R-tree alone and with grid cell coverings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class LookupBenchmark {
+
+    private static final int POINTS = 4096;
+
+    private static final int BATCH = 10_000;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int fences;
+
+    @Param({"16", "64"})
+    public int vertices;
+
+    @Param({"false", "true"})
+    public boolean cells;
+
+    @Param("13")
+    public int level;
+
+    private FenceIndex index;
+
+    private double[] points;
+
+    private double[] batch;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        FenceGenerator generator = new FenceGenerator(42);
+        List<GeoCoordinates> fleet = generator.fleet(fences, vertices, "MapBox");
+        List<FenceCell> covering = new ArrayList<>();
+        if (cells) {
+            for (GeoCoordinates geoCoordinates : fleet) {
+                GridCells.Covering cover = GridCells.cover(geoCoordinates.getPolygon(), level, 65536);
+                for (int i = 0; cover != null && i < cover.size(); i++) {
+                    covering.add(new FenceCell(geoCoordinates.getId(), cover.getCellId(i), "MapBox", level,
+                            cover.isInside(i)));
+                }
+            }
+        }
+        index = FenceIndex.build(fleet, covering, level);
+        points = generator.points(POINTS, fences);
+        batch = generator.points(BATCH, fences);
+    }
+
+    @Benchmark
+    public List<GeoCoordinates> findContaining() {
+        int point = next;
+        next = (point + 1) & (POINTS - 1);
+        return index.findContaining(points[2 * point], points[2 * point + 1]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long[][] findContainingIdsBatch() {
+        return index.findContainingIds(batch);
+    }
+
+    @Benchmark
+    public List<FenceDistance> findNearest() {
+        int point = next;
+        next = (point + 1) & (POINTS - 1);
+        return index.findNearest(points[2 * point], points[2 * point + 1], 10);
+    }
+
+    @Benchmark
+    public List<FenceDistance> findWithin() {
+        int point = next;
+        next = (point + 1) & (POINTS - 1);
+        return index.findWithin(points[2 * point], points[2 * point + 1], 10_000);
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.geofencing.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.wire.FenceWireFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Json against the binary fence format for a list of 100 fences, by vertex count. The encode benchmarks
+ * also report the payload sizes in bytes, plain and gzipped, as secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int FENCES = 100;
+
+    @Param({"4", "64", "1024"})
+    public int vertices;
+
+    private List<GeoCoordinates> geoCords;
+
+    private byte[] json;
+
+    private byte[] binary;
+
+    private long[] sizes;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, GeoCoordinates.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, GeoCoordinates.class));
+        geoCords = new FenceGenerator(42).fleet(FENCES, vertices, "MapBox");
+        for (GeoCoordinates geoCoordinates : geoCords) {
+            geoCoordinates.setCreatedAt(new Date());
+            geoCoordinates.setUpdatedAt(new Date());
+        }
+        json = writer.writeValueAsBytes(geoCords);
+        binary = FenceWireFormat.encodeList(geoCords);
+        sizes = new long[]{json.length, gzipSize(json), binary.length, gzipSize(binary)};
+    }
+
+    /**
+     * The payload sizes of the trial, reported as is for every iteration. JMH zeroes the counters before
+     * each iteration, so the benchmarks set them on every call.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSizes {
+
+        public long jsonBytes;
+
+        public long jsonGzipBytes;
+
+        public long binaryBytes;
+
+        public long binaryGzipBytes;
+
+        private void set(long[] sizes) {
+            jsonBytes = sizes[0];
+            jsonGzipBytes = sizes[1];
+            binaryBytes = sizes[2];
+            binaryGzipBytes = sizes[3];
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(PayloadSizes payloadSizes) throws IOException {
+        payloadSizes.set(sizes);
+        return writer.writeValueAsBytes(geoCords);
+    }
+
+    @Benchmark
+    public List<GeoCoordinates> jsonDecode() throws IOException {
+        return reader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(PayloadSizes payloadSizes) {
+        payloadSizes.set(sizes);
+        return FenceWireFormat.encodeList(geoCords);
+    }
+
+    @Benchmark
+    public List<GeoCoordinates> binaryDecode() {
+        return FenceWireFormat.decodeList(binary);
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.geofencing.bulkhead;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the database work of the web requests on a fixed pool of threads, as many as the connection
+ * pool has connections, so a slow database ties up these threads instead of the request threads. At
+ * most queue-size calls wait for a thread; further calls are rejected at once and answered with 503,
+ * while requests served from memory keep flowing. A call still waiting when the request times out is
+ * completed with the timeout and skipped, so no database work is done for requests already answered.
+ */
+@Slf4j
+@Component
+public class DatabaseBulkhead {
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final int queueSize;
+    private final long timeoutMillis;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @Autowired
+    public DatabaseBulkhead(@Value("${geofencing.database.threads:10}") int threads,
+                            @Value("${geofencing.database.queue-size:200}") int queueSize,
+                            @Value("${spring.mvc.async.request-timeout:30000}") long timeoutMillis) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "database-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "database-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs the call on a database thread, unless the future is completed or cancelled before a thread
+     * is free.
+     *
+     * @param call - pass the database work, its exceptions complete the future as they are.
+     * @return Returns the future of the result of the call, completed with an
+     * {@link AsyncRequestTimeoutException} once the request timeout passed.
+     * @throws RejectedExecutionException - If queue-size calls are already waiting.
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    log.debug("Database call skipped, request already answered");
+                    return;
+                }
+                try {
+                    future.complete(call.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            log.debug("Database call rejected, {} calls waiting", queueSize);
+            throw new RejectedExecutionException("Database busy :: " + queueSize + " calls waiting, retry later");
+        }
+        if (timeoutMillis > 0) {
+            ScheduledFuture<?> timeout = timer.schedule(
+                    () -> future.completeExceptionally(new AsyncRequestTimeoutException()),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+            future.whenComplete((value, error) -> timeout.cancel(false));
+        }
+        return future;
+    }
+
+    /**
+     * Returns the number of calls waiting for a database thread.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of database threads running a call.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of calls rejected since startup.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.geofencing.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose responses are tagged with the hash of their cached body, set as the ETag of the
+ * returned ResponseEntity. {@link MapTypeETagInterceptor} leaves such handlers alone; the conditional GET
+ * is answered when the ResponseEntity is written, on the request or async dispatch thread.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ContentETag {
+}
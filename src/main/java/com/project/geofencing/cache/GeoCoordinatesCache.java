@@ -0,0 +1,96 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.config.CacheConfig;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.model.GeoCoordinates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the fence caches consistent with writes: changed fences are written through to the
+ * id cache of their maptype, while the lists they belong to are evicted and reloaded on next read.
+ */
+@Slf4j
+@Component
+public class GeoCoordinatesCache {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Builds the key of the id cache.
+     */
+    public static String idKey(String mapType, long id) {
+        return mapType + ':' + id;
+    }
+
+    /**
+     * Builds the key of the name cache.
+     */
+    public static String nameKey(String mapType, String name) {
+        return mapType + ':' + name;
+    }
+
+    @EventListener
+    public void onGeoCoordinatesChanged(GeoCoordinatesChangedEvent event) {
+        GeoCoordinates geoCoordinates = event.getGeoCoordinates();
+        String mapType = geoCoordinates.getMapType();
+        String idKey = idKey(mapType, geoCoordinates.getId());
+        if (event.getChangeType() == GeoCoordinatesChangedEvent.ChangeType.DELETED) {
+            evict(CacheConfig.GEO_CORDS_BY_ID, mapType, idKey);
+        } else {
+            Cache cache = cacheManager.getCache(CacheConfig.partition(CacheConfig.GEO_CORDS_BY_ID, mapType));
+            if (cache != null) {
+                cache.put(idKey, geoCoordinates);
+            }
+        }
+        evict(CacheConfig.GEO_CORDS_BY_MAP_TYPE, mapType, mapType);
+        evict(CacheConfig.GEO_CORDS_NAMES, mapType, mapType);
+        evict(CacheConfig.GEO_CORDS_BY_NAME, mapType, nameKey(mapType, geoCoordinates.getName()));
+        log.debug("Geo Co-Ordinates caches refreshed for :: {}", event);
+    }
+
+    /**
+     * Evicts the lists of the maptype once for a whole bulk write. The created fences are not written
+     * through, as their ids were never cached.
+     */
+    @EventListener
+    public void onGeoCoordinatesImported(GeoCoordinatesImportedEvent event) {
+        String mapType = event.getMapType();
+        evict(CacheConfig.GEO_CORDS_BY_MAP_TYPE, mapType, mapType);
+        evict(CacheConfig.GEO_CORDS_NAMES, mapType, mapType);
+        Cache byName = cacheManager.getCache(CacheConfig.partition(CacheConfig.GEO_CORDS_BY_NAME, mapType));
+        if (byName != null) {
+            byName.clear();
+        }
+        log.debug("Geo Co-Ordinates caches refreshed for :: {}", event);
+    }
+
+    /**
+     * Clears every cache of the maptype, for changes this instance did not make itself.
+     *
+     * @param mapType - pass the maptype whose fences changed.
+     */
+    public void evictAll(String mapType) {
+        for (String cacheName : new String[]{CacheConfig.GEO_CORDS_BY_MAP_TYPE, CacheConfig.GEO_CORDS_BY_ID,
+                CacheConfig.GEO_CORDS_BY_NAME, CacheConfig.GEO_CORDS_NAMES}) {
+            Cache cache = cacheManager.getCache(CacheConfig.partition(cacheName, mapType));
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        log.debug("Geo Co-Ordinates caches cleared for :: {}", mapType);
+    }
+
+    private void evict(String cacheName, String mapType, Object key) {
+        Cache cache = cacheManager.getCache(CacheConfig.partition(cacheName, mapType));
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
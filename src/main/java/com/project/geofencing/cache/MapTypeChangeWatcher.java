@@ -0,0 +1,208 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.event.GeoCoordinatesChangedElsewhereEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.project.geofencing.model.MapTypeWatermark;
+import com.project.geofencing.repository.FenceTombstoneRepository;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Notices the fence changes other instances made, which publish no event here. The latest update of
+ * every maptype, and the latest delete from its tombstones, are read every poll. When either moved, the
+ * rows and tombstones after the previous values are counted and compared with the writes this instance
+ * made since; if they are all local, the events of these writes have refreshed everything already.
+ * Otherwise the caches of the maptype are dropped, its fence index rebuilt and its version bumped, so the
+ * cached response bodies and entity tags of this instance expire as they do after a local write, and a
+ * {@link GeoCoordinatesChangedElsewhereEvent} is published for the push subscribers.
+ */
+@Slf4j
+@Component
+public class MapTypeChangeWatcher {
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    @Autowired
+    private FenceTombstoneRepository fenceTombstoneRepository;
+
+    @Autowired
+    private GeoCoordinatesCache geoCoordinatesCache;
+
+    @Autowired
+    private FenceIndexRegistry fenceIndexRegistry;
+
+    @Autowired
+    private MapTypeVersions mapTypeVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The latest update per maptype read by the last poll, null until the first read succeeded.
+     */
+    private Map<String, Date> rowMarks;
+
+    private Map<String, Date> tombstoneMarks;
+
+    /**
+     * The writes this instance made per maptype since the last poll.
+     */
+    private final ConcurrentMap<String, LocalWrites> localWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the values before anything is cached, so changes made from then on are all noticed.
+     */
+    @PostConstruct
+    public void init() {
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${geofencing.versions.poll-ms:5000}")
+    public void poll() {
+        Set<String> changed;
+        try {
+            changed = changedMapTypes(geoCoordinatesRepository.findWatermarks(),
+                    fenceTombstoneRepository.findWatermarks());
+        } catch (RuntimeException e) {
+            log.warn("Fence watermarks not read", e);
+            return;
+        }
+        for (String mapType : changed) {
+            geoCoordinatesCache.evictAll(mapType);
+            fenceIndexRegistry.invalidate(mapType);
+            mapTypeVersions.bump(mapType);
+            eventPublisher.publishEvent(new GeoCoordinatesChangedElsewhereEvent(mapType));
+            log.debug("Fences of maptype {} changed elsewhere, caches dropped", mapType);
+        }
+    }
+
+    @EventListener
+    public void onGeoCoordinatesChanged(GeoCoordinatesChangedEvent event) {
+        LocalWrites writes = localWrites.computeIfAbsent(event.getMapType(), key -> new LocalWrites());
+        if (event.getChangeType() == GeoCoordinatesChangedEvent.ChangeType.DELETED) {
+            writes.deleted(event.getGeoCoordinates().getId());
+        } else {
+            writes.saved(event.getGeoCoordinates().getId());
+        }
+    }
+
+    @EventListener
+    public void onGeoCoordinatesImported(GeoCoordinatesImportedEvent event) {
+        localWrites.computeIfAbsent(event.getMapType(), key -> new LocalWrites()).imported(event.getCount());
+    }
+
+    /**
+     * Compares the values with the ones of the last poll. A maptype that moved only by the writes of this
+     * instance is not reported.
+     *
+     * @param rows       - pass the watermarks of the fences.
+     * @param tombstones - pass the watermarks of the tombstones.
+     * @return Returns the maptypes changed by other instances, none on the first call.
+     */
+    synchronized Set<String> changedMapTypes(List<MapTypeWatermark> rows, List<MapTypeWatermark> tombstones) {
+        Map<String, Date> currentRows = marks(rows);
+        Map<String, Date> currentTombstones = marks(tombstones);
+        Map<String, LocalWrites> writes = new HashMap<>();
+        for (String mapType : localWrites.keySet()) {
+            writes.put(mapType, localWrites.remove(mapType));
+        }
+        Set<String> changed = new TreeSet<>();
+        if (rowMarks != null) {
+            Set<String> mapTypes = new TreeSet<>(currentRows.keySet());
+            mapTypes.addAll(currentTombstones.keySet());
+            for (String mapType : mapTypes) {
+                Date previousRow = rowMarks.get(mapType);
+                Date previousTombstone = tombstoneMarks.get(mapType);
+                boolean rowsMoved = after(currentRows.get(mapType), previousRow);
+                boolean tombstonesMoved = after(currentTombstones.get(mapType), previousTombstone);
+                if ((rowsMoved || tombstonesMoved)
+                        && !onlyLocal(mapType, previousRow, previousTombstone, writes.get(mapType))) {
+                    changed.add(mapType);
+                }
+            }
+        }
+        rowMarks = currentRows;
+        tombstoneMarks = currentTombstones;
+        return changed;
+    }
+
+    /**
+     * Checks that the rows updated and the tombstones written after the previous values are exactly the
+     * ones of the local writes. Writes whose event came in after the values were read count as foreign,
+     * so they cost one more refresh at most.
+     */
+    private boolean onlyLocal(String mapType, Date previousRow, Date previousTombstone, LocalWrites writes) {
+        if (writes == null) {
+            return false;
+        }
+        long rows = geoCoordinatesRepository.countByMapTypeAndUpdatedAtGreaterThan(mapType,
+                previousRow == null ? new Date(0) : previousRow);
+        long tombstones = fenceTombstoneRepository.countByMapTypeAndDeletedAtGreaterThan(mapType,
+                previousTombstone == null ? new Date(0) : previousTombstone);
+        return writes.matches(rows, tombstones);
+    }
+
+    private static Map<String, Date> marks(List<MapTypeWatermark> watermarks) {
+        Map<String, Date> marks = new HashMap<>();
+        for (MapTypeWatermark watermark : watermarks) {
+            if (watermark.getLatest() != null) {
+                marks.put(watermark.getMapType(), watermark.getLatest());
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * Returns true if the current value is later than the previous one. A value that went away is not a
+     * change: the rows of a maptype only go with a tombstone, and tombstones only with the purge.
+     */
+    private static boolean after(Date current, Date previous) {
+        return current != null && (previous == null || current.after(previous));
+    }
+
+    /**
+     * The ids saved, the rows imported and the fences deleted by this instance in one poll.
+     */
+    private static final class LocalWrites {
+
+        private final Set<Long> saved = new HashSet<>();
+        private long imported;
+        private long deleted;
+
+        synchronized void saved(Long id) {
+            saved.add(id);
+        }
+
+        synchronized void imported(int count) {
+            imported += count;
+        }
+
+        synchronized void deleted(Long id) {
+            saved.remove(id);
+            deleted++;
+        }
+
+        synchronized boolean matches(long rows, long tombstones) {
+            return rows == saved.size() + imported && tombstones == deleted;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.wire.FenceProtobufHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Tags the responses of the per maptype read endpoints with the version of their maptype and answers
+ * a matching If-None-Match with 304 before the handler runs, so nothing is read or serialized. The
+ * binary representation gets its own tag, as the responses vary by Accept. The dispatch that writes
+ * the result of an asynchronous handler is passed through, it was checked when the request came in.
+ * Handlers marked {@link ContentETag} tag their own responses and are passed through as well.
+ */
+@Component
+public class MapTypeETagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private MapTypeVersions mapTypeVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || ((HandlerMethod) handler).hasMethodAnnotation(ContentETag.class)
+                || request.getDispatcherType() == DispatcherType.ASYNC
+                || !(HttpMethod.GET.matches(request.getMethod())
+                || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String mapType = variables == null ? null : variables.get("mapType");
+        if (mapType == null) {
+            return true;
+        }
+        String etag = mapTypeVersions.etag(mapTypeVersions.current(mapType));
+        if (FenceProtobufHttpMessageConverter.preferred(request.getHeader(HttpHeaders.ACCEPT))) {
+            etag = etag.substring(0, etag.length() - 1) + "-pb\"";
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,50 @@
+package com.project.geofencing.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter per maptype, bumped after every committed change of its fences once all caches and
+ * indexes were refreshed. A response tagged with the version read before it was built can therefore
+ * never be newer than its tag claims, and every tag dies with the next change.
+ */
+@Component
+public class MapTypeVersions {
+
+    /**
+     * Prefix of the tags of this process, versions restart at 0 on every start.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the current version of the maptype.
+     */
+    public long current(String mapType) {
+        AtomicLong version = versions.get(mapType);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Bumps the version of the maptype, call only after the change is visible to readers.
+     *
+     * @param mapType - pass the maptype whose fences changed.
+     */
+    public void bump(String mapType) {
+        versions.computeIfAbsent(mapType, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Returns the strong entity tag for the given version of the maptype.
+     *
+     * @param version - pass the version read before the response was built.
+     * @return Returns the quoted entity tag.
+     */
+    public String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,158 @@
+package com.project.geofencing.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized and gzip bytes of the hottest per maptype responses, kept until the version of the maptype
+ * changes so repeated reads are served without touching the db or serializing again.
+ */
+@Slf4j
+@Component
+public class ResponseBodyCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MapTypeVersions mapTypeVersions;
+
+    private final ConcurrentMap<String, CachedBody> bodies = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the value of a response, only called when the cached body is outdated.
+     */
+    @FunctionalInterface
+    public interface BodyLoader {
+        Object load() throws ResourceNotFoundException;
+    }
+
+    /**
+     * Serializes a loaded response value.
+     */
+    @FunctionalInterface
+    public interface BodyEncoder {
+        byte[] encode(Object value) throws IOException;
+    }
+
+    /**
+     * Returns the body of the named response if it is cached for the current version of the maptype,
+     * without loading it.
+     *
+     * @param name    - pass the name of the response.
+     * @param mapType - pass the maptype of the response.
+     * @return Returns the cached body, null if it has to be loaded.
+     */
+    public CachedBody peek(String name, String mapType) {
+        CachedBody body = bodies.get(name + ':' + mapType);
+        return body != null && body.version == mapTypeVersions.current(mapType) ? body : null;
+    }
+
+    /**
+     * Returns the json body of the named response for the current version of the maptype.
+     *
+     * @param name    - pass the name of the response.
+     * @param mapType - pass the maptype of the response.
+     * @param loader  - pass the loader of the response value.
+     * @return Returns the cached body.
+     * @throws ResourceNotFoundException - If the loader throws exception.
+     */
+    public CachedBody get(String name, String mapType, BodyLoader loader) throws ResourceNotFoundException {
+        return get(name, mapType, loader, objectMapper::writeValueAsBytes);
+    }
+
+    /**
+     * Returns the body of the named response for the current version of the maptype, loading and
+     * serializing it once per version. Concurrent requests for an outdated body wait for one load.
+     *
+     * @param name    - pass the name of the response.
+     * @param mapType - pass the maptype of the response.
+     * @param loader  - pass the loader of the response value.
+     * @param encoder - pass the serializer of the response value, names of different encodings must differ.
+     * @return Returns the cached body.
+     * @throws ResourceNotFoundException - If the loader throws exception.
+     */
+    public CachedBody get(String name, String mapType, BodyLoader loader, BodyEncoder encoder)
+            throws ResourceNotFoundException {
+        String key = name + ':' + mapType;
+        long version = mapTypeVersions.current(mapType);
+        CachedBody body = bodies.get(key);
+        if (body != null && body.version == version) {
+            return body;
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            body = bodies.get(key);
+            if (body != null && body.version == version) {
+                return body;
+            }
+            byte[] bytes;
+            try {
+                bytes = encoder.encode(loader.load());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            body = new CachedBody(version, bytes, gzip(bytes));
+            bodies.put(key, body);
+            log.debug("Response body cached for :: {} version :: {} with {} bytes, {} gzipped", key, version,
+                    bytes.length, body.gzip.length);
+            return body;
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One serialized response, tagged with the md5 of its bytes so equal content gets the same tag on
+     * every instance.
+     */
+    public static final class CachedBody {
+
+        private final long version;
+        private final byte[] body;
+        private final byte[] gzip;
+        private final String etag;
+
+        private CachedBody(long version, byte[] body, byte[] gzip) {
+            this.version = version;
+            this.body = body;
+            this.gzip = gzip;
+            this.etag = DigestUtils.md5DigestAsHex(body);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        /**
+         * Returns the strong entity tag of the plain or of the gzip encoded representation.
+         */
+        public String getETag(boolean gzipped) {
+            return "\"" + etag + (gzipped ? "-gz" : "") + "\"";
+        }
+    }
+}
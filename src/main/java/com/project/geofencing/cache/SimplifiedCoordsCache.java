@@ -0,0 +1,102 @@
+package com.project.geofencing.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.geometry.Simplifier;
+import com.project.geofencing.model.GeoCoordinates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Simplified coords of every fence and level, so reads at low zoom do not simplify on every request.
+ * All levels of a fence are simplified when it is created or updated; fences written by a bulk import
+ * or another instance are simplified on their first read. An entry is keyed by fence id and level and
+ * keeps the coords it was made from, so it is recomputed once the coords change, whatever the precision
+ * of the updated_at column. Their hash is compared first, so a read of unchanged coords compares the
+ * strings only when the hashes match.
+ */
+@Slf4j
+@Component
+public class SimplifiedCoordsCache {
+
+    private final Cache<String, Entry> entries;
+
+    @Autowired
+    public SimplifiedCoordsCache(@Value("${geofencing.simplify.cache-max-chars:50000000}") long maxChars) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxChars)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .build();
+    }
+
+    /**
+     * Returns the coords of the fence simplified to the level.
+     *
+     * @param geoCoordinates - pass the fence.
+     * @param level          - pass the level, from {@link Simplifier#MIN_LEVEL} to {@link Simplifier#MAX_LEVEL}.
+     * @return Returns the simplified coords, the coords of the fence itself if no vertex can be dropped.
+     */
+    public String simplify(GeoCoordinates geoCoordinates, int level) {
+        String coords = geoCoordinates.getCoords();
+        if (coords == null) {
+            return null;
+        }
+        String key = key(geoCoordinates.getId(), level);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || !entry.matches(coords)) {
+            String simplified = Simplifier.simplify(coords, Simplifier.tolerance(level));
+            entry = new Entry(coords, simplified == coords ? null : simplified);
+            entries.put(key, entry);
+        }
+        return entry.simplified == null ? coords : entry.simplified;
+    }
+
+    @EventListener
+    public void onGeoCoordinatesChanged(GeoCoordinatesChangedEvent event) {
+        GeoCoordinates geoCoordinates = event.getGeoCoordinates();
+        for (int level = Simplifier.MIN_LEVEL; level <= Simplifier.MAX_LEVEL; level += 2) {
+            if (event.getChangeType() == GeoCoordinatesChangedEvent.ChangeType.DELETED) {
+                entries.invalidate(key(geoCoordinates.getId(), level));
+            } else {
+                simplify(geoCoordinates, level);
+            }
+        }
+        log.debug("Simplified coords refreshed for :: {}", event);
+    }
+
+    private static String key(long id, int level) {
+        return id + "@z" + level;
+    }
+
+    private static final class Entry {
+
+        /**
+         * The coords the entry was made from, counted in the weight of every level although the levels
+         * of a fence usually share them.
+         */
+        private final String coords;
+
+        /**
+         * The simplified coords, null if they are the coords the entry was made from.
+         */
+        private final String simplified;
+
+        private Entry(String coords, String simplified) {
+            this.coords = coords;
+            this.simplified = simplified;
+        }
+
+        private boolean matches(String coords) {
+            return coords == this.coords
+                    || (coords.hashCode() == this.coords.hashCode() && coords.equals(this.coords));
+        }
+
+        private int weight() {
+            return 16 + coords.length() + (simplified == null ? 0 : simplified.length());
+        }
+    }
+}
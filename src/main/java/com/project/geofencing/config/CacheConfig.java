@@ -0,0 +1,94 @@
+package com.project.geofencing.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.AbstractCacheResolver;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Enables the fence caches, their sizes and expiry come from the spring.cache.caffeine.spec property.
+ * Every maptype gets its own instance of each cache, created on first use, so one maptype cannot push
+ * the fences of another out and their hit ratios are reported apart.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig extends CachingConfigurerSupport {
+
+    public static final String GEO_CORDS_BY_MAP_TYPE = "geoCordsByMapType";
+
+    public static final String GEO_CORDS_BY_ID = "geoCordsById";
+
+    public static final String GEO_CORDS_BY_NAME = "geoCordsByName";
+
+    public static final String GEO_CORDS_NAMES = "geoCordsNames";
+
+    @Value("${spring.cache.caffeine.spec:}")
+    private String caffeineSpec;
+
+    private final ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar;
+
+    public CacheConfig(ObjectProvider<CacheMetricsRegistrar> cacheMetricsRegistrar) {
+        this.cacheMetricsRegistrar = cacheMetricsRegistrar;
+    }
+
+    /**
+     * Builds the name of the instance of a cache for a maptype.
+     */
+    public static String partition(String cacheName, String mapType) {
+        return cacheName + ':' + mapType;
+    }
+
+    @Bean
+    @Override
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache createCaffeineCache(String name) {
+                Cache cache = super.createCaffeineCache(name);
+                CacheMetricsRegistrar registrar = cacheMetricsRegistrar.getIfAvailable();
+                if (registrar != null) {
+                    registrar.bindCacheToRegistry(cache, Tag.of("cacheManager", "cacheManager"));
+                }
+                return cache;
+            }
+        };
+        if (!caffeineSpec.isEmpty()) {
+            cacheManager.setCaffeineSpec(CaffeineSpec.parse(caffeineSpec));
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Resolves the caches of the maptype the cached method is called with, its first argument.
+     */
+    @Bean
+    @Override
+    public CacheResolver cacheResolver() {
+        return new AbstractCacheResolver(cacheManager()) {
+            @Override
+            protected Collection<String> getCacheNames(CacheOperationInvocationContext<?> context) {
+                String mapType = String.valueOf(context.getArgs()[0]);
+                List<String> cacheNames = new ArrayList<>();
+                for (String cacheName : context.getOperation().getCacheNames()) {
+                    cacheNames.add(partition(cacheName, mapType));
+                }
+                return cacheNames;
+            }
+        };
+    }
+}
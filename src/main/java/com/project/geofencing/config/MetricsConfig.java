@@ -0,0 +1,74 @@
+package com.project.geofencing.config;
+
+import com.project.geofencing.bulkhead.DatabaseBulkhead;
+import com.project.geofencing.metrics.MapTypeTagsProvider;
+import com.project.geofencing.metrics.PayloadMetricsFilter;
+import com.project.geofencing.metrics.RepositoryMetricsPostProcessor;
+import com.project.geofencing.push.FenceChangeBroadcaster;
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * Adds the maptype tag to the request timers, times the repository calls and registers the gauges of
+ * components that do not depend on the registry themselves. Histograms of the timers are switched on in
+ * the management.metrics.distribution properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MapTypeTagsProvider mapTypeTagsProvider(GeoCoordinatesValidation geoCoordinatesValidation) {
+        return new MapTypeTagsProvider(geoCoordinatesValidation);
+    }
+
+    /**
+     * Also runs the payload filter in the dispatch that writes the result of an asynchronous handler.
+     */
+    @Bean
+    public FilterRegistrationBean<PayloadMetricsFilter> payloadMetricsFilterRegistration(
+            PayloadMetricsFilter payloadMetricsFilter) {
+        FilterRegistrationBean<PayloadMetricsFilter> registration =
+                new FilterRegistrationBean<>(payloadMetricsFilter);
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RepositoryMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder pushMetrics(FenceChangeBroadcaster fenceChangeBroadcaster) {
+        return registry -> Gauge.builder("geofencing.push.subscribers", fenceChangeBroadcaster,
+                FenceChangeBroadcaster::getSubscriberCount)
+                .description("Connected server-sent event subscribers over all maptypes")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(DatabaseBulkhead databaseBulkhead) {
+        return registry -> {
+            Gauge.builder("geofencing.database.queued", databaseBulkhead, DatabaseBulkhead::getQueuedCount)
+                    .description("Database calls of web requests waiting for a thread")
+                    .register(registry);
+            Gauge.builder("geofencing.database.active", databaseBulkhead, DatabaseBulkhead::getActiveCount)
+                    .description("Database threads running a call")
+                    .register(registry);
+            FunctionCounter.builder("geofencing.database.rejected", databaseBulkhead,
+                    DatabaseBulkhead::getRejectedCount)
+                    .description("Database calls rejected with 503 because the queue was full")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.geofencing.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled housekeeping jobs, such as the eviction of idle tracked devices.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,37 @@
+package com.project.geofencing.config;
+
+import com.project.geofencing.cache.MapTypeETagInterceptor;
+import com.project.geofencing.wire.FenceProtobufHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the conditional GET handling of the per maptype read endpoints. The full list, the summaries
+ * and the names are excluded, they are tagged by content from their cached bodies instead, and so is the
+ * event stream.
+ * Also adds the binary fence format after the default converters, so json stays the default.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MapTypeETagInterceptor mapTypeETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(mapTypeETagInterceptor)
+                .addPathPatterns("/geocoord/maptype/*/**")
+                .excludePathPatterns("/geocoord/maptype/*", "/geocoord/maptype/*/summaries",
+                        "/geocoord/maptype/*/events");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new FenceProtobufHttpMessageConverter());
+    }
+}
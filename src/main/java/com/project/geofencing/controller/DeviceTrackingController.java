@@ -0,0 +1,92 @@
+package com.project.geofencing.controller;
+
+import com.project.geofencing.bulkhead.DatabaseBulkhead;
+import com.project.geofencing.event.FenceTransitionEvent;
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.project.geofencing.model.DeviceLocation;
+import com.project.geofencing.service.DeviceTrackingService;
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/tracking")
+@CrossOrigin(origins = "*")
+public class DeviceTrackingController {
+
+    @Autowired
+    private DeviceTrackingService deviceTrackingService;
+
+    @Autowired
+    private GeoCoordinatesValidation geoCoordinatesValidation;
+
+    @Autowired
+    private FenceIndexRegistry fenceIndexRegistry;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    /**
+     * Applies the location updates of devices and returns the enter, exit and dwell transitions they cause.
+     * Until the fence index of the maptype is first built, the updates wait for it on a database thread.
+     *
+     * @param mapType   - pass the type of map whose fences the devices are tracked against.
+     * @param locations - pass the array of device locations, updates of one device in the order they were taken.
+     * @return Returns the list of fence transitions in update order.
+     * @throws ResourceNotFoundException - If maptype or locations are invalid throws exception.
+     */
+    @ApiOperation("Track device locations against the fences of the given maptype.")
+    @PostMapping("/maptype/{mapType}/locations")
+    public CompletableFuture<List<FenceTransitionEvent>> trackDevices(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestBody List<DeviceLocation> locations)
+            throws ResourceNotFoundException {
+        log.debug("Received call at trackDevices");
+        geoCoordinatesValidation.validateMapType(mapType);
+        for (int i = 0; i < locations.size(); i++) {
+            if (locations.get(i) == null || locations.get(i).getDeviceId() == null) {
+                throw new ResourceNotFoundException("Device id is not passed at index :: " + i);
+            }
+            if (locations.get(i).getLat() == null || locations.get(i).getLng() == null) {
+                throw new ResourceNotFoundException("Lat and lng are not passed at index :: " + i);
+            }
+        }
+        if (fenceIndexRegistry.isBuilt(mapType)) {
+            return CompletableFuture.completedFuture(deviceTrackingService.trackDevices(mapType, locations));
+        }
+        return databaseBulkhead.supply(() -> deviceTrackingService.trackDevices(mapType, locations));
+    }
+
+    /**
+     * Gets the ids of the fences the device was last seen inside.
+     *
+     * @param mapType  - pass the type of map whose fences the device is tracked against.
+     * @param deviceId - pass the id of the device.
+     * @return Returns the sorted fence ids, empty if the device is outside every fence.
+     * @throws ResourceNotFoundException - If maptype is invalid throws exception.
+     */
+    @ApiOperation("Get the fences the given device is inside for the given maptype.")
+    @GetMapping("/maptype/{mapType}/device/{deviceId}")
+    public long[] getDeviceFenceIds(
+            @PathVariable(value = "mapType") String mapType,
+            @PathVariable(value = "deviceId") String deviceId)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getDeviceFenceIds");
+        geoCoordinatesValidation.validateMapType(mapType);
+        return deviceTrackingService.fetchDeviceFenceIds(mapType, deviceId);
+    }
+}
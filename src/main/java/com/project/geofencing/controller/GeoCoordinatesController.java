@@ -1,13 +1,33 @@
 package com.project.geofencing.controller;
 
+import com.project.geofencing.bulkhead.DatabaseBulkhead;
+import com.project.geofencing.cache.ContentETag;
+import com.project.geofencing.cache.ResponseBodyCache;
+import com.project.geofencing.cache.ResponseBodyCache.CachedBody;
+import com.project.geofencing.cache.SimplifiedCoordsCache;
 import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.geometry.Simplifier;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.model.BulkImportReport;
+import com.project.geofencing.model.ChangeCursor;
+import com.project.geofencing.model.FenceChangePage;
+import com.project.geofencing.model.FenceDistance;
 import com.project.geofencing.model.GeoCoordinates;
-import com.project.geofencing.repository.GeoCoordinatesRepository;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import com.project.geofencing.model.GeoCoordinatesSummary;
+import com.project.geofencing.push.FenceChangeBroadcaster;
+import com.project.geofencing.service.GeoCoordinatesImportService;
 import com.project.geofencing.service.GeoCoordinatesService;
 import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import com.project.geofencing.wire.FenceProtobufHttpMessageConverter;
+import com.project.geofencing.wire.FenceWireFormat;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,14 +36,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 
 @Slf4j
@@ -33,36 +64,182 @@ import java.util.Map;
 public class GeoCoordinatesController {
 
     @Autowired
-    private GeoCoordinatesRepository geoCoordinatesRepository;
+    private GeoCoordinatesService geoCoordinatesService;
 
     @Autowired
-    private GeoCoordinatesService geoCoordinatesService;
+    private GeoCoordinatesImportService geoCoordinatesImportService;
 
     @Autowired
     private GeoCoordinatesValidation geoCoordinatesValidation;
 
-    private String string;
+    @Autowired
+    private FenceChangeBroadcaster fenceChangeBroadcaster;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Autowired
+    private FenceIndexRegistry fenceIndexRegistry;
+
+    @Autowired
+    private SimplifiedCoordsCache simplifiedCoordsCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_NEAREST = 1000;
+
+    private static final int MAX_ZOOM = 22;
 
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(GeoCoordinatesController.class);
 
     /**
-     * Gets all geo coordinates for the given maptype.
+     * Gets all geo coordinates for the given maptype. The body is served from the cached json or binary,
+     * plain or gzip bytes and answers a matching If-None-Match with 304. Only a body that is not cached
+     * yet is loaded on a database thread. Maps at low zoom can ask for simplified coords, each level is
+     * built on its first read after a write and then cached like the full list.
      *
-     * @param mapType - pass the type of map for which you want to retrive the coordinates.
+     * @param mapType        - pass the type of map for which you want to retrive the coordinates.
+     * @param zoom           - pass the zoom of the map to receive coords simplified to about one pixel.
+     * @param tolerance      - pass the largest error in degrees to receive simplified coords, instead of zoom.
+     * @param accept         - pass application/x-protobuf to receive the binary fence list.
+     * @param acceptEncoding - pass gzip to receive the gzip encoded body.
      * @return Returns the list of geo coordinates.
      * @throws ResourceNotFoundException - If not found throws exception.
      */
-    @ApiOperation("Get all geo coordinates for the given maptype.")
+    @ApiOperation(value = "Get all geo coordinates for the given maptype.", response = GeoCoordinates.class,
+            responseContainer = "List")
     @GetMapping("/maptype/{mapType}")
-    public List<GeoCoordinates> getAllGeoCords(
-            @PathVariable(value = "mapType") String mapType)
+    @ContentETag
+    public CompletableFuture<ResponseEntity<byte[]>> getAllGeoCords(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "zoom", required = false) Integer zoom,
+            @RequestParam(value = "tolerance", required = false) Double tolerance,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
             throws ResourceNotFoundException {
         log.debug("Received call at getAllGeoCords");
         geoCoordinatesValidation.validateMapType(mapType);
-        return geoCoordinatesService.fetchAllGeoCords(mapType);
+        int level = detailLevel(zoom, tolerance);
+        String name = level < 0 ? "all" : "all@z" + level;
+        if (FenceProtobufHttpMessageConverter.preferred(accept)) {
+            CachedBody cached = responseBodyCache.peek(name + ".pb", mapType);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cachedResponse(cached,
+                        FenceProtobufHttpMessageConverter.APPLICATION_PROTOBUF, acceptEncoding));
+            }
+            return databaseBulkhead.supply(() -> {
+                @SuppressWarnings("unchecked")
+                CachedBody body = responseBodyCache.get(name + ".pb", mapType,
+                        () -> simplified(geoCoordinatesService.fetchAllGeoCords(mapType), level),
+                        value -> FenceWireFormat.encodeList((List<GeoCoordinates>) value));
+                return cachedResponse(body, FenceProtobufHttpMessageConverter.APPLICATION_PROTOBUF, acceptEncoding);
+            });
+        }
+        CachedBody cached = responseBodyCache.peek(name, mapType);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cachedResponse(cached, MediaType.APPLICATION_JSON_UTF8,
+                    acceptEncoding));
+        }
+        return databaseBulkhead.supply(() -> {
+            CachedBody body = responseBodyCache.get(name, mapType,
+                    () -> simplified(geoCoordinatesService.fetchAllGeoCords(mapType), level));
+            return cachedResponse(body, MediaType.APPLICATION_JSON_UTF8, acceptEncoding);
+        });
+    }
+
+
+    /**
+     * Gets one page of geo coordinates for the given maptype, ordered by id.
+     *
+     * @param mapType   - pass the type of map for which you want to retrive the coordinates.
+     * @param after     - pass the nextCursor of the previous page, omit for the first page.
+     * @param size      - pass the page size, at most 1000.
+     * @param zoom      - pass the zoom of the map to receive coords simplified to about one pixel.
+     * @param tolerance - pass the largest error in degrees to receive simplified coords, instead of zoom.
+     * @return Returns the page of geo coordinates with the cursor of the next page.
+     * @throws ResourceNotFoundException - If maptype, size, zoom or tolerance is invalid throws exception.
+     */
+    @ApiOperation("Get one page of geo coordinates for the given maptype.")
+    @GetMapping("/maptype/{mapType}/page")
+    public CompletableFuture<GeoCoordinatesPage> getGeoCordsPage(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "size", defaultValue = "100") int size,
+            @RequestParam(value = "zoom", required = false) Integer zoom,
+            @RequestParam(value = "tolerance", required = false) Double tolerance)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsPage");
+        geoCoordinatesValidation.validateMapType(mapType);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResourceNotFoundException("Invaild page size: " + size + " :: Expected: 1 to " + MAX_PAGE_SIZE);
+        }
+        int level = detailLevel(zoom, tolerance);
+        return databaseBulkhead.supply(() -> {
+            GeoCoordinatesPage page = geoCoordinatesService.fetchGeoCordsPage(mapType, after, size);
+            page.setItems(simplified(page.getItems(), level));
+            return page;
+        });
     }
 
+    /**
+     * Streams all geo coordinates for the given maptype as newline delimited json, one row at a time.
+     *
+     * @param mapType - pass the type of map for which you want to retrive the coordinates.
+     * @return Returns the streamed geo coordinates.
+     * @throws ResourceNotFoundException - If maptype is invalid throws exception.
+     */
+    @ApiOperation("Stream all geo coordinates for the given maptype as newline delimited json.")
+    @GetMapping(value = "/maptype/{mapType}/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamGeoCords(
+            @PathVariable(value = "mapType") String mapType)
+            throws ResourceNotFoundException {
+        log.debug("Received call at streamGeoCords");
+        geoCoordinatesValidation.validateMapType(mapType);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                geoCoordinatesService.streamGeoCords(mapType, geoCoordinates -> {
+                    try {
+                        objectMapper.writeValue(generator, geoCoordinates);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    /**
+     * Subscribes to the changes of the geo coordinates of the given maptype as server-sent events. Every
+     * create or update is an upsert event and every delete a delete event, both carrying the change as
+     * json. A resync event means changes were missed and the geo coordinates have to be refetched.
+     *
+     * @param mapType     - pass the type of map whose changes you want to receive.
+     * @param lastEventId - pass the id of the last event received, sent by browsers when they reconnect.
+     * @return Returns the event stream.
+     * @throws ResourceNotFoundException - If maptype is invalid throws exception.
+     */
+    @ApiOperation("Subscribe to the changes of the geo coordinates of the given maptype.")
+    @GetMapping(value = "/maptype/{mapType}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getGeoCordsEvents(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsEvents");
+        geoCoordinatesValidation.validateMapType(mapType);
+        return fenceChangeBroadcaster.subscribe(mapType, lastEventId);
+    }
 
     /**
      * Gets geo coordinates for the given maptype and id.
@@ -74,14 +251,16 @@ public class GeoCoordinatesController {
      */
     @ApiOperation("Get geo coordinates for the given maptype and id.")
     @GetMapping("/maptype/{mapType}/id/{id}")
-    public ResponseEntity<GeoCoordinates> getGeoCordsById(
+    public CompletableFuture<ResponseEntity<GeoCoordinates>> getGeoCordsById(
             @PathVariable(value = "mapType") String mapType,
             @PathVariable(value = "id") Long geoCordId)
             throws ResourceNotFoundException {
         log.debug("Received call at getGeoCordsById");
         geoCoordinatesValidation.validateMapType(mapType);
-        GeoCoordinates geoCoordinates = geoCoordinatesService.fetchGeoCordsById(mapType, geoCordId);
-        return ResponseEntity.ok().body(geoCoordinates);
+        return databaseBulkhead.supply(() -> {
+            GeoCoordinates geoCoordinates = geoCoordinatesService.fetchGeoCordsById(mapType, geoCordId);
+            return ResponseEntity.ok().body(geoCoordinates);
+        });
     }
 
     /**
@@ -94,31 +273,229 @@ public class GeoCoordinatesController {
      */
     @ApiOperation("Get geo coordinates for the given maptype and name.")
     @GetMapping("/maptype/{mapType}/name/{name}")
-    public ResponseEntity<List<GeoCoordinates>> getGeoCordsByName(
+    public CompletableFuture<ResponseEntity<List<GeoCoordinates>>> getGeoCordsByName(
             @PathVariable(value = "mapType") String mapType,
             @PathVariable(value = "name") String geoCordName)
             throws ResourceNotFoundException {
         log.debug("Received call at getGeoCordsByName");
         geoCoordinatesValidation.validateMapType(mapType);
-        List<GeoCoordinates> geoCords = geoCoordinatesService.fetchGeoCordsByName(mapType, geoCordName);
-        return ResponseEntity.ok().body(geoCords);
+        return databaseBulkhead.supply(() -> {
+            List<GeoCoordinates> geoCords = geoCoordinatesService.fetchGeoCordsByName(mapType, geoCordName);
+            return ResponseEntity.ok().body(geoCords);
+        });
     }
 
     /**
-     * Gets distinct geo coordinates for the given maptype.
+     * Gets geo coordinates for the given maptype whose polygon contains the given point.
+     *
+     * @param mapType - pass the type of map for which you want to retrive the coordinates
+     * @param lat     - pass the latitude of the point
+     * @param lng     - pass the longitude of the point
+     * @return Returns the list of geo coordinates containing the point.
+     * @throws ResourceNotFoundException - If maptype is invalid throws exception.
+     */
+    @ApiOperation("Get geo coordinates for the given maptype containing the given point.")
+    @GetMapping("/maptype/{mapType}/contains")
+    public CompletableFuture<List<GeoCoordinates>> getGeoCordsContaining(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "lat") double lat,
+            @RequestParam(value = "lng") double lng)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsContaining");
+        geoCoordinatesValidation.validateMapType(mapType);
+        return lookup(mapType, () -> geoCoordinatesService.fetchGeoCordsContaining(mapType, lat, lng));
+    }
+
+    /**
+     * Gets the k geo coordinates for the given maptype nearest to the given point.
+     *
+     * @param mapType - pass the type of map for which you want to retrive the coordinates
+     * @param lat     - pass the latitude of the point
+     * @param lng     - pass the longitude of the point
+     * @param k       - pass the number of geo coordinates to return, at most 1000.
+     * @return Returns the list of geo coordinates with their distance in meters, nearest first.
+     * @throws ResourceNotFoundException - If maptype or k is invalid throws exception.
+     */
+    @ApiOperation("Get the geo coordinates for the given maptype nearest to the given point.")
+    @GetMapping("/maptype/{mapType}/nearest")
+    public CompletableFuture<List<FenceDistance>> getGeoCordsNearest(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "lat") double lat,
+            @RequestParam(value = "lng") double lng,
+            @RequestParam(value = "k", defaultValue = "1") int k)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsNearest");
+        geoCoordinatesValidation.validateMapType(mapType);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new ResourceNotFoundException("Invaild k: " + k + " :: Expected: 1 to " + MAX_NEAREST);
+        }
+        return lookup(mapType, () -> geoCoordinatesService.fetchGeoCordsNearest(mapType, lat, lng, k));
+    }
+
+    /**
+     * Gets the nearest geo coordinates for the given maptype within the given radius of the point.
      *
      * @param mapType - pass the type of map for which you want to retrive the coordinates
+     * @param lat     - pass the latitude of the point
+     * @param lng     - pass the longitude of the point
+     * @param radius  - pass the radius in meters.
+     * @param limit   - pass the maximum number of geo coordinates to return, at most 1000.
+     * @return Returns the list of geo coordinates with their distance in meters, nearest first.
+     * @throws ResourceNotFoundException - If maptype, radius or limit is invalid throws exception.
+     */
+    @ApiOperation("Get the geo coordinates for the given maptype within the given radius of the point.")
+    @GetMapping("/maptype/{mapType}/within")
+    public CompletableFuture<List<FenceDistance>> getGeoCordsWithin(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "lat") double lat,
+            @RequestParam(value = "lng") double lng,
+            @RequestParam(value = "radius") double radius,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsWithin");
+        geoCoordinatesValidation.validateMapType(mapType);
+        if (!(radius >= 0) || Double.isInfinite(radius)) {
+            throw new ResourceNotFoundException("Invaild radius: " + radius);
+        }
+        if (limit < 1 || limit > MAX_NEAREST) {
+            throw new ResourceNotFoundException("Invaild limit: " + limit + " :: Expected: 1 to " + MAX_NEAREST);
+        }
+        return lookup(mapType, () -> geoCoordinatesService.fetchGeoCordsWithin(mapType, lat, lng, radius, limit));
+    }
+
+    /**
+     * Gets the geo coordinates for the given maptype whose bounding box intersects the given box, for
+     * example the visible part of a map.
+     *
+     * @param mapType   - pass the type of map for which you want to retrive the coordinates
+     * @param minLat    - pass the southern latitude of the box
+     * @param minLng    - pass the western longitude of the box
+     * @param maxLat    - pass the northern latitude of the box
+     * @param maxLng    - pass the eastern longitude of the box
+     * @param zoom      - pass the zoom of the map to receive coords simplified to about one pixel.
+     * @param tolerance - pass the largest error in degrees to receive simplified coords, instead of zoom.
+     * @return Returns the list of geo coordinates intersecting the box.
+     * @throws ResourceNotFoundException - If maptype, box, zoom or tolerance is invalid throws exception.
+     */
+    @ApiOperation("Get the geo coordinates for the given maptype intersecting the given bounding box.")
+    @GetMapping("/maptype/{mapType}/bbox")
+    public CompletableFuture<List<GeoCoordinates>> getGeoCordsIntersecting(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestParam(value = "minLat") double minLat,
+            @RequestParam(value = "minLng") double minLng,
+            @RequestParam(value = "maxLat") double maxLat,
+            @RequestParam(value = "maxLng") double maxLng,
+            @RequestParam(value = "zoom", required = false) Integer zoom,
+            @RequestParam(value = "tolerance", required = false) Double tolerance)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsIntersecting");
+        geoCoordinatesValidation.validateMapType(mapType);
+        if (!(minLat <= maxLat) || !(minLng <= maxLng)) {
+            throw new ResourceNotFoundException("Invaild bounding box: " + minLat + "," + minLng + ";" + maxLat + ","
+                    + maxLng);
+        }
+        int level = detailLevel(zoom, tolerance);
+        return databaseBulkhead.supply(() -> simplified(geoCoordinatesService.fetchGeoCordsIntersecting(mapType,
+                minLat, minLng, maxLat, maxLng), level));
+    }
+
+    /**
+     * Gets the geo coordinates created, updated or deleted since a point in time, oldest first. Pass the
+     * nextCursor of each page as cursor to continue; polling with the last cursor returns later changes.
+     *
+     * @param since   - pass the time in epoch millis to start from, omit together with cursor to start
+     *                from the first change.
+     * @param cursor  - pass the nextCursor of the previous page.
+     * @param mapType - pass the maptype of the changes, omit for the changes of all maptypes.
+     * @param size    - pass the page size, at most 1000.
+     * @return Returns the page of changes with the cursor to continue from, completed with
+     * ChangesExpiredException if the position is older than the retained deletes.
+     * @throws ResourceNotFoundException - If a parameter is invalid throws exception.
+     */
+    @ApiOperation("Get the geo coordinates changed since the given time or cursor.")
+    @GetMapping("/changes")
+    public CompletableFuture<FenceChangePage> getGeoCordsChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "mapType", required = false) String mapType,
+            @RequestParam(value = "size", defaultValue = "100") int size)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsChanges");
+        if (mapType != null) {
+            geoCoordinatesValidation.validateMapType(mapType);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResourceNotFoundException("Invaild page size: " + size + " :: Expected: 1 to " + MAX_PAGE_SIZE);
+        }
+        if (since != null && cursor != null) {
+            throw new ResourceNotFoundException("Invaild parameters :: Pass either since or cursor");
+        }
+        ChangeCursor from = cursor == null ? ChangeCursor.since(since == null ? 0 : since) : ChangeCursor.parse(cursor);
+        if (from == null) {
+            throw new ResourceNotFoundException("Invaild cursor: " + cursor);
+        }
+        return databaseBulkhead.supply(() -> geoCoordinatesService.fetchGeoCordsChanges(mapType, from, size));
+    }
+
+    /**
+     * Gets distinct geo coordinates for the given maptype.
+     *
+     * @param mapType        - pass the type of map for which you want to retrive the coordinates
+     * @param acceptEncoding - pass gzip to receive the gzip encoded body.
      * @return Returns the  list of geo coordinates names.
      * @throws ResourceNotFoundException - If not found throws exception.
      */
-    @ApiOperation("Get all geo coordinates names for the given maptype.")
+    @ApiOperation(value = "Get all geo coordinates names for the given maptype.", response = String.class,
+            responseContainer = "List")
     @GetMapping("/names/maptype/{mapType}")
-    public List<String> getAllDistinctGeoCordsName(
-            @PathVariable(value = "mapType") String mapType)
+    @ContentETag
+    public CompletableFuture<ResponseEntity<byte[]>> getAllDistinctGeoCordsName(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
             throws ResourceNotFoundException {
         log.debug("Received call at getAllDistinctGeoCordsName");
         geoCoordinatesValidation.validateMapType(mapType);
-        return geoCoordinatesService.fetchGeoCordsAllNames(mapType);
+        CachedBody cached = responseBodyCache.peek("names", mapType);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cachedResponse(cached, MediaType.APPLICATION_JSON_UTF8,
+                    acceptEncoding));
+        }
+        return databaseBulkhead.supply(() -> {
+            CachedBody body = responseBodyCache.get("names", mapType,
+                    () -> geoCoordinatesService.fetchGeoCordsAllNames(mapType));
+            return cachedResponse(body, MediaType.APPLICATION_JSON_UTF8, acceptEncoding);
+        });
+    }
+
+    /**
+     * Gets the id, name and bounding box of all geo coordinates for the given maptype, without their coords,
+     * for lists to pick a geo coordinates from. Served like the full list from cached json.
+     *
+     * @param mapType        - pass the type of map for which you want to retrive the summaries.
+     * @param acceptEncoding - pass gzip to receive the gzip encoded body.
+     * @return Returns the list of summaries ordered by id.
+     * @throws ResourceNotFoundException - If maptype is invalid throws exception.
+     */
+    @ApiOperation(value = "Get the id, name and bounding box of all geo coordinates for the given maptype.",
+            response = GeoCoordinatesSummary.class, responseContainer = "List")
+    @GetMapping("/maptype/{mapType}/summaries")
+    @ContentETag
+    public CompletableFuture<ResponseEntity<byte[]>> getGeoCordsSummaries(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordsSummaries");
+        geoCoordinatesValidation.validateMapType(mapType);
+        CachedBody cached = responseBodyCache.peek("summaries", mapType);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cachedResponse(cached, MediaType.APPLICATION_JSON_UTF8,
+                    acceptEncoding));
+        }
+        return databaseBulkhead.supply(() -> {
+            CachedBody body = responseBodyCache.get("summaries", mapType,
+                    () -> geoCoordinatesService.fetchGeoCordsSummaries(mapType));
+            return cachedResponse(body, MediaType.APPLICATION_JSON_UTF8, acceptEncoding);
+        });
     }
 
     /**
@@ -129,12 +506,11 @@ public class GeoCoordinatesController {
      */
     @ApiIgnore
     @PostMapping
-    public GeoCoordinates createGeoCords(@Valid @RequestBody GeoCoordinates geoCoordinates) throws ResourceNotFoundException {
-        string = geoCoordinates.getCoords();
-        geoCoordinatesValidation.validateCoords(string);
-        geoCoordinatesValidation.vaildatePolygon(string);
+    public CompletableFuture<GeoCoordinates> createGeoCords(@Valid @RequestBody GeoCoordinates geoCoordinates)
+            throws ResourceNotFoundException {
+        geoCoordinatesValidation.validateFence(geoCoordinates.getCoords());
         log.debug("Received call at createGeoCords");
-        return geoCoordinatesService.saveGeoCords(geoCoordinates);
+        return databaseBulkhead.supply(() -> geoCoordinatesService.saveGeoCords(geoCoordinates));
     }
 
 
@@ -146,14 +522,78 @@ public class GeoCoordinatesController {
      */
     @ApiIgnore
     @PostMapping("/bulk")
-    public List<GeoCoordinates> createAllGeoCords(@Valid @RequestBody List<GeoCoordinates> geoCords) throws ResourceNotFoundException {
+    public CompletableFuture<List<GeoCoordinates>> createAllGeoCords(@Valid @RequestBody List<GeoCoordinates> geoCords)
+            throws ResourceNotFoundException {
         for (GeoCoordinates geoCoordinates1 : geoCords) {
-            string = geoCoordinates1.getCoords();
-            geoCoordinatesValidation.validateCoords(string);
-            geoCoordinatesValidation.vaildatePolygon(string);
+            geoCoordinatesValidation.validateFence(geoCoordinates1.getCoords());
         }
         log.debug("Received call at createAllGeoCords");
-        return geoCoordinatesService.saveAllGeoCords(geoCords);
+        return databaseBulkhead.supply(() -> geoCoordinatesService.saveAllGeoCords(geoCords));
+    }
+
+    /**
+     * Imports a large number of geo coordinates sent as newline delimited json, committing them chunk by chunk.
+     *
+     * @param ndjson - pass one geo coordinates json object per line.
+     * @return Returns the import report with accepted rows and failures per chunk.
+     * @throws IOException - If the request body cannot be read.
+     */
+    @ApiIgnore
+    @PostMapping(value = "/bulk/stream", consumes = APPLICATION_NDJSON_VALUE)
+    public BulkImportReport importGeoCords(InputStream ndjson) throws IOException {
+        log.debug("Received call at importGeoCords");
+        return geoCoordinatesImportService.importGeoCords(ndjson);
+    }
+
+    /**
+     * Gets the ids of the geo coordinates containing each of the given points.
+     *
+     * @param mapType - pass the type of map for which you want to retrive the coordinates
+     * @param points  - pass the array of [lat, lng] points.
+     * @return Returns one list of geo coordinates ids per point, in request order.
+     * @throws ResourceNotFoundException - If maptype or points are invalid throws exception.
+     */
+    @ApiOperation("Get geo coordinates ids for the given maptype containing each of the given points.")
+    @PostMapping(value = "/maptype/{mapType}/contains/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<long[][]> getGeoCordIdsContaining(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestBody double[][] points)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordIdsContaining");
+        geoCoordinatesValidation.validateMapType(mapType);
+        double[] flatPoints = new double[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null || points[i].length != 2) {
+                throw new ResourceNotFoundException("Invaild point at index :: " + i);
+            }
+            flatPoints[2 * i] = points[i][0];
+            flatPoints[2 * i + 1] = points[i][1];
+        }
+        return lookup(mapType, () -> geoCoordinatesService.fetchGeoCordIdsContaining(mapType, flatPoints));
+    }
+
+    /**
+     * Gets the ids of the geo coordinates containing each of the given points, sent in binary form.
+     *
+     * @param mapType - pass the type of map for which you want to retrive the coordinates
+     * @param body    - pass the points as consecutive big-endian IEEE 754 doubles, lat then lng.
+     * @return Returns one list of geo coordinates ids per point, in request order.
+     * @throws ResourceNotFoundException - If maptype or points are invalid throws exception.
+     */
+    @ApiOperation("Get geo coordinates ids for the given maptype containing each of the given binary points.")
+    @PostMapping(value = "/maptype/{mapType}/contains/batch", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public CompletableFuture<long[][]> getGeoCordIdsContainingBinary(
+            @PathVariable(value = "mapType") String mapType,
+            @RequestBody byte[] body)
+            throws ResourceNotFoundException {
+        log.debug("Received call at getGeoCordIdsContainingBinary");
+        geoCoordinatesValidation.validateMapType(mapType);
+        if (body.length % (2 * Double.BYTES) != 0) {
+            throw new ResourceNotFoundException("Invaild points payload length :: " + body.length);
+        }
+        double[] flatPoints = new double[body.length / Double.BYTES];
+        ByteBuffer.wrap(body).asDoubleBuffer().get(flatPoints);
+        return lookup(mapType, () -> geoCoordinatesService.fetchGeoCordIdsContaining(mapType, flatPoints));
     }
 
     /**
@@ -166,31 +606,102 @@ public class GeoCoordinatesController {
      */
     @ApiIgnore
     @PutMapping("/id/{id}")
-    public ResponseEntity<GeoCoordinates> updateGeoCords(
+    public CompletableFuture<ResponseEntity<GeoCoordinates>> updateGeoCords(
             @PathVariable(value = "id") Long geoCordId,
             @Valid @RequestBody GeoCoordinates geoCordDetails)
             throws ResourceNotFoundException {
+        geoCoordinatesValidation.validateFence(geoCordDetails.getCoords());
         log.debug("Received call at updateGeoCords");
-        GeoCoordinates updatedGeoCoordinates = geoCoordinatesService.alterGeoCords(geoCordId, geoCordDetails);
-        return ResponseEntity.ok(updatedGeoCoordinates);
+        return databaseBulkhead.supply(() -> {
+            GeoCoordinates updatedGeoCoordinates = geoCoordinatesService.alterGeoCords(geoCordId, geoCordDetails);
+            return ResponseEntity.ok(updatedGeoCoordinates);
+        });
     }
 
     /**
      * Deletes the geo coordinates for the given id
      *
      * @param geoCordId - pass the geo coordinates id which you want to delete
-     * @return Returns the map with the status of deletion.
-     * @throws Exception - If not found throws exception
+     * @return Returns the map with the status of deletion, completed with ResourceNotFoundException if
+     * not found.
      */
     @ApiIgnore
     @DeleteMapping("/id/{id}")
-    public Map<String, Boolean> deleteGeoCords(@PathVariable(value = "id") Long geoCordId) throws Exception {
+    public CompletableFuture<Map<String, Boolean>> deleteGeoCords(@PathVariable(value = "id") Long geoCordId) {
         log.debug("Received call at deleteGeoCords");
-        GeoCoordinates geoCoordinates = geoCoordinatesService.removeGeoCords(geoCordId);
-        geoCoordinatesRepository.delete(geoCoordinates);
-        Map<String, Boolean> response = new HashMap<>();
-        response.put("deleted", Boolean.TRUE);
-        return response;
+        return databaseBulkhead.supply(() -> {
+            geoCoordinatesService.removeGeoCords(geoCordId);
+            Map<String, Boolean> response = new HashMap<>();
+            response.put("deleted", Boolean.TRUE);
+            return response;
+        });
+    }
+
+    /**
+     * Runs a lookup on the fence index of the maptype, on the request thread once the index is built. The
+     * first build reads every fence of the maptype, so until it is done the lookup waits on a database thread.
+     */
+    private <T> CompletableFuture<T> lookup(String mapType, Supplier<T> call) {
+        if (fenceIndexRegistry.isBuilt(mapType)) {
+            return CompletableFuture.completedFuture(call.get());
+        }
+        return databaseBulkhead.supply(call::get);
+    }
+
+    /**
+     * Returns the simplification level asked for by the zoom or tolerance parameter, -1 for all vertices.
+     */
+    private static int detailLevel(Integer zoom, Double tolerance) throws ResourceNotFoundException {
+        if (zoom != null && tolerance != null) {
+            throw new ResourceNotFoundException("Invaild parameters :: Pass either zoom or tolerance");
+        }
+        if (zoom != null) {
+            if (zoom < 0 || zoom > MAX_ZOOM) {
+                throw new ResourceNotFoundException("Invaild zoom: " + zoom + " :: Expected: 0 to " + MAX_ZOOM);
+            }
+            return Simplifier.levelForZoom(zoom);
+        }
+        if (tolerance != null) {
+            if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+                throw new ResourceNotFoundException("Invaild tolerance: " + tolerance);
+            }
+            return Simplifier.levelForTolerance(tolerance);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns copies of the geo coordinates with coords simplified to the level, the given list for -1.
+     * The simplified coords come from the cache kept up to date on writes.
+     */
+    private List<GeoCoordinates> simplified(List<GeoCoordinates> geoCords, int level) {
+        if (level < 0) {
+            return geoCords;
+        }
+        List<GeoCoordinates> simplified = new ArrayList<>(geoCords.size());
+        for (GeoCoordinates geoCoordinates : geoCords) {
+            String coords = geoCoordinates.getCoords();
+            String simple = simplifiedCoordsCache.simplify(geoCoordinates, level);
+            simplified.add(simple == coords ? geoCoordinates : geoCoordinates.withCoords(simple));
+        }
+        return simplified;
+    }
+
+    /**
+     * Builds the response of a cached body, gzip encoded if the client accepts it. The ResponseEntity
+     * answers a matching If-None-Match with 304 when it is written, never on a database thread.
+     */
+    private static ResponseEntity<byte[]> cachedResponse(CachedBody body, MediaType contentType,
+                                                         String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(body.getETag(gzip))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? body.getGzip() : body.getBody());
     }
 
 }
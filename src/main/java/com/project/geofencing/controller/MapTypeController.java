@@ -0,0 +1,63 @@
+package com.project.geofencing.controller;
+
+import com.project.geofencing.bulkhead.DatabaseBulkhead;
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.partition.MapTypeRegistry;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import springfox.documentation.annotations.ApiIgnore;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+
+@Slf4j
+@RestController
+@RequestMapping("/geocoord/maptypes")
+@CrossOrigin(origins = "*")
+public class MapTypeController {
+
+    @Autowired
+    private MapTypeRegistry mapTypeRegistry;
+
+    @Autowired
+    private DatabaseBulkhead databaseBulkhead;
+
+    /**
+     * Gets the maptypes fences can be stored under.
+     *
+     * @return Returns the configured maptypes followed by the registered ones.
+     */
+    @ApiOperation(value = "Get the maptypes fences can be stored under.", response = String.class,
+            responseContainer = "List")
+    @GetMapping
+    public Set<String> getMapTypes() {
+        log.debug("Received call at getMapTypes");
+        return mapTypeRegistry.getMapTypes();
+    }
+
+    /**
+     * Registers a maptype, its caches and fence index are created when it is first used.
+     *
+     * @param mapType - pass the name of the maptype, 1 to 64 letters, digits, _ or -.
+     * @return Returns 201 if the maptype was registered, 200 if it already was.
+     * @throws ResourceNotFoundException - If the name is invalid throws exception.
+     */
+    @ApiIgnore
+    @PutMapping("/{mapType}")
+    public CompletableFuture<ResponseEntity<Void>> registerMapType(@PathVariable(value = "mapType") String mapType)
+            throws ResourceNotFoundException {
+        log.debug("Received call at registerMapType");
+        return databaseBulkhead.supply(() -> new ResponseEntity<>(
+                mapTypeRegistry.register(mapType) ? HttpStatus.CREATED : HttpStatus.OK));
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.geofencing.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes the connections of read-only transactions to the least loaded replica, taking turns between
+ * equally loaded ones, and everything else to the primary. For lag-ms after a read-write transaction
+ * completed, reads go to the primary as well, so they see the write before the replicas caught up.
+ * A replica that cannot give a connection is skipped for the primary.
+ * <p>
+ * The read-only flag is only known once the transaction has begun, so this data source has to be
+ * wrapped in a {@code LazyConnectionDataSourceProxy}, which fetches the connection at the first
+ * statement.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long lagMillis;
+
+    private final AtomicInteger turn = new AtomicInteger();
+
+    private volatile long lastWriteMillis = Long.MIN_VALUE / 2;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long lagMillis) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.lagMillis = lagMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource replica = determineReplica();
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                log.warn("Replica unavailable, reading from primary :: {}", e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource replica = determineReplica();
+        if (replica != null) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                log.warn("Replica unavailable, reading from primary :: {}", e.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Returns the replica to read from, null to use the primary.
+     */
+    DataSource determineReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()
+                    && TransactionSynchronizationManager.isActualTransactionActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new WriteSynchronization());
+            }
+            return null;
+        }
+        if (replicas.isEmpty() || System.currentTimeMillis() - lastWriteMillis < lagMillis) {
+            return null;
+        }
+        int start = Math.floorMod(turn.getAndIncrement(), replicas.size());
+        DataSource leastLoaded = null;
+        int leastLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource replica = replicas.get((start + i) % replicas.size());
+            int load = load(replica);
+            if (load < leastLoad) {
+                leastLoaded = replica;
+                leastLoad = load;
+            }
+        }
+        return leastLoaded;
+    }
+
+    /**
+     * Returns the connections in use and awaited of a replica pool, 0 for other data sources.
+     */
+    private static int load(DataSource replica) {
+        if (replica instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) replica).getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Closes the replica pools, the primary is closed by its owner.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+    }
+
+    /**
+     * Starts the lag window when the read-write transaction completes, as only then the replicas
+     * begin to receive its changes.
+     */
+    private final class WriteSynchronization extends TransactionSynchronizationAdapter {
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                lastWriteMillis = System.currentTimeMillis();
+            }
+        }
+    }
+}
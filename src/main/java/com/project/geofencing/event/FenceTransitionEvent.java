@@ -0,0 +1,60 @@
+package com.project.geofencing.event;
+
+/**
+ * Published when a tracked device enters, leaves or has stayed long enough inside a fence.
+ */
+public class FenceTransitionEvent {
+
+    public enum TransitionType {
+        ENTER, EXIT, DWELL
+    }
+
+    private final TransitionType transitionType;
+    private final String mapType;
+    private final String deviceId;
+    private final long fenceId;
+    private final long timestamp;
+
+    public FenceTransitionEvent(TransitionType transitionType, String mapType, String deviceId, long fenceId,
+                                long timestamp) {
+        this.transitionType = transitionType;
+        this.mapType = mapType;
+        this.deviceId = deviceId;
+        this.fenceId = fenceId;
+        this.timestamp = timestamp;
+    }
+
+    public TransitionType getTransitionType() {
+        return transitionType;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public long getFenceId() {
+        return fenceId;
+    }
+
+    /**
+     * Returns the epoch millis of the location update that caused the transition.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "FenceTransitionEvent{" +
+                "transitionType=" + transitionType +
+                ", mapType=" + mapType +
+                ", deviceId=" + deviceId +
+                ", fenceId=" + fenceId +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
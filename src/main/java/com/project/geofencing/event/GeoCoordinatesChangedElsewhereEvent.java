@@ -0,0 +1,25 @@
+package com.project.geofencing.event;
+
+/**
+ * Published by the change watcher once per poll for every maptype whose fences another instance changed.
+ * Which fences changed is not known, only that the caches and index of the maptype were refreshed.
+ */
+public class GeoCoordinatesChangedElsewhereEvent {
+
+    private final String mapType;
+
+    public GeoCoordinatesChangedElsewhereEvent(String mapType) {
+        this.mapType = mapType;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    @Override
+    public String toString() {
+        return "GeoCoordinatesChangedElsewhereEvent{" +
+                "mapType=" + mapType +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.geofencing.event;
+
+import com.project.geofencing.model.GeoCoordinates;
+
+/**
+ * Published by the service after geo coordinates were created, updated or deleted.
+ */
+public class GeoCoordinatesChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final ChangeType changeType;
+    private final GeoCoordinates geoCoordinates;
+
+    public GeoCoordinatesChangedEvent(ChangeType changeType, GeoCoordinates geoCoordinates) {
+        this.changeType = changeType;
+        this.geoCoordinates = geoCoordinates;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public GeoCoordinates getGeoCoordinates() {
+        return geoCoordinates;
+    }
+
+    public String getMapType() {
+        return geoCoordinates.getMapType();
+    }
+
+    @Override
+    public String toString() {
+        return "GeoCoordinatesChangedEvent{" +
+                "changeType=" + changeType +
+                ", id=" + geoCoordinates.getId() +
+                ", mapType=" + geoCoordinates.getMapType() +
+                '}';
+    }
+}
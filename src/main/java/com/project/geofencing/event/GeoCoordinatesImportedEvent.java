@@ -0,0 +1,32 @@
+package com.project.geofencing.event;
+
+/**
+ * Published by the service once for every maptype of a bulk write, instead of one
+ * {@link GeoCoordinatesChangedEvent} per created geo coordinates.
+ */
+public class GeoCoordinatesImportedEvent {
+
+    private final String mapType;
+    private final int count;
+
+    public GeoCoordinatesImportedEvent(String mapType, int count) {
+        this.mapType = mapType;
+        this.count = count;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "GeoCoordinatesImportedEvent{" +
+                "mapType=" + mapType +
+                ", count=" + count +
+                '}';
+    }
+}
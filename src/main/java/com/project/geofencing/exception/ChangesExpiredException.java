@@ -0,0 +1,16 @@
+package com.project.geofencing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a change feed position is older than the retained tombstones, the client has to
+ * refetch all fences and continue from a fresh position.
+ */
+@ResponseStatus(value = HttpStatus.GONE)
+public class ChangesExpiredException extends Exception {
+
+    public ChangesExpiredException(String message) {
+        super(message);
+    }
+}
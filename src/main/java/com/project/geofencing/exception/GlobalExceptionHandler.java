@@ -1,12 +1,15 @@
 package com.project.geofencing.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -19,10 +22,45 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidGeoCoordinatesException.class)
+    public ResponseEntity<?> invalidGeoCoordinatesException(
+            InvalidGeoCoordinatesException ex, WebRequest request) {
+        ErrorResponse errorDetails =
+                new ValidationErrorResponse(new Date(), HttpStatus.BAD_REQUEST.toString(), ex.getMessage(),
+                        request.getDescription(false), ex.getError().getCode().name(), ex.getError().getPosition());
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<?> changesExpiredException(
+            ChangesExpiredException ex, WebRequest request) {
+        ErrorResponse errorDetails =
+                new ErrorResponse(new Date(), HttpStatus.GONE.toString(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> rejectedExecutionException(
+            RejectedExecutionException ex, WebRequest request) {
+        return serviceUnavailable(ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<?> asyncRequestTimeoutException(
+            AsyncRequestTimeoutException ex, WebRequest request) {
+        return serviceUnavailable("Request timed out, retry later", request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> globleExcpetionHandler(Exception ex, WebRequest request) {
         ErrorResponse errorDetails =
                 new ErrorResponse(new Date(), HttpStatus.INTERNAL_SERVER_ERROR.toString(), ex.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static ResponseEntity<?> serviceUnavailable(String message, WebRequest request) {
+        ErrorResponse errorDetails =
+                new ErrorResponse(new Date(), HttpStatus.SERVICE_UNAVAILABLE.toString(), message, request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
 }
@@ -0,0 +1,20 @@
+package com.project.geofencing.exception;
+
+import com.project.geofencing.validaton.CoordsError;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidGeoCoordinatesException extends ResourceNotFoundException {
+
+    private final CoordsError error;
+
+    public InvalidGeoCoordinatesException(String message, CoordsError error) {
+        super(message);
+        this.error = error;
+    }
+
+    public CoordsError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.geofencing.exception;
+
+import java.util.Date;
+
+public class ValidationErrorResponse extends ErrorResponse {
+
+    private String code;
+    private int position;
+
+    public ValidationErrorResponse(Date timestamp, String status, String message, String details,
+                                   String code, int position) {
+        super(timestamp, status, message, details);
+        this.code = code;
+        this.position = position;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,177 @@
+package com.project.geofencing.geometry;
+
+/**
+ * Fixed level grid over the whole globe, in the spirit of geohashes.
+ * <p>
+ * At level L latitude and longitude are each split into 2^L equal bands. The id of a cell is the
+ * Z-order (Morton) interleave of its row and column, so nearby cells mostly get nearby ids.
+ */
+public final class GridCells {
+
+    public static final int MAX_LEVEL = 30;
+
+    /**
+     * Fraction of a cell that edges are widened by while marking boundary cells, so rounding never
+     * leaves a cell that an edge passes through unmarked.
+     */
+    private static final double EDGE_MARGIN = 1e-6;
+
+    private GridCells() {
+    }
+
+    /**
+     * Returns the id of the cell containing the point.
+     *
+     * @param lat   - pass the latitude of the point.
+     * @param lng   - pass the longitude of the point.
+     * @param level - pass the grid level, 0 to {@link #MAX_LEVEL}.
+     * @return Returns the cell id.
+     */
+    public static long cellId(double lat, double lng, int level) {
+        return interleave(row(lat, level), column(lng, level));
+    }
+
+    /**
+     * Covers the polygon with the cells of the given level. Every cell a ring passes through is a
+     * boundary cell, the remaining cells are inside or outside as a whole and only inside cells are kept,
+     * so cells within a hole are dropped.
+     *
+     * @param polygon  - pass the polygon to cover.
+     * @param level    - pass the grid level, 0 to {@link #MAX_LEVEL}.
+     * @param maxCells - pass the maximum number of cells the bounding box of the polygon may span.
+     * @return Returns the covering, null if the bounding box spans more than maxCells cells.
+     */
+    public static Covering cover(Polygon polygon, int level, int maxCells) {
+        double cellLat = 180.0 / (1 << level);
+        double cellLng = 360.0 / (1 << level);
+        double marginLat = cellLat * EDGE_MARGIN;
+        double marginLng = cellLng * EDGE_MARGIN;
+        int row0 = row(polygon.getMinLat() - marginLat, level);
+        int row1 = row(polygon.getMaxLat() + marginLat, level);
+        int col0 = column(polygon.getMinLng() - marginLng, level);
+        int col1 = column(polygon.getMaxLng() + marginLng, level);
+        int cols = col1 - col0 + 1;
+        long spanned = (long) (row1 - row0 + 1) * cols;
+        if (spanned > maxCells) {
+            return null;
+        }
+        boolean[] boundary = new boolean[(int) spanned];
+        int marked = 0;
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            int first = polygon.getRingStart(ring);
+            int after = polygon.getRingEnd(ring);
+            for (int i = first; i < after; i++) {
+                int j = i + 1 == after ? first : i + 1;
+                double lat1 = polygon.getLat(i);
+                double lng1 = polygon.getLng(i);
+                double lat2 = polygon.getLat(j);
+                double lng2 = polygon.getLng(j);
+                double low = Math.min(lat1, lat2);
+                double high = Math.max(lat1, lat2);
+                for (int r = row(low - marginLat, level), last = row(high + marginLat, level); r <= last; r++) {
+                    double from = lng1;
+                    double to = lng2;
+                    if (lat1 != lat2) {
+                        double bandLow = Math.max(low, -90 + r * cellLat);
+                        double bandHigh = Math.min(high, -90 + (r + 1) * cellLat);
+                        from = lng1 + (lng2 - lng1) * (bandLow - lat1) / (lat2 - lat1);
+                        to = lng1 + (lng2 - lng1) * (bandHigh - lat1) / (lat2 - lat1);
+                    }
+                    int offset = (r - row0) * cols - col0;
+                    for (int c = column(Math.min(from, to) - marginLng, level),
+                         end = column(Math.max(from, to) + marginLng, level); c <= end; c++) {
+                        if (!boundary[offset + c]) {
+                            boundary[offset + c] = true;
+                            marked++;
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean[] inside = new boolean[boundary.length];
+        int insideCount = 0;
+        for (int r = row0; r <= row1; r++) {
+            int offset = (r - row0) * cols;
+            boolean runInside = false;
+            for (int c = 0; c < cols; c++) {
+                if (boundary[offset + c]) {
+                    continue;
+                }
+                if (c == 0 || boundary[offset + c - 1]) {
+                    runInside = polygon.contains(-90 + (r + 0.5) * cellLat, -180 + (col0 + c + 0.5) * cellLng);
+                }
+                if (runInside) {
+                    inside[offset + c] = true;
+                    insideCount++;
+                }
+            }
+        }
+
+        long[] cellIds = new long[marked + insideCount];
+        boolean[] insideFlags = new boolean[cellIds.length];
+        int k = 0;
+        for (int cell = 0; cell < boundary.length; cell++) {
+            if (boundary[cell] || inside[cell]) {
+                cellIds[k] = interleave(row0 + cell / cols, col0 + cell % cols);
+                insideFlags[k++] = inside[cell];
+            }
+        }
+        return new Covering(cellIds, insideFlags);
+    }
+
+    static int row(double lat, int level) {
+        int cells = 1 << level;
+        int row = (int) Math.floor((lat + 90) / 180 * cells);
+        return Math.max(0, Math.min(cells - 1, row));
+    }
+
+    static int column(double lng, int level) {
+        int cells = 1 << level;
+        int column = (int) Math.floor((lng + 180) / 360 * cells);
+        return Math.max(0, Math.min(cells - 1, column));
+    }
+
+    static long interleave(int row, int column) {
+        return spread(row) << 1 | spread(column);
+    }
+
+    private static long spread(int value) {
+        long x = value & 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x << 2) & 0x3333333333333333L;
+        x = (x | x << 1) & 0x5555555555555555L;
+        return x;
+    }
+
+    /**
+     * Cells covering one polygon, each either fully inside it or crossed by its boundary.
+     */
+    public static final class Covering {
+
+        private final long[] cellIds;
+        private final boolean[] inside;
+
+        private Covering(long[] cellIds, boolean[] inside) {
+            this.cellIds = cellIds;
+            this.inside = inside;
+        }
+
+        public int size() {
+            return cellIds.length;
+        }
+
+        public long getCellId(int i) {
+            return cellIds[i];
+        }
+
+        /**
+         * Returns true if cell i lies fully inside the polygon, false if a ring passes through it.
+         */
+        public boolean isInside(int i) {
+            return inside[i];
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.project.geofencing.geometry;
+
+/**
+ * Parsed, immutable form of a fence, one or more rings.
+ * <p>
+ * Vertices of all rings are kept as one flat {@code lat,lng,lat,lng,...} array together with the
+ * end of every ring and the precomputed bounding boxes, so geometry operations never touch the
+ * {@code coords} text again and do not allocate.
+ * <p>
+ * A point is inside if it is inside an odd number of rings. Rings do not cross each other, so a ring
+ * inside another one is a hole, a ring inside a hole an island, and separate rings are separate parts.
+ */
+public final class Polygon {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Digits beyond this are dropped while parsing, a long holds 18 decimal digits without overflow.
+     */
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+    private final double[] vertices;
+    private final int vertexCount;
+    private final boolean closed;
+    private final double minLat;
+    private final double minLng;
+    private final double maxLat;
+    private final double maxLng;
+
+    /**
+     * Vertex index after the last vertex of every ring.
+     */
+    private final int[] ringEnds;
+
+    /**
+     * minLat, minLng, maxLat, maxLng of every ring.
+     */
+    private final double[] ringBounds;
+
+    private Polygon(double[] vertices, int[] ringEnds) {
+        this.vertices = vertices;
+        this.vertexCount = vertices.length / 2;
+        this.ringEnds = ringEnds;
+        this.ringBounds = new double[4 * ringEnds.length];
+        boolean allClosed = true;
+        for (int ring = 0, start = 0; ring < ringEnds.length; start = ringEnds[ring++]) {
+            int first = 2 * start;
+            int last = 2 * ringEnds[ring] - 2;
+            allClosed &= vertices[first] == vertices[last] && vertices[first + 1] == vertices[last + 1];
+            double lowLat = vertices[first];
+            double highLat = vertices[first];
+            double lowLng = vertices[first + 1];
+            double highLng = vertices[first + 1];
+            for (int i = first + 2; i <= last; i += 2) {
+                lowLat = Math.min(lowLat, vertices[i]);
+                highLat = Math.max(highLat, vertices[i]);
+                lowLng = Math.min(lowLng, vertices[i + 1]);
+                highLng = Math.max(highLng, vertices[i + 1]);
+            }
+            ringBounds[4 * ring] = lowLat;
+            ringBounds[4 * ring + 1] = lowLng;
+            ringBounds[4 * ring + 2] = highLat;
+            ringBounds[4 * ring + 3] = highLng;
+        }
+        this.closed = allClosed;
+        double lowLat = ringBounds[0];
+        double lowLng = ringBounds[1];
+        double highLat = ringBounds[2];
+        double highLng = ringBounds[3];
+        for (int b = 4; b < ringBounds.length; b += 4) {
+            lowLat = Math.min(lowLat, ringBounds[b]);
+            lowLng = Math.min(lowLng, ringBounds[b + 1]);
+            highLat = Math.max(highLat, ringBounds[b + 2]);
+            highLng = Math.max(highLng, ringBounds[b + 3]);
+        }
+        this.minLat = lowLat;
+        this.maxLat = highLat;
+        this.minLng = lowLng;
+        this.maxLng = highLng;
+    }
+
+    /**
+     * Creates a single ring polygon over the given vertices, the array is used as is and must not be
+     * modified afterwards.
+     *
+     * @param vertices - pass the vertices as consecutive lat,lng pairs.
+     * @return Returns the polygon.
+     */
+    public static Polygon of(double[] vertices) {
+        return of(vertices, new int[]{vertices.length / 2});
+    }
+
+    /**
+     * Creates a polygon over the given rings, the arrays are used as is and must not be modified afterwards.
+     *
+     * @param vertices - pass the vertices of all rings as consecutive lat,lng pairs.
+     * @param ringEnds - pass the vertex index after the last vertex of every ring, ascending.
+     * @return Returns the polygon.
+     */
+    public static Polygon of(double[] vertices, int[] ringEnds) {
+        if (vertices.length % 2 != 0 || ringEnds.length == 0 || ringEnds[ringEnds.length - 1] != vertices.length / 2) {
+            throw new IllegalArgumentException("Ring ends do not match the vertices");
+        }
+        for (int ring = 0, start = 0; ring < ringEnds.length; start = ringEnds[ring++]) {
+            if (ringEnds[ring] - start < 3) {
+                throw new IllegalArgumentException("Polygon needs at least 3 lat,lng pairs per ring");
+            }
+        }
+        return new Polygon(vertices, ringEnds);
+    }
+
+    /**
+     * Parses {@code lat,lng;lat,lng;...} coordinates in a single pass, the trailing ';' is optional.
+     * Rings are separated by '/', as in {@code lat,lng;...;/lat,lng;...}.
+     *
+     * @param coords - pass the coordinates text.
+     * @return Returns the parsed polygon.
+     * @throws IllegalArgumentException - If the text is not a list of rings of at least 3 lat,lng pairs.
+     */
+    public static Polygon parse(CharSequence coords) {
+        if (coords == null || coords.length() == 0) {
+            throw new IllegalArgumentException("Co ordinates are not passed");
+        }
+        int length = coords.length();
+        int pairs = 0;
+        int rings = 1;
+        for (int i = 0; i < length; i++) {
+            char c = coords.charAt(i);
+            if (c == ',') {
+                pairs++;
+            } else if (c == '/') {
+                rings++;
+            }
+        }
+        double[] vertices = new double[pairs * 2];
+        int[] ringEnds = new int[rings];
+        int ring = 0;
+        int position = 0;
+        int value = 0;
+        while (position < length && value < vertices.length) {
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean negative = false;
+            boolean fraction = false;
+            int start = position;
+            if (coords.charAt(position) == '-') {
+                negative = true;
+                position++;
+            }
+            for (; position < length; position++) {
+                char c = coords.charAt(position);
+                if (c >= '0' && c <= '9') {
+                    if (digits < MAX_SIGNIFICANT_DIGITS) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        if (fraction) {
+                            scale--;
+                        }
+                    } else if (!fraction) {
+                        scale++;
+                    }
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (position == start + (negative ? 1 : 0) + (fraction ? 1 : 0)) {
+                throw new IllegalArgumentException("Invaild number at position :: " + start);
+            }
+            char expected = value % 2 == 0 ? ',' : ';';
+            boolean ringEnd = false;
+            if (position < length && coords.charAt(position) != expected) {
+                if (expected != ';' || coords.charAt(position) != '/') {
+                    throw new IllegalArgumentException("Expected '" + expected + "' at position :: " + position);
+                }
+                ringEnd = true;
+            } else if (expected == ';' && position + 1 < length && coords.charAt(position + 1) == '/') {
+                position++;
+                ringEnd = true;
+            }
+            if (position == length && value % 2 == 0) {
+                throw new IllegalArgumentException("Missing longitude at position :: " + position);
+            }
+            double parsed = scale < 0 ? mantissa / pow10(-scale) : mantissa * pow10(scale);
+            vertices[value++] = negative ? -parsed : parsed;
+            if (ringEnd && ring < rings - 1) {
+                ringEnds[ring++] = value / 2;
+            }
+            position++;
+        }
+        if (position < length || value < vertices.length || ring < rings - 1) {
+            throw new IllegalArgumentException("Unexpected character at position :: " + Math.min(position, length - 1));
+        }
+        ringEnds[ring] = value / 2;
+        return of(vertices, ringEnds);
+    }
+
+    private static double pow10(int exponent) {
+        return exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10, exponent);
+    }
+
+    /**
+     * Returns the number of vertices of all rings.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of rings, the outer rings, holes and islands together.
+     */
+    public int getRingCount() {
+        return ringEnds.length;
+    }
+
+    /**
+     * Returns the index of the first vertex of the ring.
+     */
+    public int getRingStart(int ring) {
+        return ring == 0 ? 0 : ringEnds[ring - 1];
+    }
+
+    /**
+     * Returns the index after the last vertex of the ring.
+     */
+    public int getRingEnd(int ring) {
+        return ringEnds[ring];
+    }
+
+    /**
+     * Returns true if the last vertex of every ring repeats its first one.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public double getLat(int vertex) {
+        return vertices[2 * vertex];
+    }
+
+    public double getLng(int vertex) {
+        return vertices[2 * vertex + 1];
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMinLng() {
+        return minLng;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMaxLng() {
+        return maxLng;
+    }
+
+    /**
+     * Returns true if the point lies inside the bounding box of the polygon.
+     */
+    public boolean boundsContain(double lat, double lng) {
+        return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+
+    /**
+     * Tests if the point lies inside the polygon using even-odd ray casting over the edges of all rings
+     * in one pass; rings whose bounding box does not hold the point are skipped, they cannot contain it.
+     * An open ring is treated as implicitly closed.
+     *
+     * @param lat - pass the latitude of the point.
+     * @param lng - pass the longitude of the point.
+     * @return Returns true if the point is inside.
+     */
+    public boolean contains(double lat, double lng) {
+        if (!boundsContain(lat, lng)) {
+            return false;
+        }
+        boolean inside = false;
+        for (int ring = 0; ring < ringEnds.length; ring++) {
+            if (ringContains(ring, lat, lng)) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Tests if the point lies inside the given ring alone, ignoring the other rings.
+     *
+     * @param ring - pass the index of the ring.
+     * @param lat  - pass the latitude of the point.
+     * @param lng  - pass the longitude of the point.
+     * @return Returns true if the point is inside the ring.
+     */
+    public boolean ringContains(int ring, double lat, double lng) {
+        int b = 4 * ring;
+        if (lat < ringBounds[b] || lat > ringBounds[b + 2] || lng < ringBounds[b + 1] || lng > ringBounds[b + 3]) {
+            return false;
+        }
+        double[] v = vertices;
+        boolean inside = false;
+        int last = 2 * ringEnds[ring] - 2;
+        for (int i = 2 * getRingStart(ring), j = last; i <= last; j = i, i += 2) {
+            double latI = v[i];
+            double latJ = v[j];
+            if ((latI > lat) != (latJ > lat)) {
+                double lngI = v[i + 1];
+                double crossing = lngI + (v[j + 1] - lngI) * (lat - latI) / (latJ - latI);
+                if (lng < crossing) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Computes the distance from the point to the polygon in a local plane where one degree of latitude
+     * and longitude measure latScale and lngScale; an open ring is treated as implicitly closed.
+     *
+     * @param lat      - pass the latitude of the point.
+     * @param lng      - pass the longitude of the point.
+     * @param latScale - pass the length of one degree of latitude.
+     * @param lngScale - pass the length of one degree of longitude.
+     * @return Returns the distance to the nearest edge of any ring, 0 if the point is inside.
+     */
+    public double distance(double lat, double lng, double latScale, double lngScale) {
+        if (contains(lat, lng)) {
+            return 0;
+        }
+        double[] v = vertices;
+        double best = Double.POSITIVE_INFINITY;
+        for (int ring = 0; ring < ringEnds.length; ring++) {
+            int last = 2 * ringEnds[ring] - 2;
+            for (int i = 2 * getRingStart(ring), j = last; i <= last; j = i, i += 2) {
+                double ax = (v[j] - lat) * latScale;
+                double ay = (v[j + 1] - lng) * lngScale;
+                double dx = (v[i] - lat) * latScale - ax;
+                double dy = (v[i + 1] - lng) * lngScale - ay;
+                double length = dx * dx + dy * dy;
+                double t = length == 0 ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / length));
+                double px = ax + t * dx;
+                double py = ay + t * dy;
+                best = Math.min(best, px * px + py * py);
+            }
+        }
+        return Math.sqrt(best);
+    }
+}
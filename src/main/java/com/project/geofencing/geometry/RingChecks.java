@@ -0,0 +1,366 @@
+package com.project.geofencing.geometry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Winding and simplicity checks for the rings of a fence.
+ * <p>
+ * Longitude is used as x and latitude as y, so a positive signed area means the ring runs
+ * counter clockwise on a north-up map.
+ */
+public final class RingChecks {
+
+    private RingChecks() {
+    }
+
+    /**
+     * Computes the signed area of the polygon with the shoelace formula, in square degrees. The areas
+     * of all rings are added, so clockwise holes are subtracted from their counter clockwise outer ring.
+     *
+     * @param polygon - pass the polygon, every ring treated as implicitly closed.
+     * @return Returns the area, positive for counter clockwise rings.
+     */
+    public static double signedArea(Polygon polygon) {
+        double sum = 0;
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            sum += signedArea(polygon, ring);
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the signed area of one ring of the polygon, in square degrees.
+     *
+     * @param polygon - pass the polygon.
+     * @param ring    - pass the index of the ring, treated as implicitly closed.
+     * @return Returns the area, positive for a counter clockwise ring.
+     */
+    public static double signedArea(Polygon polygon, int ring) {
+        int start = polygon.getRingStart(ring);
+        int end = polygon.getRingEnd(ring);
+        double sum = 0;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            sum += (polygon.getLng(j) - polygon.getLng(i)) * (polygon.getLat(j) + polygon.getLat(i));
+        }
+        return sum / 2;
+    }
+
+    /**
+     * Returns the coords in counter clockwise order, reversing the vertices of a clockwise ring.
+     * The number text of every vertex is kept as is.
+     *
+     * @param coords - pass coords that parse into a single ring polygon.
+     * @return Returns the given coords if already counter clockwise, otherwise the reversed coords.
+     */
+    public static String counterClockwise(String coords) {
+        if (signedArea(Polygon.parse(coords)) >= 0) {
+            return coords;
+        }
+        return reverse(coords);
+    }
+
+    /**
+     * Returns the coords with outer rings and islands counter clockwise and holes clockwise. A ring is a
+     * hole if it lies inside an odd number of other rings. The number text of every vertex is kept as is.
+     *
+     * @param coords - pass coords that parse into a polygon whose rings do not cross or touch.
+     * @return Returns the given coords if already in this order, otherwise the coords with rings reversed.
+     */
+    public static String normalizeWinding(String coords) {
+        if (coords.indexOf('/') < 0) {
+            return counterClockwise(coords);
+        }
+        Polygon polygon = Polygon.parse(coords);
+        StringBuilder normalized = new StringBuilder(coords.length());
+        boolean changed = false;
+        int textStart = 0;
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            int textEnd = ring + 1 < polygon.getRingCount() ? coords.indexOf('/', textStart) : coords.length();
+            String text = coords.substring(textStart, textEnd);
+            double area = signedArea(polygon, ring);
+            boolean reversed = depth(polygon, ring) % 2 == 0 ? area < 0 : area > 0;
+            if (ring > 0) {
+                normalized.append('/');
+            }
+            normalized.append(reversed ? reverse(text) : text);
+            changed |= reversed;
+            textStart = textEnd + 1;
+        }
+        return changed ? normalized.toString() : coords;
+    }
+
+    /**
+     * Counts the other rings around the ring, testing its first vertex as the rings do not touch.
+     */
+    private static int depth(Polygon polygon, int ring) {
+        double lat = polygon.getLat(polygon.getRingStart(ring));
+        double lng = polygon.getLng(polygon.getRingStart(ring));
+        int depth = 0;
+        for (int other = 0; other < polygon.getRingCount(); other++) {
+            if (other != ring && polygon.ringContains(other, lat, lng)) {
+                depth++;
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Reverses the lat,lng pairs of a single ring, keeping a trailing ';' where it was.
+     */
+    private static String reverse(String ring) {
+        int end = ring.charAt(ring.length() - 1) == ';' ? ring.length() - 1 : ring.length();
+        StringBuilder reversed = new StringBuilder(ring.length());
+        int pairEnd = end;
+        for (int i = end - 1; i >= -1; i--) {
+            if (i < 0 || ring.charAt(i) == ';') {
+                reversed.append(ring, i + 1, pairEnd).append(';');
+                pairEnd = i;
+            }
+        }
+        if (end == ring.length()) {
+            reversed.setLength(reversed.length() - 1);
+        }
+        return reversed.toString();
+    }
+
+    /**
+     * Finds an edge that crosses, touches or overlaps a non adjacent edge of its own or of any other
+     * ring, using a Shamos-Hoey sweep line in O(n log n) over the edges of all rings. Repeated
+     * consecutive vertices and the closing vertex of every ring are ignored.
+     *
+     * @param polygon - pass the polygon to check.
+     * @return Returns the index of the first vertex of an offending edge, -1 if the rings are simple
+     *         and apart from each other.
+     */
+    public static int findSelfIntersection(Polygon polygon) {
+        int n = polygon.getVertexCount();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int[] origins = new int[n];
+        int[] next = new int[n];
+        int m = 0;
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            int ringStart = m;
+            for (int i = polygon.getRingStart(ring); i < polygon.getRingEnd(ring); i++) {
+                double x = polygon.getLng(i);
+                double y = polygon.getLat(i);
+                if (m > ringStart && xs[m - 1] == x && ys[m - 1] == y) {
+                    continue;
+                }
+                xs[m] = x;
+                ys[m] = y;
+                origins[m++] = i;
+            }
+            if (m - ringStart > 1 && xs[m - 1] == xs[ringStart] && ys[m - 1] == ys[ringStart]) {
+                m--;
+            }
+            if (m - ringStart < 3) {
+                return origins[ringStart];
+            }
+            for (int k = ringStart; k < m; k++) {
+                next[k] = k + 1 == m ? ringStart : k + 1;
+            }
+        }
+        int shared = findSharedVertex(xs, ys, m);
+        if (shared >= 0) {
+            return origins[shared];
+        }
+        int edge = new Sweep(xs, ys, next, m).run();
+        return edge < 0 ? -1 : origins[edge];
+    }
+
+    /**
+     * Finds a vertex repeated after compaction, where rings or two parts of a ring touch. The sweep
+     * removes the edges ending at a point before inserting the ones starting there, so it cannot see
+     * rings that only meet at a common vertex.
+     */
+    private static int findSharedVertex(double[] xs, double[] ys, int m) {
+        Integer[] vertices = new Integer[m];
+        for (int i = 0; i < m; i++) {
+            vertices[i] = i;
+        }
+        Arrays.sort(vertices, Comparator
+                .<Integer>comparingDouble(vertex -> xs[vertex])
+                .thenComparingDouble(vertex -> ys[vertex]));
+        for (int i = 1; i < m; i++) {
+            if (xs[vertices[i]] == xs[vertices[i - 1]] && ys[vertices[i]] == ys[vertices[i - 1]]) {
+                return Math.min(vertices[i], vertices[i - 1]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sweep over the edges of the compacted rings, edge e runs from vertex e to vertex next[e].
+     */
+    private static final class Sweep {
+
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] next;
+        private final int m;
+        private final int[] left;
+        private final int[] right;
+        private double sweepX;
+        private double sweepY;
+        private boolean leftOfSweep;
+
+        private Sweep(double[] xs, double[] ys, int[] next, int m) {
+            this.xs = xs;
+            this.ys = ys;
+            this.next = next;
+            this.m = m;
+            this.left = new int[m];
+            this.right = new int[m];
+            for (int e = 0; e < m; e++) {
+                int from = e;
+                int to = next[e];
+                boolean forward = xs[from] < xs[to] || (xs[from] == xs[to] && ys[from] < ys[to]);
+                left[e] = forward ? from : to;
+                right[e] = forward ? to : from;
+            }
+        }
+
+        private int run() {
+            Integer[] events = new Integer[2 * m];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = i;
+            }
+            Arrays.sort(events, Comparator
+                    .<Integer>comparingDouble(event -> xs[eventVertex(event)])
+                    .thenComparingDouble(event -> ys[eventVertex(event)])
+                    .thenComparingInt(event -> event & 1 ^ 1));
+
+            TreeSet<Integer> status = new TreeSet<>(this::compareEdges);
+            for (Integer event : events) {
+                int edge = event >> 1;
+                boolean insert = (event & 1) == 0;
+                int vertex = eventVertex(event);
+                sweepX = xs[vertex];
+                sweepY = ys[vertex];
+                if (insert) {
+                    leftOfSweep = false;
+                    status.add(edge);
+                    Integer below = status.lower(edge);
+                    Integer above = status.higher(edge);
+                    if (below != null && intersects(edge, below)) {
+                        return edge;
+                    }
+                    if (above != null && intersects(edge, above)) {
+                        return edge;
+                    }
+                } else {
+                    leftOfSweep = true;
+                    Integer below = status.lower(edge);
+                    Integer above = status.higher(edge);
+                    status.remove(edge);
+                    if (below != null && above != null && intersects(below, above)) {
+                        return below;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Event 2e inserts edge e at its left vertex, event 2e + 1 removes it at its right vertex.
+         * Removals sort before insertions at the same point.
+         */
+        private int eventVertex(int event) {
+            int edge = event >> 1;
+            return (event & 1) == 0 ? left[edge] : right[edge];
+        }
+
+        private int compareEdges(Integer a, Integer b) {
+            if (a.intValue() == b.intValue()) {
+                return 0;
+            }
+            int byY = Double.compare(yAt(a), yAt(b));
+            if (byY != 0) {
+                return byY;
+            }
+            int bySlope = Double.compare(slope(a), slope(b));
+            if (bySlope != 0) {
+                return leftOfSweep ? -bySlope : bySlope;
+            }
+            return Integer.compare(a, b);
+        }
+
+        private double yAt(int edge) {
+            double x1 = xs[left[edge]];
+            double y1 = ys[left[edge]];
+            double x2 = xs[right[edge]];
+            double y2 = ys[right[edge]];
+            if (x1 == x2) {
+                return Math.max(y1, Math.min(y2, sweepY));
+            }
+            if (sweepX <= x1) {
+                return y1;
+            }
+            if (sweepX >= x2) {
+                return y2;
+            }
+            return y1 + (y2 - y1) * (sweepX - x1) / (x2 - x1);
+        }
+
+        private double slope(int edge) {
+            double dx = xs[right[edge]] - xs[left[edge]];
+            if (dx == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return (ys[right[edge]] - ys[left[edge]]) / dx;
+        }
+
+        private boolean intersects(int a, int b) {
+            int a1 = a;
+            int a2 = next[a];
+            int b1 = b;
+            int b2 = next[b];
+            return segmentsIntersect(xs, ys, a1, a2, b1, b2);
+        }
+    }
+
+    /**
+     * Tests two ring edges for a crossing, touch or overlap; edges sharing a ring vertex only
+     * intersect if they overlap beyond it.
+     */
+    static boolean segmentsIntersect(double[] xs, double[] ys, int a1, int a2, int b1, int b2) {
+        int shared = a1 == b2 ? a1 : a2 == b1 ? a2 : -1;
+        if (shared >= 0) {
+            int otherA = shared == a1 ? a2 : a1;
+            int otherB = shared == a1 ? b1 : b2;
+            if (a1 == b2 && a2 == b1) {
+                return true;
+            }
+            if (orientation(xs, ys, shared, otherA, otherB) != 0) {
+                return false;
+            }
+            double dot = (xs[otherA] - xs[shared]) * (xs[otherB] - xs[shared])
+                    + (ys[otherA] - ys[shared]) * (ys[otherB] - ys[shared]);
+            return dot > 0;
+        }
+        int o1 = orientation(xs, ys, a1, a2, b1);
+        int o2 = orientation(xs, ys, a1, a2, b2);
+        int o3 = orientation(xs, ys, b1, b2, a1);
+        int o4 = orientation(xs, ys, b1, b2, a2);
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true;
+        }
+        return (o1 == 0 && onSegment(xs, ys, a1, a2, b1))
+                || (o2 == 0 && onSegment(xs, ys, a1, a2, b2))
+                || (o3 == 0 && onSegment(xs, ys, b1, b2, a1))
+                || (o4 == 0 && onSegment(xs, ys, b1, b2, a2));
+    }
+
+    private static int orientation(double[] xs, double[] ys, int p, int q, int r) {
+        double cross = (xs[q] - xs[p]) * (ys[r] - ys[p]) - (ys[q] - ys[p]) * (xs[r] - xs[p]);
+        return cross > 0 ? 1 : cross < 0 ? -1 : 0;
+    }
+
+    private static boolean onSegment(double[] xs, double[] ys, int p, int q, int r) {
+        return xs[r] >= Math.min(xs[p], xs[q]) && xs[r] <= Math.max(xs[p], xs[q])
+                && ys[r] >= Math.min(ys[p], ys[q]) && ys[r] <= Math.max(ys[p], ys[q]);
+    }
+}
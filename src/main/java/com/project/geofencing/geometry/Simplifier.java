@@ -0,0 +1,277 @@
+package com.project.geofencing.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Douglas-Peucker simplification of fences for maps at low zoom.
+ * <p>
+ * Levels are tied to the even web map zooms up to {@link #MAX_LEVEL}: the tolerance of a level is the
+ * width of one 256 pixel tile pixel at its zoom, in degrees of longitude. Distances in latitude are
+ * scaled by 1/cos of the middle latitude of the fence, as web maps stretch them. Simplified rings keep
+ * at least 3 distinct vertices. A fence whose simplified rings would cross or touch, or no longer lie
+ * inside the same rings, is simplified again at half the tolerance, so holes stay inside their outer
+ * ring and parts stay apart.
+ */
+public final class Simplifier {
+
+    /**
+     * The zoom of the finest level, above it fences are served with all their vertices.
+     */
+    public static final int MAX_LEVEL = 14;
+
+    /**
+     * The zoom of the coarsest level.
+     */
+    public static final int MIN_LEVEL = 0;
+
+    /**
+     * Attempts at a halved tolerance before the fence is kept as is.
+     */
+    private static final int MAX_ATTEMPTS = 4;
+
+    private Simplifier() {
+    }
+
+    /**
+     * Returns the tolerance of a level.
+     *
+     * @param level - pass the zoom of the level.
+     * @return Returns the width of one pixel at the zoom, in degrees of longitude.
+     */
+    public static double tolerance(int level) {
+        return 360.0 / 256 / (1L << level);
+    }
+
+    /**
+     * Returns the level to serve a map at the given zoom, the nearest one at least as detailed.
+     *
+     * @param zoom - pass the zoom of the map, 0 or more.
+     * @return Returns the zoom of the level, -1 if the zoom needs all vertices.
+     */
+    public static int levelForZoom(int zoom) {
+        int level = Math.max(MIN_LEVEL, zoom + (zoom & 1));
+        return level > MAX_LEVEL ? -1 : level;
+    }
+
+    /**
+     * Returns the level with the largest tolerance that does not exceed the given one.
+     *
+     * @param tolerance - pass the tolerance in degrees of longitude.
+     * @return Returns the zoom of the level, -1 if the tolerance needs all vertices.
+     */
+    public static int levelForTolerance(double tolerance) {
+        for (int level = MIN_LEVEL; level <= MAX_LEVEL; level += 2) {
+            if (tolerance(level) <= tolerance) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Simplifies the coords to the given tolerance. The number text of every kept vertex is kept as is.
+     *
+     * @param coords    - pass coords of closed rings that do not cross or touch.
+     * @param tolerance - pass the largest distance of a dropped vertex from the simplified ring, in degrees
+     *                  of longitude.
+     * @return Returns the simplified coords, the given coords if no vertex can be dropped or they do not
+     *         parse.
+     */
+    public static String simplify(String coords, double tolerance) {
+        Polygon polygon;
+        try {
+            polygon = Polygon.parse(coords);
+        } catch (IllegalArgumentException e) {
+            return coords;
+        }
+        List<String> pairs = pairs(coords, polygon);
+        if (pairs == null || !polygon.isClosed()) {
+            return coords;
+        }
+        double latScale = 1 / Math.cos(Math.toRadians((polygon.getMinLat() + polygon.getMaxLat()) / 2));
+        if (Double.isNaN(latScale) || Double.isInfinite(latScale)) {
+            latScale = 1;
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++, tolerance /= 2) {
+            boolean[] kept = new boolean[polygon.getVertexCount()];
+            int keptCount = 0;
+            int[] ringEnds = new int[polygon.getRingCount()];
+            for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+                keptCount += simplifyRing(polygon, ring, tolerance, latScale, kept);
+                ringEnds[ring] = keptCount;
+            }
+            if (keptCount == polygon.getVertexCount()) {
+                return coords;
+            }
+            double[] vertices = new double[2 * keptCount];
+            for (int i = 0, k = 0; i < kept.length; i++) {
+                if (kept[i]) {
+                    vertices[k++] = polygon.getLat(i);
+                    vertices[k++] = polygon.getLng(i);
+                }
+            }
+            Polygon simplified = Polygon.of(vertices, ringEnds);
+            if (RingChecks.findSelfIntersection(simplified) < 0 && sameNesting(polygon, simplified)) {
+                return join(polygon, pairs, kept);
+            }
+        }
+        return coords;
+    }
+
+    /**
+     * Marks the vertices of one closed ring to keep.
+     *
+     * @return Returns the number of kept vertices, the closing vertex included.
+     */
+    private static int simplifyRing(Polygon polygon, int ring, double tolerance, double latScale,
+                                    boolean[] kept) {
+        int start = polygon.getRingStart(ring);
+        int last = polygon.getRingEnd(ring) - 1;
+        int far = start;
+        double farthest = -1;
+        for (int i = start + 1; i < last; i++) {
+            double distance = distance(polygon, i, start, start, latScale);
+            if (distance > farthest) {
+                far = i;
+                farthest = distance;
+            }
+        }
+        kept[start] = kept[far] = kept[last] = true;
+        int count = 3 + keep(polygon, start, far, tolerance, latScale, kept)
+                + keep(polygon, far, last, tolerance, latScale, kept);
+        if (count < 4) {
+            int third = -1;
+            double thirdDistance = -1;
+            for (int i = start + 1; i < last; i++) {
+                double distance = distance(polygon, i, start, far, latScale);
+                if (i != far && distance > thirdDistance) {
+                    third = i;
+                    thirdDistance = distance;
+                }
+            }
+            if (third >= 0) {
+                kept[third] = true;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Marks the vertices strictly between from and to that lie farther than the tolerance from the
+     * simplified chain, without recursion as rings can have many vertices.
+     *
+     * @return Returns the number of marked vertices.
+     */
+    private static int keep(Polygon polygon, int from, int to, double tolerance, double latScale,
+                            boolean[] kept) {
+        int count = 0;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = from;
+        stack[top++] = to;
+        while (top > 0) {
+            int b = stack[--top];
+            int a = stack[--top];
+            int split = -1;
+            double farthest = tolerance;
+            for (int i = a + 1; i < b; i++) {
+                double distance = distance(polygon, i, a, b, latScale);
+                if (distance > farthest) {
+                    split = i;
+                    farthest = distance;
+                }
+            }
+            if (split < 0) {
+                continue;
+            }
+            kept[split] = true;
+            count++;
+            if (top + 4 > stack.length) {
+                int[] grown = new int[stack.length * 2];
+                System.arraycopy(stack, 0, grown, 0, top);
+                stack = grown;
+            }
+            stack[top++] = a;
+            stack[top++] = split;
+            stack[top++] = split;
+            stack[top++] = b;
+        }
+        return count;
+    }
+
+    /**
+     * Checks that the first vertex of every ring, which is always kept, lies inside the same rings before
+     * and after simplification. As the rings do not cross, the whole ring then does.
+     */
+    private static boolean sameNesting(Polygon polygon, Polygon simplified) {
+        if (polygon.getRingCount() == 1) {
+            return true;
+        }
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            double lat = polygon.getLat(polygon.getRingStart(ring));
+            double lng = polygon.getLng(polygon.getRingStart(ring));
+            for (int other = 0; other < polygon.getRingCount(); other++) {
+                if (other != ring && polygon.ringContains(other, lat, lng) != simplified.ringContains(other, lat, lng)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the distance of vertex p from the segment a-b, lng as x and scaled lat as y.
+     */
+    private static double distance(Polygon polygon, int p, int a, int b, double latScale) {
+        double ax = polygon.getLng(a);
+        double ay = polygon.getLat(a) * latScale;
+        double dx = polygon.getLng(b) - ax;
+        double dy = polygon.getLat(b) * latScale - ay;
+        double px = polygon.getLng(p) - ax;
+        double py = polygon.getLat(p) * latScale - ay;
+        double length = dx * dx + dy * dy;
+        double t = length == 0 ? 0 : Math.max(0, Math.min(1, (px * dx + py * dy) / length));
+        double ex = px - t * dx;
+        double ey = py - t * dy;
+        return Math.sqrt(ex * ex + ey * ey);
+    }
+
+    /**
+     * Splits the coords into the text of every vertex, null if it does not match the parsed polygon.
+     */
+    private static List<String> pairs(String coords, Polygon polygon) {
+        List<String> pairs = new ArrayList<>(polygon.getVertexCount());
+        int ring = 0;
+        int pairStart = 0;
+        for (int i = 0; i <= coords.length(); i++) {
+            char c = i < coords.length() ? coords.charAt(i) : '/';
+            if (c == ';' || c == '/') {
+                if (i > pairStart) {
+                    pairs.add(coords.substring(pairStart, i));
+                }
+                pairStart = i + 1;
+                if (c == '/' && (ring >= polygon.getRingCount() || pairs.size() != polygon.getRingEnd(ring++))) {
+                    return null;
+                }
+            }
+        }
+        return pairs.size() == polygon.getVertexCount() ? pairs : null;
+    }
+
+    private static String join(Polygon polygon, List<String> pairs, boolean[] kept) {
+        StringBuilder joined = new StringBuilder();
+        for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+            if (ring > 0) {
+                joined.append('/');
+            }
+            for (int i = polygon.getRingStart(ring); i < polygon.getRingEnd(ring); i++) {
+                if (kept[i]) {
+                    joined.append(pairs.get(i)).append(';');
+                }
+            }
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.project.geofencing.index;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table from grid cell id to the fences covering the cell.
+ * <p>
+ * Entries of one cell are stored contiguously as {@code fence << 1 | inside}, where fence is the
+ * position of the fence in the owning {@link FenceIndex}.
+ */
+final class CellTable {
+
+    private static final long EMPTY = -1;
+
+    private final int level;
+    private final long[] keys;
+    private final int[] groups;
+    private final int[] starts;
+    private final int[] entries;
+    private final int mask;
+
+    private CellTable(int level, long[] keys, int[] groups, int[] starts, int[] entries) {
+        this.level = level;
+        this.keys = keys;
+        this.groups = groups;
+        this.starts = starts;
+        this.entries = entries;
+        this.mask = keys.length - 1;
+    }
+
+    /**
+     * Builds the table from parallel arrays with one element per covering cell.
+     */
+    static CellTable build(int level, long[] cellIds, int[] fences, boolean[] inside) {
+        long[] distinct = cellIds.clone();
+        Arrays.sort(distinct);
+        int groupCount = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[groupCount++] = distinct[i];
+            }
+        }
+        int[] group = new int[cellIds.length];
+        int[] starts = new int[groupCount + 1];
+        for (int i = 0; i < cellIds.length; i++) {
+            group[i] = Arrays.binarySearch(distinct, 0, groupCount, cellIds[i]);
+            starts[group[i] + 1]++;
+        }
+        for (int g = 0; g < groupCount; g++) {
+            starts[g + 1] += starts[g];
+        }
+        int[] fill = Arrays.copyOf(starts, groupCount);
+        int[] entries = new int[cellIds.length];
+        for (int i = 0; i < cellIds.length; i++) {
+            entries[fill[group[i]]++] = fences[i] << 1 | (inside[i] ? 1 : 0);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(1, groupCount) * 2 - 1) << 1;
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        int[] groups = new int[capacity];
+        for (int g = 0; g < groupCount; g++) {
+            int slot = slot(distinct[g], capacity - 1);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = distinct[g];
+            groups[slot] = g;
+        }
+        return new CellTable(level, keys, groups, starts, entries);
+    }
+
+    /**
+     * Writes the table, readable with {@link #read(ByteBuffer)}.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(level);
+        FenceIndexSnapshot.writeLongs(out, keys);
+        FenceIndexSnapshot.writeInts(out, groups);
+        FenceIndexSnapshot.writeInts(out, starts);
+        FenceIndexSnapshot.writeInts(out, entries);
+    }
+
+    static CellTable read(ByteBuffer in) {
+        int level = in.getInt();
+        return new CellTable(level, FenceIndexSnapshot.readLongs(in), FenceIndexSnapshot.readInts(in),
+                FenceIndexSnapshot.readInts(in), FenceIndexSnapshot.readInts(in));
+    }
+
+    private static int slot(long cellId, int mask) {
+        long h = cellId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32) & mask;
+    }
+
+    int level() {
+        return level;
+    }
+
+    /**
+     * Returns the group of the cell, -1 if no fence covers it.
+     */
+    int find(long cellId) {
+        int slot = slot(cellId, mask);
+        long key;
+        while ((key = keys[slot]) != EMPTY) {
+            if (key == cellId) {
+                return groups[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int start(int group) {
+        return starts[group];
+    }
+
+    int end(int group) {
+        return starts[group + 1];
+    }
+
+    int entry(int i) {
+        return entries[i];
+    }
+}
@@ -0,0 +1,121 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.geometry.GridCells;
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.model.FenceCell;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.repository.FenceCellRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes and stores the grid cell coverings of fences for the maptypes listed in
+ * geofencing.cells.map-types. Writes must run inside the transaction that saves the fence.
+ */
+@Slf4j
+@Component
+public class FenceCellStore {
+
+    @Autowired
+    private FenceCellRepository fenceCellRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Set<String> mapTypes;
+
+    private final int level;
+
+    private final int maxCells;
+
+    @Autowired
+    public FenceCellStore(@Value("${geofencing.cells.map-types:}") String[] mapTypes,
+                          @Value("${geofencing.cells.level:16}") int level,
+                          @Value("${geofencing.cells.max-cells:65536}") int maxCells) {
+        if (level < 0 || level > GridCells.MAX_LEVEL) {
+            throw new IllegalArgumentException("geofencing.cells.level must be between 0 and " + GridCells.MAX_LEVEL);
+        }
+        this.mapTypes = new HashSet<>(Arrays.asList(mapTypes));
+        this.level = level;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Returns true if the fences of the maptype are indexed by grid cells.
+     */
+    public boolean isEnabled(String mapType) {
+        return mapTypes.contains(mapType);
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Computes and persists the covering of a newly saved fence.
+     *
+     * @param geoCoordinates - pass the saved fence, its id must be assigned.
+     * @return Returns the number of stored cells, 0 if the maptype is not indexed by cells or the
+     * fence spans too many cells and is left to the R-tree.
+     */
+    public int addCells(GeoCoordinates geoCoordinates) {
+        Polygon polygon = geoCoordinates.getPolygon();
+        if (!isEnabled(geoCoordinates.getMapType()) || polygon == null) {
+            return 0;
+        }
+        GridCells.Covering covering = GridCells.cover(polygon, level, maxCells);
+        if (covering == null) {
+            log.debug("Geo Co-Ordinates {} span more than {} cells, left uncovered", geoCoordinates.getId(),
+                    maxCells);
+            return 0;
+        }
+        for (int i = 0; i < covering.size(); i++) {
+            entityManager.persist(new FenceCell(geoCoordinates.getId(), covering.getCellId(i),
+                    geoCoordinates.getMapType(), level, covering.isInside(i)));
+        }
+        return covering.size();
+    }
+
+    /**
+     * Replaces the covering of an altered fence.
+     *
+     * @param geoCoordinates - pass the altered fence.
+     * @return Returns the number of stored cells.
+     */
+    public int replaceCells(GeoCoordinates geoCoordinates) {
+        fenceCellRepository.deleteByFenceId(geoCoordinates.getId());
+        return addCells(geoCoordinates);
+    }
+
+    /**
+     * Deletes the covering of a removed fence.
+     *
+     * @param fenceId - pass the id of the fence.
+     */
+    public void deleteCells(long fenceId) {
+        fenceCellRepository.deleteByFenceId(fenceId);
+    }
+
+    /**
+     * Loads the stored coverings of a maptype at the configured level.
+     *
+     * @param mapType - pass the maptype of the fences.
+     * @return Returns the cells, empty if the maptype is not indexed by cells.
+     */
+    public List<FenceCell> loadCells(String mapType) {
+        if (!isEnabled(mapType)) {
+            return Collections.emptyList();
+        }
+        return fenceCellRepository.findByMapTypeAndLevel(mapType, level);
+    }
+}
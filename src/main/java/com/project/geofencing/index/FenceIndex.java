@@ -0,0 +1,412 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.geometry.GridCells;
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.model.FenceCell;
+import com.project.geofencing.model.FenceDistance;
+import com.project.geofencing.model.GeoCoordinates;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable in-memory containment index over the fences of one map type.
+ * <p>
+ * Candidates come from a packed R-tree of the fence bounding boxes and are
+ * confirmed with an exact ray-casting test against the parsed {@link Polygon}.
+ * When the index is built with grid cell coverings, covered fences are found with
+ * a single hash lookup of the cell containing the point instead; only boundary
+ * cells need the exact test and only uncovered fences stay in the containment R-tree.
+ * <p>
+ * Nearest and radius searches walk an R-tree over all fences best-first. Distances are
+ * measured in meters in an equirectangular plane centred on the query point, which is
+ * accurate for the city scale distances fences are searched at; it does not wrap
+ * around the antimeridian.
+ */
+public final class FenceIndex {
+
+    private static final ThreadLocal<StrTree.Cursor> CURSORS = ThreadLocal.withInitial(StrTree.Cursor::new);
+
+    private static final long[] NO_IDS = new long[0];
+
+    /**
+     * Meters per degree of latitude on the mean earth radius.
+     */
+    private static final double METERS_PER_DEGREE = 6371008.8 * Math.PI / 180;
+
+    /**
+     * Number of points below which a batch is no longer split across workers.
+     */
+    private static final int BATCH_THRESHOLD = 1024;
+
+    private final GeoCoordinates[] fences;
+    private final long[] ids;
+    private final Polygon[] polygons;
+    private final StrTree tree;
+    private final StrTree containTree;
+    private final int[] treeFences;
+    private final CellTable cells;
+
+    private FenceIndex(GeoCoordinates[] fences, Polygon[] polygons, StrTree tree, StrTree containTree,
+                       int[] treeFences, CellTable cells) {
+        this.fences = fences;
+        this.polygons = polygons;
+        this.tree = tree;
+        this.containTree = containTree;
+        this.treeFences = treeFences;
+        this.cells = cells;
+        this.ids = new long[fences.length];
+        for (int i = 0; i < fences.length; i++) {
+            ids[i] = fences[i].getId();
+        }
+    }
+
+    /**
+     * Builds the index for the given fences, skipping fences whose coordinates cannot be parsed.
+     *
+     * @param geoCords - pass the fences of a single map type.
+     * @return Returns the built index.
+     */
+    public static FenceIndex build(List<GeoCoordinates> geoCords) {
+        return build(geoCords, Collections.emptyList(), 0);
+    }
+
+    /**
+     * Builds the index for the given fences, using the grid cell coverings of the given level for the
+     * fences that have one. Cells of other levels or of unknown fences are ignored.
+     *
+     * @param geoCords - pass the fences of a single map type.
+     * @param cellRows - pass the covering cells of the fences.
+     * @param level    - pass the grid level the coverings were computed at.
+     * @return Returns the built index.
+     */
+    public static FenceIndex build(List<GeoCoordinates> geoCords, List<FenceCell> cellRows, int level) {
+        List<GeoCoordinates> fences = new ArrayList<>(geoCords.size());
+        List<Polygon> polygons = new ArrayList<>(geoCords.size());
+        for (GeoCoordinates geoCoordinates : geoCords) {
+            Polygon polygon = geoCoordinates.getPolygon();
+            if (polygon != null) {
+                fences.add(geoCoordinates);
+                polygons.add(polygon);
+            }
+        }
+        int n = fences.size();
+
+        CellTable cells = null;
+        boolean[] covered = new boolean[n];
+        if (!cellRows.isEmpty()) {
+            Map<Long, Integer> positions = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                positions.put(fences.get(i).getId(), i);
+            }
+            long[] cellIds = new long[cellRows.size()];
+            int[] cellFences = new int[cellRows.size()];
+            boolean[] inside = new boolean[cellRows.size()];
+            int count = 0;
+            for (FenceCell cell : cellRows) {
+                Integer position = positions.get(cell.getFenceId());
+                if (position != null && cell.getLevel() == level) {
+                    covered[position] = true;
+                    cellIds[count] = cell.getCellId();
+                    cellFences[count] = position;
+                    inside[count++] = cell.isInside();
+                }
+            }
+            if (count > 0) {
+                cells = CellTable.build(level, Arrays.copyOf(cellIds, count),
+                        Arrays.copyOf(cellFences, count), Arrays.copyOf(inside, count));
+            }
+        }
+
+        double[] minLat = new double[n];
+        double[] minLng = new double[n];
+        double[] maxLat = new double[n];
+        double[] maxLng = new double[n];
+        int[] treeFences = new int[n];
+        int uncovered = 0;
+        for (int i = 0; i < n; i++) {
+            Polygon polygon = polygons.get(i);
+            minLat[i] = polygon.getMinLat();
+            minLng[i] = polygon.getMinLng();
+            maxLat[i] = polygon.getMaxLat();
+            maxLng[i] = polygon.getMaxLng();
+            if (!covered[i]) {
+                treeFences[uncovered++] = i;
+            }
+        }
+        StrTree tree = StrTree.build(minLat, minLng, maxLat, maxLng);
+        StrTree containTree = tree;
+        if (uncovered < n) {
+            treeFences = Arrays.copyOf(treeFences, uncovered);
+            double[] uncoveredMinLat = new double[uncovered];
+            double[] uncoveredMinLng = new double[uncovered];
+            double[] uncoveredMaxLat = new double[uncovered];
+            double[] uncoveredMaxLng = new double[uncovered];
+            for (int k = 0; k < uncovered; k++) {
+                int i = treeFences[k];
+                uncoveredMinLat[k] = minLat[i];
+                uncoveredMinLng[k] = minLng[i];
+                uncoveredMaxLat[k] = maxLat[i];
+                uncoveredMaxLng[k] = maxLng[i];
+            }
+            containTree = StrTree.build(uncoveredMinLat, uncoveredMinLng, uncoveredMaxLat, uncoveredMaxLng);
+        }
+        return new FenceIndex(fences.toArray(new GeoCoordinates[0]), polygons.toArray(new Polygon[0]),
+                tree, containTree, treeFences, cells);
+    }
+
+    /**
+     * Returns the number of indexed fences.
+     */
+    public int size() {
+        return fences.length;
+    }
+
+    /**
+     * Returns the indexed fences in index order.
+     */
+    List<GeoCoordinates> fences() {
+        return Arrays.asList(fences);
+    }
+
+    /**
+     * Writes the fences, their parsed rings and the packed index structures, readable with
+     * {@link #read(ByteBuffer)}.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(fences.length);
+        for (int i = 0; i < fences.length; i++) {
+            GeoCoordinates fence = fences[i];
+            out.writeLong(fence.getId());
+            FenceIndexSnapshot.writeString(out, fence.getName());
+            FenceIndexSnapshot.writeString(out, fence.getMapType());
+            FenceIndexSnapshot.writeString(out, fence.getCoords());
+            out.writeLong(fence.getCreatedAt() == null ? Long.MIN_VALUE : fence.getCreatedAt().getTime());
+            FenceIndexSnapshot.writeString(out, fence.getCreatedBy());
+            out.writeLong(fence.getUpdatedAt() == null ? Long.MIN_VALUE : fence.getUpdatedAt().getTime());
+            FenceIndexSnapshot.writeString(out, fence.getUpdatedBy());
+            Polygon polygon = polygons[i];
+            out.writeInt(polygon.getVertexCount() * 2);
+            for (int v = 0; v < polygon.getVertexCount(); v++) {
+                out.writeDouble(polygon.getLat(v));
+                out.writeDouble(polygon.getLng(v));
+            }
+            out.writeInt(polygon.getRingCount());
+            for (int ring = 0; ring < polygon.getRingCount(); ring++) {
+                out.writeInt(polygon.getRingEnd(ring));
+            }
+        }
+        tree.write(out);
+        out.writeBoolean(containTree != tree);
+        if (containTree != tree) {
+            FenceIndexSnapshot.writeInts(out, treeFences);
+            containTree.write(out);
+        }
+        out.writeBoolean(cells != null);
+        if (cells != null) {
+            cells.write(out);
+        }
+    }
+
+    static FenceIndex read(ByteBuffer in) {
+        int n = in.getInt();
+        GeoCoordinates[] fences = new GeoCoordinates[n];
+        Polygon[] polygons = new Polygon[n];
+        for (int i = 0; i < n; i++) {
+            GeoCoordinates fence = new GeoCoordinates();
+            fence.setId(in.getLong());
+            fence.setName(FenceIndexSnapshot.readString(in));
+            fence.setMapType(FenceIndexSnapshot.readString(in));
+            fence.setCoords(FenceIndexSnapshot.readString(in));
+            long createdAt = in.getLong();
+            fence.setCreatedAt(createdAt == Long.MIN_VALUE ? null : new Date(createdAt));
+            fence.setCreatedBy(FenceIndexSnapshot.readString(in));
+            long updatedAt = in.getLong();
+            fence.setUpdatedAt(updatedAt == Long.MIN_VALUE ? null : new Date(updatedAt));
+            fence.setUpdatedBy(FenceIndexSnapshot.readString(in));
+            double[] vertices = FenceIndexSnapshot.readDoubles(in);
+            polygons[i] = Polygon.of(vertices, FenceIndexSnapshot.readInts(in));
+            fence.setPolygon(polygons[i]);
+            fences[i] = fence;
+        }
+        StrTree tree = StrTree.read(in);
+        StrTree containTree = tree;
+        int[] treeFences;
+        if (in.get() != 0) {
+            treeFences = FenceIndexSnapshot.readInts(in);
+            containTree = StrTree.read(in);
+        } else {
+            treeFences = new int[n];
+            for (int i = 0; i < n; i++) {
+                treeFences[i] = i;
+            }
+        }
+        CellTable cells = in.get() != 0 ? CellTable.read(in) : null;
+        return new FenceIndex(fences, polygons, tree, containTree, treeFences, cells);
+    }
+
+    /**
+     * Finds the fences containing the given point.
+     *
+     * @param lat - pass the latitude of the point.
+     * @param lng - pass the longitude of the point.
+     * @return Returns the containing fences, empty if there are none.
+     */
+    public List<GeoCoordinates> findContaining(double lat, double lng) {
+        StrTree.Cursor cursor = CURSORS.get();
+        int found = collect(lat, lng, cursor);
+        if (found == 0) {
+            return Collections.emptyList();
+        }
+        List<GeoCoordinates> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(fences[cursor.hit(i)]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the k fences nearest to the given point, nearest first.
+     *
+     * @param lat - pass the latitude of the point.
+     * @param lng - pass the longitude of the point.
+     * @param k   - pass the maximum number of fences to return.
+     * @return Returns the nearest fences with their distance in meters, 0 for fences containing the point.
+     */
+    public List<FenceDistance> findNearest(double lat, double lng, int k) {
+        return findNearest(lat, lng, k, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the fences within the given radius of the point, nearest first.
+     *
+     * @param lat    - pass the latitude of the point.
+     * @param lng    - pass the longitude of the point.
+     * @param radius - pass the radius in meters.
+     * @return Returns the fences with their distance in meters, 0 for fences containing the point.
+     */
+    public List<FenceDistance> findWithin(double lat, double lng, double radius) {
+        return findNearest(lat, lng, Integer.MAX_VALUE, radius);
+    }
+
+    /**
+     * Finds at most limit fences within the given radius of the point, nearest first. Only fences whose
+     * bounding box is nearer than the last fence returned are measured exactly, whatever the radius.
+     *
+     * @param lat    - pass the latitude of the point.
+     * @param lng    - pass the longitude of the point.
+     * @param radius - pass the radius in meters.
+     * @param limit  - pass the maximum number of fences to return.
+     * @return Returns the fences with their distance in meters, 0 for fences containing the point.
+     */
+    public List<FenceDistance> findWithin(double lat, double lng, double radius, int limit) {
+        return findNearest(lat, lng, limit, radius);
+    }
+
+    private List<FenceDistance> findNearest(double lat, double lng, int k, double maxDistance) {
+        double lngScale = METERS_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        StrTree.Cursor cursor = CURSORS.get();
+        int found = tree.nearest(lat, lng, METERS_PER_DEGREE, lngScale, k, maxDistance,
+                fence -> polygons[fence].distance(lat, lng, METERS_PER_DEGREE, lngScale), cursor);
+        if (found == 0) {
+            return Collections.emptyList();
+        }
+        List<FenceDistance> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(new FenceDistance(fences[cursor.hit(i)], cursor.distance(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Leaves the positions of the fences containing the point in the first hits of the cursor.
+     *
+     * @return Returns the number of containing fences.
+     */
+    private int collect(double lat, double lng, StrTree.Cursor cursor) {
+        int candidates = containTree.search(lat, lng, cursor);
+        int found = 0;
+        for (int i = 0; i < candidates; i++) {
+            int fence = treeFences[cursor.hit(i)];
+            if (polygons[fence].contains(lat, lng)) {
+                cursor.keep(found++, fence);
+            }
+        }
+        if (cells != null) {
+            int group = cells.find(GridCells.cellId(lat, lng, cells.level()));
+            if (group >= 0) {
+                for (int i = cells.start(group), end = cells.end(group); i < end; i++) {
+                    int entry = cells.entry(i);
+                    int fence = entry >>> 1;
+                    if ((entry & 1) != 0 || polygons[fence].contains(lat, lng)) {
+                        cursor.keep(found++, fence);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the ids of the fences containing each of the given points, splitting the batch across the
+     * common fork-join pool.
+     *
+     * @param points - pass the points as consecutive {@code lat,lng} pairs.
+     * @return Returns one array of fence ids per point, a shared empty array for points outside every fence.
+     */
+    public long[][] findContainingIds(double[] points) {
+        long[][] result = new long[points.length / 2][];
+        ForkJoinPool.commonPool().invoke(new BatchTask(points, result, 0, result.length));
+        return result;
+    }
+
+    private long[] findContainingIds(double lat, double lng, StrTree.Cursor cursor) {
+        int found = collect(lat, lng, cursor);
+        if (found == 0) {
+            return NO_IDS;
+        }
+        long[] result = new long[found];
+        for (int i = 0; i < found; i++) {
+            result[i] = ids[cursor.hit(i)];
+        }
+        return result;
+    }
+
+    private final class BatchTask extends RecursiveAction {
+
+        private final double[] points;
+        private final long[][] result;
+        private final int from;
+        private final int to;
+
+        private BatchTask(double[] points, long[][] result, int from, int to) {
+            this.points = points;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_THRESHOLD) {
+                StrTree.Cursor cursor = CURSORS.get();
+                for (int point = from; point < to; point++) {
+                    result[point] = findContainingIds(points[2 * point], points[2 * point + 1], cursor);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BatchTask(points, result, from, middle), new BatchTask(points, result, middle, to));
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.partition.MapTypeRegistry;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class FenceIndexRegistry {
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    @Autowired
+    private FenceCellStore fenceCellStore;
+
+    @Autowired
+    private FenceMetrics fenceMetrics;
+
+    @Autowired
+    private MapTypeRegistry mapTypeRegistry;
+
+    @Value("${geofencing.snapshot.enabled:false}")
+    private boolean snapshotEnabled;
+
+    @Value("${geofencing.snapshot.dir:snapshots}")
+    private String snapshotDir;
+
+    @Value("${geofencing.snapshot.min-interval-ms:300000}")
+    private long snapshotIntervalMillis;
+
+    /**
+     * Rows committed after the snapshot was written can carry an updated_at up to this much older than
+     * its watermark, so the replay starts that much earlier.
+     */
+    @Value("${geofencing.changes.settle-ms:2000}")
+    private long settleMillis;
+
+    private final ConcurrentMap<String, IndexHolder> holders = new ConcurrentHashMap<>();
+
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fence-snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService indexBuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fence-index-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Returns the index of the given maptype, building it on first use. The first build after startup
+     * restores the snapshot of the maptype, if there is one, and replays only the rows changed since it was
+     * written. Later changes are applied by rebuilds in the background; until a rebuild is done the
+     * previous index is returned.
+     *
+     * @param mapType - pass the maptype of the fences.
+     * @return Returns the current index of the maptype.
+     */
+    public FenceIndex getIndex(String mapType) {
+        IndexHolder holder = holders.computeIfAbsent(mapType, key -> {
+            IndexHolder created = new IndexHolder();
+            fenceMetrics.gaugeIndexSize(key, () -> created.size);
+            return created;
+        });
+        FenceIndex index = holder.index;
+        if (index != null) {
+            return index;
+        }
+        synchronized (holder) {
+            index = holder.index;
+            if (index == null) {
+                long generation = holder.generation.get();
+                boolean restored = false;
+                if (snapshotEnabled && !holder.snapshotTried) {
+                    holder.snapshotTried = true;
+                    long start = System.nanoTime();
+                    index = restoreSnapshot(mapType, holder);
+                    restored = index != null;
+                    if (restored) {
+                        fenceMetrics.recordIndexBuild(mapType, "snapshot", System.nanoTime() - start);
+                    }
+                }
+                if (index == null) {
+                    index = buildFromDatabase(mapType);
+                }
+                install(mapType, holder, index, restored);
+                if (generation != holder.generation.get()) {
+                    scheduleRebuild(mapType, holder);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns true if the index of the given maptype is built, so a lookup does not wait for the
+     * database.
+     *
+     * @param mapType - pass the maptype of the fences.
+     * @return Returns true if {@link #getIndex(String)} returns at once.
+     */
+    public boolean isBuilt(String mapType) {
+        IndexHolder holder = holders.get(mapType);
+        return holder != null && holder.index != null;
+    }
+
+    /**
+     * Rebuilds the index of the given maptype in the background. Lookups keep using the current index
+     * until the rebuild is swapped in; changes made while a rebuild runs are picked up by one more
+     * rebuild right after it.
+     *
+     * @param mapType - pass the maptype whose fences changed.
+     */
+    public void invalidate(String mapType) {
+        IndexHolder holder = holders.get(mapType);
+        if (holder != null) {
+            holder.generation.incrementAndGet();
+            if (holder.index != null) {
+                scheduleRebuild(mapType, holder);
+            }
+        }
+    }
+
+    @EventListener
+    public void onGeoCoordinatesChanged(GeoCoordinatesChangedEvent event) {
+        invalidate(event.getMapType());
+    }
+
+    @EventListener
+    public void onGeoCoordinatesImported(GeoCoordinatesImportedEvent event) {
+        invalidate(event.getMapType());
+    }
+
+    /**
+     * Restores the indexes of all registered maptypes that have a snapshot, before the application
+     * reports ready. The other maptypes are built on their first lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadSnapshots() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        for (String mapType : mapTypeRegistry.getMapTypes()) {
+            if (Files.exists(snapshotFile(mapType))) {
+                getIndex(mapType);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the indexes of all maptypes in the background.
+     */
+    public void invalidateAll() {
+        holders.keySet().forEach(this::invalidate);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexBuilder.shutdownNow();
+        snapshotWriter.shutdown();
+    }
+
+    private FenceIndex buildFromDatabase(String mapType) {
+        long start = System.nanoTime();
+        FenceIndex index = FenceIndex.build(geoCoordinatesRepository.findByMapType(mapType),
+                fenceCellStore.loadCells(mapType), fenceCellStore.getLevel());
+        fenceMetrics.recordIndexBuild(mapType, "database", System.nanoTime() - start);
+        log.debug("Fence index built for maptype :: {} with {} fences", mapType, index.size());
+        return index;
+    }
+
+    /**
+     * Queues a rebuild of the maptype, unless one is queued already. A queued rebuild reads the rows
+     * when it starts, so it covers every change made before then.
+     */
+    private void scheduleRebuild(String mapType, IndexHolder holder) {
+        if (!holder.rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            indexBuilder.execute(() -> rebuild(mapType, holder));
+        } catch (RejectedExecutionException e) {
+            holder.rebuildQueued.set(false);
+            log.debug("Fence index rebuild of maptype :: {} skipped, shutting down", mapType);
+        }
+    }
+
+    private void rebuild(String mapType, IndexHolder holder) {
+        holder.rebuildQueued.set(false);
+        FenceIndex index;
+        try {
+            index = buildFromDatabase(mapType);
+        } catch (RuntimeException e) {
+            log.error("Fence index of maptype :: {} not rebuilt, serving the previous index", mapType, e);
+            return;
+        }
+        synchronized (holder) {
+            install(mapType, holder, index, false);
+        }
+    }
+
+    /**
+     * Swaps in a finished index. Builds of one maptype run one after another, so a finished index is never
+     * older than the one it replaces.
+     */
+    private void install(String mapType, IndexHolder holder, FenceIndex index, boolean restored) {
+        holder.index = index;
+        holder.size = index.size();
+        if (snapshotEnabled && !(restored && holder.snapshotCurrent)) {
+            scheduleSnapshot(mapType, holder, index);
+        }
+    }
+
+    private FenceIndex restoreSnapshot(String mapType, IndexHolder holder) {
+        Path file = snapshotFile(mapType);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        FenceIndexSnapshot snapshot;
+        try {
+            snapshot = FenceIndexSnapshot.read(file, mapType);
+        } catch (IOException e) {
+            log.warn("Fence index snapshot of maptype :: {} ignored :: {}", mapType, e.getMessage());
+            return null;
+        }
+        if (snapshot.getCellLevel() != cellLevel(mapType)) {
+            log.info("Fence index snapshot of maptype :: {} has cell level {}, rebuilding", mapType,
+                    snapshot.getCellLevel());
+            return null;
+        }
+        FenceIndex index = replay(mapType, snapshot);
+        holder.snapshotCurrent = index == snapshot.getIndex();
+        log.info("Fence index restored for maptype :: {} with {} fences in {} ms", mapType, index.size(),
+                System.currentTimeMillis() - start);
+        return index;
+    }
+
+    /**
+     * Brings a restored index up to date with the rows updated since its watermark, less settle-ms, and
+     * drops the fences deleted since. The restored index is returned as is when nothing changed, else the
+     * replayed index is written as the new snapshot.
+     */
+    private FenceIndex replay(String mapType, FenceIndexSnapshot snapshot) {
+        FenceIndex index = snapshot.getIndex();
+        Map<Long, GeoCoordinates> restored = new TreeMap<>();
+        for (GeoCoordinates fence : index.fences()) {
+            restored.put(fence.getId(), fence);
+        }
+        Set<Long> live = new HashSet<>(geoCoordinatesRepository.findIdsByMapType(mapType));
+        List<GeoCoordinates> changed = new ArrayList<>();
+        for (GeoCoordinates fence : geoCoordinatesRepository.findByMapTypeAndUpdatedAtGreaterThanEqual(
+                mapType, new Date(snapshot.getWatermark() - settleMillis))) {
+            GeoCoordinates known = restored.get(fence.getId());
+            if (known == null || !sameTime(known.getUpdatedAt(), fence.getUpdatedAt())
+                    || !Objects.equals(known.getCoords(), fence.getCoords())) {
+                changed.add(fence);
+            }
+        }
+        boolean deleted = !live.containsAll(restored.keySet());
+        if (changed.isEmpty() && !deleted) {
+            return index;
+        }
+        restored.keySet().retainAll(live);
+        for (GeoCoordinates fence : changed) {
+            restored.put(fence.getId(), fence);
+        }
+        log.debug("Replaying {} changed fences over the snapshot of maptype :: {}", changed.size(), mapType);
+        return FenceIndex.build(new ArrayList<>(restored.values()), fenceCellStore.loadCells(mapType),
+                fenceCellStore.getLevel());
+    }
+
+    private void scheduleSnapshot(String mapType, IndexHolder holder, FenceIndex index) {
+        long now = System.currentTimeMillis();
+        if (now - holder.snapshotWrittenAt < snapshotIntervalMillis) {
+            return;
+        }
+        holder.snapshotWrittenAt = now;
+        snapshotWriter.execute(() -> {
+            try {
+                FenceIndexSnapshot.write(snapshotFile(mapType), mapType, cellLevel(mapType), index);
+                log.debug("Fence index snapshot written for maptype :: {}", mapType);
+            } catch (IOException e) {
+                log.error("Fence index snapshot of maptype :: {} not written", mapType, e);
+            }
+        });
+    }
+
+    private static boolean sameTime(Date a, Date b) {
+        return a == null ? b == null : b != null && a.getTime() == b.getTime();
+    }
+
+    private int cellLevel(String mapType) {
+        return fenceCellStore.isEnabled(mapType) ? fenceCellStore.getLevel() : -1;
+    }
+
+    private Path snapshotFile(String mapType) {
+        return Paths.get(snapshotDir, "fences-" + mapType.replaceAll("[^A-Za-z0-9_-]", "_") + ".snap");
+    }
+
+    private static final class IndexHolder {
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+        private volatile FenceIndex index;
+        private volatile int size;
+        private boolean snapshotTried;
+        private boolean snapshotCurrent;
+        private long snapshotWrittenAt = Long.MIN_VALUE / 2;
+    }
+}
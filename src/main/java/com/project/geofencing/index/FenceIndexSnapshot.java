@@ -0,0 +1,192 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.model.GeoCoordinates;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary snapshot of the fence index of one maptype.
+ * <p>
+ * The file holds the fences, their parsed rings and the packed R-tree and cell arrays, so restoring
+ * an index needs neither the db nor any text parsing. It is read through a memory mapping, whose pages
+ * are only loaded as the arrays are copied out with bulk gets. All numbers are big-endian.
+ */
+final class FenceIndexSnapshot {
+
+    private static final int MAGIC = 0x47464958;
+
+    /**
+     * Bump on any change of the layout, snapshots of other versions are ignored and rebuilt.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    private final FenceIndex index;
+    private final long watermark;
+    private final int cellLevel;
+
+    private FenceIndexSnapshot(FenceIndex index, long watermark, int cellLevel) {
+        this.index = index;
+        this.watermark = watermark;
+        this.cellLevel = cellLevel;
+    }
+
+    FenceIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the latest updated_at of the fences in the snapshot, in epoch millis.
+     */
+    long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Returns the grid level the cells in the snapshot were computed at, -1 if cells were not enabled.
+     */
+    int getCellLevel() {
+        return cellLevel;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to the target and moves it in place, so readers
+     * never see a partial file.
+     *
+     * @param file      - pass the snapshot file.
+     * @param mapType   - pass the maptype of the index.
+     * @param cellLevel - pass the grid level of the cells, -1 if cells are not enabled.
+     * @param index     - pass the index to write.
+     * @return Returns the watermark written.
+     * @throws IOException - If the file cannot be written.
+     */
+    static long write(Path file, String mapType, int cellLevel, FenceIndex index) throws IOException {
+        long watermark = 0;
+        for (GeoCoordinates fence : index.fences()) {
+            if (fence.getUpdatedAt() != null) {
+                watermark = Math.max(watermark, fence.getUpdatedAt().getTime());
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, mapType);
+            out.writeLong(watermark);
+            out.writeInt(cellLevel);
+            index.write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return watermark;
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     *
+     * @param file    - pass the snapshot file.
+     * @param mapType - pass the maptype the snapshot must belong to.
+     * @return Returns the restored snapshot.
+     * @throws IOException - If the file cannot be read, is of another version or of another maptype.
+     */
+    static FenceIndexSnapshot read(Path file, String mapType) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to map :: " + size);
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a fence index snapshot :: " + file);
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version :: " + version);
+            }
+            String snapshotMapType = readString(in);
+            if (!mapType.equals(snapshotMapType)) {
+                throw new IOException("Snapshot of maptype :: " + snapshotMapType);
+            }
+            long watermark = in.getLong();
+            int cellLevel = in.getInt();
+            FenceIndex index = FenceIndex.read(in);
+            if (in.hasRemaining()) {
+                throw new IOException("Trailing bytes in snapshot :: " + in.remaining());
+            }
+            return new FenceIndexSnapshot(index, watermark, cellLevel);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt snapshot :: " + file, e);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    static long[] readLongs(ByteBuffer in) {
+        long[] values = new long[in.getInt()];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    static double[] readDoubles(ByteBuffer in) {
+        double[] values = new double[in.getInt()];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + values.length * Double.BYTES);
+        return values;
+    }
+}
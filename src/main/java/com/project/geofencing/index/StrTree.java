@@ -0,0 +1,389 @@
+package com.project.geofencing.index;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Static, Sort-Tile-Recursive packed R-tree over item bounding boxes.
+ * <p>
+ * All node boxes are kept in flat primitive arrays, level by level, starting with the
+ * items themselves at level 0. A node at level k covers up to {@link #NODE_CAPACITY}
+ * consecutive entries of level k - 1, so no child pointers have to be stored.
+ */
+final class StrTree {
+
+    static final int NODE_CAPACITY = 16;
+
+    /**
+     * Deepest tree a {@link Cursor} can walk; 16^8 items already exceed an int index.
+     */
+    private static final int MAX_LEVELS = 9;
+
+    private final int size;
+    private final int[] items;
+    private final int[] levelStarts;
+    private final int[] levelCounts;
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    private StrTree(int size, int[] items, int[] levelStarts, int[] levelCounts,
+                    double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        this.size = size;
+        this.items = items;
+        this.levelStarts = levelStarts;
+        this.levelCounts = levelCounts;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    /**
+     * Packs the given item boxes into a tree.
+     *
+     * @param itemMinX - pass the minimum x of every item.
+     * @param itemMinY - pass the minimum y of every item.
+     * @param itemMaxX - pass the maximum x of every item.
+     * @param itemMaxY - pass the maximum y of every item.
+     * @return Returns the packed tree.
+     */
+    static StrTree build(double[] itemMinX, double[] itemMinY, double[] itemMaxX, double[] itemMaxY) {
+        int n = itemMinX.length;
+        int[] order = new int[n];
+        double[] centerX = new double[n];
+        double[] centerY = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            centerX[i] = (itemMinX[i] + itemMaxX[i]) * 0.5;
+            centerY[i] = (itemMinY[i] + itemMaxY[i]) * 0.5;
+        }
+        int leafCount = (n + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(leafCount));
+        int sliceSize = Math.max(1, sliceCount * NODE_CAPACITY);
+        sortByKey(order, centerX, 0, n - 1);
+        for (int from = 0; from < n; from += sliceSize) {
+            sortByKey(order, centerY, from, Math.min(n, from + sliceSize) - 1);
+        }
+
+        int levels = 1;
+        int total = n;
+        for (int count = n; count > 1; levels++) {
+            count = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            total += count;
+        }
+        int[] levelStarts = new int[levels];
+        int[] levelCounts = new int[levels];
+        double[] minX = new double[total];
+        double[] minY = new double[total];
+        double[] maxX = new double[total];
+        double[] maxY = new double[total];
+
+        for (int i = 0; i < n; i++) {
+            int item = order[i];
+            minX[i] = itemMinX[item];
+            minY[i] = itemMinY[item];
+            maxX[i] = itemMaxX[item];
+            maxY[i] = itemMaxY[item];
+        }
+        levelCounts[0] = n;
+        for (int level = 1; level < levels; level++) {
+            int childStart = levelStarts[level - 1];
+            int childCount = levelCounts[level - 1];
+            int start = childStart + childCount;
+            int count = (childCount + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            levelStarts[level] = start;
+            levelCounts[level] = count;
+            for (int node = 0; node < count; node++) {
+                int from = childStart + node * NODE_CAPACITY;
+                int to = Math.min(from + NODE_CAPACITY, childStart + childCount);
+                double nodeMinX = Double.POSITIVE_INFINITY;
+                double nodeMinY = Double.POSITIVE_INFINITY;
+                double nodeMaxX = Double.NEGATIVE_INFINITY;
+                double nodeMaxY = Double.NEGATIVE_INFINITY;
+                for (int child = from; child < to; child++) {
+                    nodeMinX = Math.min(nodeMinX, minX[child]);
+                    nodeMinY = Math.min(nodeMinY, minY[child]);
+                    nodeMaxX = Math.max(nodeMaxX, maxX[child]);
+                    nodeMaxY = Math.max(nodeMaxY, maxY[child]);
+                }
+                minX[start + node] = nodeMinX;
+                minY[start + node] = nodeMinY;
+                maxX[start + node] = nodeMaxX;
+                maxY[start + node] = nodeMaxY;
+            }
+        }
+        return new StrTree(n, order, levelStarts, levelCounts, minX, minY, maxX, maxY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Writes the packed arrays of the tree, readable with {@link #read(ByteBuffer)}.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        FenceIndexSnapshot.writeInts(out, items);
+        FenceIndexSnapshot.writeInts(out, levelStarts);
+        FenceIndexSnapshot.writeInts(out, levelCounts);
+        FenceIndexSnapshot.writeDoubles(out, minX);
+        FenceIndexSnapshot.writeDoubles(out, minY);
+        FenceIndexSnapshot.writeDoubles(out, maxX);
+        FenceIndexSnapshot.writeDoubles(out, maxY);
+    }
+
+    static StrTree read(ByteBuffer in) {
+        int size = in.getInt();
+        return new StrTree(size, FenceIndexSnapshot.readInts(in), FenceIndexSnapshot.readInts(in),
+                FenceIndexSnapshot.readInts(in), FenceIndexSnapshot.readDoubles(in), FenceIndexSnapshot.readDoubles(in),
+                FenceIndexSnapshot.readDoubles(in), FenceIndexSnapshot.readDoubles(in));
+    }
+
+    /**
+     * Collects every item whose box contains the given point into the cursor.
+     *
+     * @param x      - pass the x of the point.
+     * @param y      - pass the y of the point.
+     * @param cursor - pass the scratch cursor, its previous hits are discarded.
+     * @return Returns the number of matching items, readable through {@link Cursor#hit(int)}.
+     */
+    int search(double x, double y, Cursor cursor) {
+        cursor.hitCount = 0;
+        if (size == 0) {
+            return 0;
+        }
+        int[] stack = cursor.stack;
+        int top = 0;
+        int root = levelStarts.length - 1;
+        stack[top++] = root;
+        stack[top++] = levelStarts[root];
+        while (top > 0) {
+            int node = stack[--top];
+            int level = stack[--top];
+            if (x < minX[node] || x > maxX[node] || y < minY[node] || y > maxY[node]) {
+                continue;
+            }
+            if (level == 0) {
+                cursor.add(items[node]);
+                continue;
+            }
+            int childStart = levelStarts[level - 1];
+            int from = childStart + (node - levelStarts[level]) * NODE_CAPACITY;
+            int to = Math.min(from + NODE_CAPACITY, childStart + levelCounts[level - 1]);
+            for (int child = from; child < to; child++) {
+                stack[top++] = level - 1;
+                stack[top++] = child;
+            }
+        }
+        return cursor.hitCount;
+    }
+
+    /**
+     * Collects the k items nearest to the given point into the cursor, nearest first, with a best-first
+     * search. Distances along x and y are multiplied by scaleX and scaleY before they are combined.
+     *
+     * @param x           - pass the x of the point.
+     * @param y           - pass the y of the point.
+     * @param scaleX      - pass the length of one unit of x.
+     * @param scaleY      - pass the length of one unit of y.
+     * @param k           - pass the maximum number of items to collect.
+     * @param maxDistance - pass the distance beyond which items are not collected.
+     * @param exact       - pass the exact distance of an item, never less than the distance to its box.
+     * @param cursor      - pass the scratch cursor, its previous hits are discarded.
+     * @return Returns the number of collected items, readable through {@link Cursor#hit(int)} and
+     * {@link Cursor#distance(int)}.
+     */
+    int nearest(double x, double y, double scaleX, double scaleY, int k, double maxDistance,
+                ItemDistance exact, Cursor cursor) {
+        cursor.hitCount = 0;
+        cursor.heapSize = 0;
+        if (size == 0 || k <= 0) {
+            return 0;
+        }
+        int root = levelStarts.length - 1;
+        cursor.push(boxDistance(levelStarts[root], x, y, scaleX, scaleY), (long) (root + 1) << 32 | levelStarts[root]);
+        while (cursor.heapSize > 0) {
+            double distance = cursor.heapKeys[0];
+            if (distance > maxDistance) {
+                break;
+            }
+            long entry = cursor.pop();
+            int level = (int) (entry >>> 32) - 1;
+            int node = (int) entry;
+            if (level < 0) {
+                cursor.add(node);
+                cursor.distances[cursor.hitCount - 1] = distance;
+                if (cursor.hitCount == k) {
+                    break;
+                }
+            } else if (level == 0) {
+                double itemDistance = exact.distance(items[node]);
+                if (itemDistance <= maxDistance) {
+                    cursor.push(itemDistance, items[node]);
+                }
+            } else {
+                int childStart = levelStarts[level - 1];
+                int from = childStart + (node - levelStarts[level]) * NODE_CAPACITY;
+                int to = Math.min(from + NODE_CAPACITY, childStart + levelCounts[level - 1]);
+                for (int child = from; child < to; child++) {
+                    double childDistance = boxDistance(child, x, y, scaleX, scaleY);
+                    if (childDistance <= maxDistance) {
+                        cursor.push(childDistance, (long) level << 32 | child);
+                    }
+                }
+            }
+        }
+        return cursor.hitCount;
+    }
+
+    private double boxDistance(int node, double x, double y, double scaleX, double scaleY) {
+        double dx = Math.max(Math.max(minX[node] - x, x - maxX[node]), 0) * scaleX;
+        double dy = Math.max(Math.max(minY[node] - y, y - maxY[node]), 0) * scaleY;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Exact distance from the query point to an item.
+     */
+    interface ItemDistance {
+        double distance(int item);
+    }
+
+    /**
+     * Reusable traversal stack and hit buffer, so that searches do not allocate.
+     * A cursor is not thread safe but can be reused across trees.
+     */
+    static final class Cursor {
+
+        private final int[] stack;
+        private int[] hits = new int[NODE_CAPACITY];
+        private double[] distances = new double[NODE_CAPACITY];
+        private int hitCount;
+        private double[] heapKeys = new double[NODE_CAPACITY];
+        private long[] heapValues = new long[NODE_CAPACITY];
+        private int heapSize;
+
+        Cursor() {
+            this.stack = new int[2 * (MAX_LEVELS * NODE_CAPACITY + 1)];
+        }
+
+        int hit(int i) {
+            return hits[i];
+        }
+
+        /**
+         * Overwrites hit i, used to compact confirmed hits in place or to append hits found elsewhere.
+         */
+        void keep(int i, int item) {
+            if (i == hits.length) {
+                hits = Arrays.copyOf(hits, i * 2);
+                distances = Arrays.copyOf(distances, i * 2);
+            }
+            hits[i] = item;
+        }
+
+        /**
+         * Returns the distance of hit i, only set by {@link StrTree#nearest}.
+         */
+        double distance(int i) {
+            return distances[i];
+        }
+
+        private void add(int item) {
+            if (hitCount == hits.length) {
+                hits = Arrays.copyOf(hits, hitCount * 2);
+                distances = Arrays.copyOf(distances, hitCount * 2);
+            }
+            hits[hitCount++] = item;
+        }
+
+        private void push(double key, long value) {
+            if (heapSize == heapKeys.length) {
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+                heapValues = Arrays.copyOf(heapValues, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapKeys[parent] <= key) {
+                    break;
+                }
+                heapKeys[i] = heapKeys[parent];
+                heapValues[i] = heapValues[parent];
+                i = parent;
+            }
+            heapKeys[i] = key;
+            heapValues[i] = value;
+        }
+
+        private long pop() {
+            long top = heapValues[0];
+            double key = heapKeys[--heapSize];
+            long value = heapValues[heapSize];
+            int i = 0;
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if (key <= heapKeys[child]) {
+                    break;
+                }
+                heapKeys[i] = heapKeys[child];
+                heapValues[i] = heapValues[child];
+                i = child;
+            }
+            heapKeys[i] = key;
+            heapValues[i] = value;
+            return top;
+        }
+    }
+
+    private static void sortByKey(int[] order, double[] key, int low, int high) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    int value = order[i];
+                    int j = i - 1;
+                    while (j >= low && key[order[j]] > key[value]) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = value;
+                }
+                return;
+            }
+            double pivot = key[order[(low + high) >>> 1]];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (key[order[i]] < pivot) {
+                    i++;
+                }
+                while (key[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - low < high - i) {
+                sortByKey(order, key, low, j);
+                low = i;
+            } else {
+                sortByKey(order, key, i, high);
+                high = j;
+            }
+        }
+    }
+}
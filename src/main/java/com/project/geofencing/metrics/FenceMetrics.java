@@ -0,0 +1,122 @@
+package com.project.geofencing.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Domain metrics of the fence service, recorded next to the per endpoint request timers of Spring Boot
+ * and exposed with them on {@code /actuator/prometheus}.
+ */
+@Component
+public class FenceMetrics {
+
+    public static final String QUERY_RESULTS = "geofencing.query.results";
+    public static final String VALIDATION_FAILURES = "geofencing.validation.failures";
+    public static final String INDEX_FENCES = "geofencing.index.fences";
+    public static final String INDEX_BUILD = "geofencing.index.build";
+    public static final String REQUEST_SIZE = "geofencing.http.request.size";
+    public static final String RESPONSE_SIZE = "geofencing.http.response.size";
+
+    /**
+     * Upper end of the histogram buckets of the result counts, larger counts land in the last bucket.
+     */
+    private static final long MAX_EXPECTED_RESULTS = 100_000;
+
+    /**
+     * Upper end of the histogram buckets of the payload sizes, 64 MB.
+     */
+    private static final long MAX_EXPECTED_BYTES = 64L << 20;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public FenceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the number of fences or ids a query returned.
+     *
+     * @param query   - pass the name of the query, like contains or nearest.
+     * @param mapType - pass the maptype that was queried.
+     * @param count   - pass the number of results.
+     */
+    public void recordResults(String query, String mapType, int count) {
+        DistributionSummary.builder(QUERY_RESULTS)
+                .description("Number of results per query")
+                .tags("query", query, "mapType", mapType)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_RESULTS)
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    /**
+     * Counts a rejected maptype or coords.
+     *
+     * @param code - pass the reason, a {@code CoordsError} code or MAP_TYPE.
+     */
+    public void validationFailed(String code) {
+        Counter.builder(VALIDATION_FAILURES)
+                .description("Rejected maptypes and coords by reason")
+                .tag("code", code)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the size of a request or response body.
+     *
+     * @param name  - pass {@link #REQUEST_SIZE} or {@link #RESPONSE_SIZE}.
+     * @param tags  - pass the uri, method and maptype tags of the request.
+     * @param bytes - pass the number of body bytes.
+     */
+    public void recordPayload(String name, Iterable<Tag> tags, long bytes) {
+        DistributionSummary.builder(name)
+                .description("Body size of the requests and responses per endpoint")
+                .baseUnit("bytes")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_BYTES)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Records how long building or restoring a fence index took.
+     *
+     * @param mapType - pass the maptype of the index.
+     * @param source  - pass database for a build from the rows, snapshot for a restore.
+     * @param nanos   - pass the duration in nanoseconds.
+     */
+    public void recordIndexBuild(String mapType, String source, long nanos) {
+        Timer.builder(INDEX_BUILD)
+                .description("Time to build a fence index from the database or restore it from a snapshot")
+                .tags("mapType", mapType, "source", source)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers the gauge of the number of fences in the index of a maptype.
+     *
+     * @param mapType - pass the maptype of the index.
+     * @param size    - pass the supplier of the current size, kept for the life of the registry.
+     */
+    public void gaugeIndexSize(String mapType, IntSupplier size) {
+        Gauge.builder(INDEX_FENCES, size, IntSupplier::getAsInt)
+                .description("Number of fences in the index of the maptype")
+                .tag("mapType", mapType)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+}
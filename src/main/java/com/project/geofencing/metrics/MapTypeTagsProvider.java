@@ -0,0 +1,63 @@
+package com.project.geofencing.metrics;
+
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.DefaultWebMvcTagsProvider;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Adds the maptype of the request to the default tags of the request timers, so latencies can be told
+ * apart per maptype. Only configured and registered maptypes become tag values, anything else is tagged
+ * UNKNOWN, and registrations are capped at max-registered, so clients cannot create new time series at
+ * will.
+ */
+public class MapTypeTagsProvider extends DefaultWebMvcTagsProvider {
+
+    public static final String MAP_TYPE = "mapType";
+
+    private static final Tag NONE = Tag.of(MAP_TYPE, "none");
+
+    private static final Tag UNKNOWN = Tag.of(MAP_TYPE, "UNKNOWN");
+
+    private final GeoCoordinatesValidation geoCoordinatesValidation;
+
+    public MapTypeTagsProvider(GeoCoordinatesValidation geoCoordinatesValidation) {
+        this.geoCoordinatesValidation = geoCoordinatesValidation;
+    }
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        return Tags.concat(super.getTags(request, response, handler, exception), Tags.of(mapType(request)));
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.concat(super.getLongRequestTags(request, handler), Tags.of(mapType(request)));
+    }
+
+    /**
+     * Returns the maptype tag of the request, taken from the mapType path variable or request parameter.
+     *
+     * @param request - pass the request, after it was mapped to a handler.
+     * @return Returns the tag, none if the request has no maptype.
+     */
+    @SuppressWarnings("unchecked")
+    public Tag mapType(HttpServletRequest request) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String mapType = variables == null ? null : variables.get(MAP_TYPE);
+        if (mapType == null) {
+            mapType = request.getParameter(MAP_TYPE);
+        }
+        if (mapType == null) {
+            return NONE;
+        }
+        return geoCoordinatesValidation.isMapType(mapType) ? Tag.of(MAP_TYPE, mapType) : UNKNOWN;
+    }
+}
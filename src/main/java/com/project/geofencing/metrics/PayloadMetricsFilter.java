@@ -0,0 +1,115 @@
+package com.project.geofencing.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+/**
+ * Records the body sizes of the requests and responses per endpoint and maptype.
+ * <p>
+ * The request size is the Content-Length sent by the client. The response is counted while it is
+ * written, before any compression by the container, so nothing is buffered. The response of an
+ * asynchronous handler is counted in the dispatch that writes its result. Responses written through a
+ * writer and streamed ones, like event streams, are not counted.
+ */
+@Component
+public class PayloadMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private FenceMetrics fenceMetrics;
+
+    @Autowired
+    private MapTypeTagsProvider mapTypeTagsProvider;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean asyncDispatch = isAsyncDispatch(request);
+        CountingResponse counting = new CountingResponse(response);
+        chain.doFilter(request, counting);
+        Tags tags = Tags.of(WebMvcTags.uri(request, response), WebMvcTags.method(request),
+                mapTypeTagsProvider.mapType(request));
+        long requestSize = request.getContentLengthLong();
+        if (requestSize >= 0 && !asyncDispatch) {
+            fenceMetrics.recordPayload(FenceMetrics.REQUEST_SIZE, tags, requestSize);
+        }
+        if (counting.stream != null && !request.isAsyncStarted()) {
+            fenceMetrics.recordPayload(FenceMetrics.RESPONSE_SIZE, tags, counting.stream.count);
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream stream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                stream = new CountingOutputStream(super.getOutputStream());
+            }
+            return stream;
+        }
+    }
+
+    private static final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.geofencing.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call of the Spring Data repositories, tagged with the repository, the method and the
+ * exception thrown, by adding an interceptor in front of the repository proxies.
+ * <p>
+ * The registry is looked up on the first call, so the post processor does not pull the metrics beans
+ * into creation before the other post processors are registered.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    public static final String REPOSITORY_INVOCATIONS = "spring.data.repository.invocations";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            Advised advised = (Advised) bean;
+            advised.addAdvice(0, new TimingInterceptor(repositoryName(advised)));
+        }
+        return bean;
+    }
+
+    private static String repositoryName(Advised advised) {
+        for (Class<?> type : advised.getProxiedInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type != Repository.class) {
+                return type.getSimpleName();
+            }
+        }
+        return "UNKNOWN";
+    }
+
+    private final class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        private TimingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long start = System.nanoTime();
+            String exception = "None";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                Timer.builder(REPOSITORY_INVOCATIONS)
+                        .description("Duration of the repository calls")
+                        .tags("repository", repository, "method", invocation.getMethod().getName(),
+                                "exception", exception)
+                        .register(meterRegistry.getObject())
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.geofencing.migration;
+
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves rows written before the geometry columns existed to the new layout while the application
+ * serves requests.
+ * <p>
+ * A coords column still created as varchar(1000) is widened to MEDIUMTEXT first. The rows without a
+ * geometry blob are then read in id order, batch by batch, and their bounding box and blob written with
+ * a bulk update that leaves updated_at alone. Until a row is migrated it is loaded by parsing its text,
+ * and the bounding box queries include it, so nothing is missed in between.
+ */
+@Slf4j
+@Component
+public class GeometryMigration {
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${geofencing.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${geofencing.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${geofencing.migration.pause-ms:100}")
+    private long pauseMillis;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public GeometryMigration(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts the migration in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::migrate, "geometry-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void migrate() {
+        try {
+            widenCoordsColumn();
+            int migrated = backfill();
+            if (migrated > 0) {
+                log.info("Geometry migration done, {} rows migrated", migrated);
+            }
+        } catch (RuntimeException e) {
+            log.error("Geometry migration failed, it is resumed on the next start", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Widens a varchar coords column on MySQL. The copy keeps the table readable, writes wait until it
+     * is done. Other databases only get a warning.
+     */
+    private void widenCoordsColumn() {
+        String[] column = jdbcTemplate.execute((ConnectionCallback<String[]>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "GEOCOORDINATES" : "geocoordinates";
+            String name = metaData.storesUpperCaseIdentifiers() ? "COORDS" : "coords";
+            try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, table, name)) {
+                return columns.next()
+                        ? new String[]{metaData.getDatabaseProductName(), columns.getString("TYPE_NAME")}
+                        : null;
+            }
+        });
+        if (column == null || !"VARCHAR".equalsIgnoreCase(column[1])) {
+            return;
+        }
+        if (!column[0].toLowerCase().contains("mysql")) {
+            log.warn("Column geocoordinates.coords is still {} on {}, widen it to a text type to store fences "
+                    + "with more vertices", column[1], column[0]);
+            return;
+        }
+        log.info("Widening column geocoordinates.coords to MEDIUMTEXT");
+        jdbcTemplate.execute("ALTER TABLE geocoordinates MODIFY coords MEDIUMTEXT, ALGORITHM=COPY, LOCK=SHARED");
+    }
+
+    private int backfill() throws InterruptedException {
+        int migrated = 0;
+        long after = 0;
+        while (true) {
+            List<GeoCoordinates> batch =
+                    geoCoordinatesRepository.findWithoutGeometry(after, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return migrated;
+            }
+            Integer updated = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (GeoCoordinates geoCoordinates : batch) {
+                    geoCoordinates.updateGeometry();
+                    count += geoCoordinatesRepository.updateGeometry(geoCoordinates.getId(),
+                            geoCoordinates.getMinLat(), geoCoordinates.getMinLng(), geoCoordinates.getMaxLat(),
+                            geoCoordinates.getMaxLng(), geoCoordinates.getGeometry());
+                }
+                return count;
+            });
+            migrated += updated == null ? 0 : updated;
+            after = batch.get(batch.size() - 1).getId();
+            log.debug("Geometry migration at id :: {}, {} rows migrated", after, migrated);
+            Thread.sleep(pauseMillis);
+        }
+    }
+}
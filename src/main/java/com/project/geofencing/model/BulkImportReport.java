@@ -0,0 +1,84 @@
+package com.project.geofencing.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import, one entry per committed or rejected chunk.
+ */
+public class BulkImportReport {
+
+    private long accepted;
+    private long rejected;
+    private List<ChunkReport> chunks = new ArrayList<>();
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<ChunkReport> getChunks() {
+        return chunks;
+    }
+
+    public void addChunk(ChunkReport chunk) {
+        chunks.add(chunk);
+        accepted += chunk.getAccepted();
+        rejected += chunk.getFailures().size();
+    }
+
+    public static class ChunkReport {
+
+        private final int chunk;
+        private final long firstLine;
+        private int accepted;
+        private final List<Failure> failures = new ArrayList<>();
+
+        public ChunkReport(int chunk, long firstLine) {
+            this.chunk = chunk;
+            this.firstLine = firstLine;
+        }
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public int getAccepted() {
+            return accepted;
+        }
+
+        public void setAccepted(int accepted) {
+            this.accepted = accepted;
+        }
+
+        public List<Failure> getFailures() {
+            return failures;
+        }
+    }
+
+    public static class Failure {
+
+        private final long line;
+        private final String message;
+
+        public Failure(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.geofencing.model;
+
+/**
+ * Position in the change feed. Changes are ordered by their time, then by fence id, with the upsert of
+ * a fence before its delete; the cursor points right after the change it was taken from.
+ * <p>
+ * Its text form is {@code <epoch millis>:<fence id>:<u|d>}.
+ */
+public final class ChangeCursor implements Comparable<ChangeCursor> {
+
+    private final long timestamp;
+    private final long id;
+    private final boolean deleted;
+
+    public ChangeCursor(long timestamp, long id, boolean deleted) {
+        this.timestamp = timestamp;
+        this.id = id;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Returns the position right before every change made at or after the given time.
+     *
+     * @param timestamp - pass the time in epoch millis.
+     * @return Returns the cursor.
+     */
+    public static ChangeCursor since(long timestamp) {
+        return new ChangeCursor(timestamp - 1, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Parses the text form of a cursor.
+     *
+     * @param text - pass the cursor text.
+     * @return Returns the cursor, null if the text is not a cursor.
+     */
+    public static ChangeCursor parse(String text) {
+        String[] parts = text.split(":", -1);
+        if (parts.length != 3 || !("u".equals(parts[2]) || "d".equals(parts[2]))) {
+            return null;
+        }
+        try {
+            return new ChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), "d".equals(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Returns the id bound for the deletes made at the cursor time, deletes of fences with a greater id
+     * come after the cursor. Upserts use {@link #getId()} the same way.
+     */
+    public long getDeletedIdBound() {
+        return deleted ? id : id - 1;
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int byTime = Long.compare(timestamp, other.timestamp);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byId = Long.compare(id, other.id);
+        if (byId != 0) {
+            return byId;
+        }
+        return Boolean.compare(deleted, other.deleted);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeCursor)) {
+            return false;
+        }
+        ChangeCursor that = (ChangeCursor) o;
+        return timestamp == that.timestamp && id == that.id && deleted == that.deleted;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(timestamp) * 31 * 31 + Long.hashCode(id) * 31 + Boolean.hashCode(deleted);
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + ":" + id + ":" + (deleted ? "d" : "u");
+    }
+}
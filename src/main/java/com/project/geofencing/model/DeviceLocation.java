@@ -0,0 +1,65 @@
+package com.project.geofencing.model;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * One location update reported by a device.
+ */
+public class DeviceLocation {
+
+    @NotNull
+    private String deviceId;
+
+    @NotNull
+    private Double lat;
+
+    @NotNull
+    private Double lng;
+
+    /**
+     * Epoch millis the location was taken at, the time of arrival is used when it is not passed.
+     */
+    private Long timestamp;
+
+    public DeviceLocation() {
+    }
+
+    public DeviceLocation(String deviceId, Double lat, Double lng, Long timestamp) {
+        this.deviceId = deviceId;
+        this.lat = lat;
+        this.lng = lng;
+        this.timestamp = timestamp;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(Double lng) {
+        this.lng = lng;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.geofencing.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One grid cell of the covering of a fence, stored next to geocoordinates so the cell index of a
+ * maptype is loaded instead of recomputed.
+ */
+@Entity
+@Table(name = "geofence_cells", indexes = {
+        @Index(name = "idx_geofence_cells_map_type", columnList = "map_type, cell_level"),
+        @Index(name = "idx_geofence_cells_fence_id", columnList = "fence_id")
+})
+@IdClass(FenceCell.Key.class)
+public class FenceCell {
+
+    @Id
+    @Column(name = "fence_id")
+    private long fenceId;
+
+    @Id
+    @Column(name = "cell_id")
+    private long cellId;
+
+    @Column(name = "map_type", nullable = false)
+    private String mapType;
+
+    @Column(name = "cell_level", nullable = false)
+    private int level;
+
+    /**
+     * True if the cell lies fully inside the fence, false if the fence boundary passes through it.
+     */
+    @Column(name = "inside", nullable = false)
+    private boolean inside;
+
+    public FenceCell() {
+    }
+
+    public FenceCell(long fenceId, long cellId, String mapType, int level, boolean inside) {
+        this.fenceId = fenceId;
+        this.cellId = cellId;
+        this.mapType = mapType;
+        this.level = level;
+        this.inside = inside;
+    }
+
+    public long getFenceId() {
+        return fenceId;
+    }
+
+    public void setFenceId(long fenceId) {
+        this.fenceId = fenceId;
+    }
+
+    public long getCellId() {
+        return cellId;
+    }
+
+    public void setCellId(long cellId) {
+        this.cellId = cellId;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public void setMapType(String mapType) {
+        this.mapType = mapType;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public boolean isInside() {
+        return inside;
+    }
+
+    public void setInside(boolean inside) {
+        this.inside = inside;
+    }
+
+    public static class Key implements Serializable {
+
+        private long fenceId;
+        private long cellId;
+
+        public Key() {
+        }
+
+        public Key(long fenceId, long cellId) {
+            this.fenceId = fenceId;
+            this.cellId = cellId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return fenceId == key.fenceId && cellId == key.cellId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fenceId, cellId);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.geofencing.model;
+
+import java.util.Date;
+
+/**
+ * One entry of the change feed, either the current state of a created or updated fence or the
+ * delete of a fence.
+ */
+public class FenceChange {
+
+    public enum Type {
+        UPSERT, DELETE
+    }
+
+    private Type type;
+    private long id;
+    private String mapType;
+    private Date changedAt;
+    private GeoCoordinates geoCoordinates;
+
+    public FenceChange(Type type, long id, String mapType, Date changedAt, GeoCoordinates geoCoordinates) {
+        this.type = type;
+        this.id = id;
+        this.mapType = mapType;
+        this.changedAt = changedAt;
+        this.geoCoordinates = geoCoordinates;
+    }
+
+    public static FenceChange upsert(GeoCoordinates geoCoordinates) {
+        return new FenceChange(Type.UPSERT, geoCoordinates.getId(), geoCoordinates.getMapType(),
+                geoCoordinates.getUpdatedAt(), geoCoordinates);
+    }
+
+    public static FenceChange delete(FenceTombstone tombstone) {
+        return new FenceChange(Type.DELETE, tombstone.getFenceId(), tombstone.getMapType(),
+                tombstone.getDeletedAt(), null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public void setMapType(String mapType) {
+        this.mapType = mapType;
+    }
+
+    public Date getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Date changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    /**
+     * Returns the fence as stored after the change, null for deletes.
+     */
+    public GeoCoordinates getGeoCoordinates() {
+        return geoCoordinates;
+    }
+
+    public void setGeoCoordinates(GeoCoordinates geoCoordinates) {
+        this.geoCoordinates = geoCoordinates;
+    }
+
+    /**
+     * Returns the feed position right after this change.
+     */
+    public ChangeCursor position() {
+        return new ChangeCursor(changedAt.getTime(), id, type == Type.DELETE);
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.geofencing.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the change feed, ordered by change time, fence id and upserts before deletes.
+ */
+public class FenceChangePage {
+
+    private List<FenceChange> changes;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public FenceChangePage(List<FenceChange> changes, String nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Merges the upserts and deletes fetched after a feed position into one page.
+     *
+     * @param upserts - pass the changed rows after the position, in feed order.
+     * @param deletes - pass the tombstones after the position, in feed order.
+     * @param from    - pass the position both lists were fetched after.
+     * @param size    - pass the maximum number of changes in the page.
+     * @return Returns the first size changes of both lists in feed order.
+     */
+    public static FenceChangePage merge(List<GeoCoordinates> upserts, List<FenceTombstone> deletes,
+                                        ChangeCursor from, int size) {
+        List<FenceChange> changes = new ArrayList<>(Math.min(size, upserts.size() + deletes.size()));
+        ChangeCursor position = from;
+        int u = 0;
+        int d = 0;
+        while (changes.size() < size && (u < upserts.size() || d < deletes.size())) {
+            FenceChange upsert = u < upserts.size() ? FenceChange.upsert(upserts.get(u)) : null;
+            FenceChange delete = d < deletes.size() ? FenceChange.delete(deletes.get(d)) : null;
+            FenceChange next;
+            if (delete == null || (upsert != null && upsert.position().compareTo(delete.position()) < 0)) {
+                next = upsert;
+                u++;
+            } else {
+                next = delete;
+                d++;
+            }
+            changes.add(next);
+            position = next.position();
+        }
+        return new FenceChangePage(changes, position.toString(), u < upserts.size() || d < deletes.size());
+    }
+
+    public List<FenceChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<FenceChange> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Returns the cursor to pass for the next page. It is also returned on the last page, so a
+     * client keeps polling from it for later changes.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns true if more changes are available right away.
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.geofencing.model;
+
+/**
+ * A fence together with its distance from a query point.
+ */
+public class FenceDistance {
+
+    private GeoCoordinates geoCoordinates;
+
+    private double distance;
+
+    public FenceDistance(GeoCoordinates geoCoordinates, double distance) {
+        this.geoCoordinates = geoCoordinates;
+        this.distance = distance;
+    }
+
+    public GeoCoordinates getGeoCoordinates() {
+        return geoCoordinates;
+    }
+
+    public void setGeoCoordinates(GeoCoordinates geoCoordinates) {
+        this.geoCoordinates = geoCoordinates;
+    }
+
+    /**
+     * Returns the distance in meters from the point to the nearest edge of the fence, 0 if the point is inside.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.geofencing.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * A maptype registered at runtime, in addition to the ones of the mapType property.
+ */
+@Entity
+@Table(name = "geofence_map_types")
+public class FenceMapType {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    public FenceMapType() {
+    }
+
+    public FenceMapType(String name, Date createdAt) {
+        this.name = name;
+        this.createdAt = createdAt;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
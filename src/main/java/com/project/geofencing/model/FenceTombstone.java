@@ -0,0 +1,75 @@
+package com.project.geofencing.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.util.Date;
+
+/**
+ * Marker left behind by a deleted fence, so the change feed can report the delete. Tombstones are
+ * purged once they are older than the retention of the feed.
+ */
+@Entity
+@Table(name = "geofence_tombstones", indexes = {
+        @Index(name = "idx_geofence_tombstones_deleted_at", columnList = "deleted_at, fence_id"),
+        @Index(name = "idx_geofence_tombstones_map_type", columnList = "map_type, deleted_at, fence_id")
+})
+public class FenceTombstone {
+
+    @Id
+    @Column(name = "fence_id")
+    private long fenceId;
+
+    @Column(name = "map_type", nullable = false)
+    private String mapType;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "deleted_at", nullable = false)
+    private Date deletedAt;
+
+    public FenceTombstone() {
+    }
+
+    public FenceTombstone(long fenceId, String mapType, Date deletedAt) {
+        this.fenceId = fenceId;
+        this.mapType = mapType;
+        this.deletedAt = deletedAt;
+    }
+
+    public long getFenceId() {
+        return fenceId;
+    }
+
+    public void setFenceId(long fenceId) {
+        this.fenceId = fenceId;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public void setMapType(String mapType) {
+        this.mapType = mapType;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "FenceTombstone{" +
+                "fenceId=" + fenceId +
+                ", mapType='" + mapType + '\'' +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
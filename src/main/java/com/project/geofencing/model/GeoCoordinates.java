@@ -1,6 +1,11 @@
 package com.project.geofencing.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.wire.FenceWireFormat;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -12,16 +17,27 @@ import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.PostLoad;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Transient;
 import java.util.Date;
 
 
 @Entity
-@Table(name = "geocoordinates")
+@Table(name = "geocoordinates", indexes = {
+        @Index(name = "idx_geocoordinates_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_geocoordinates_map_type_updated_at", columnList = "map_type, updated_at, id"),
+        @Index(name = "idx_geocoordinates_map_type_bbox", columnList = "map_type, min_lat, max_lat"),
+        @Index(name = "idx_geocoordinates_map_type_name", columnList = "map_type, name"),
+        @Index(name = "idx_geocoordinates_map_type_id", columnList = "map_type, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 @NamedQueries(value = {
         @NamedQuery(name = "GeoCoordinates.findAllNamesByMapType", query = "SELECT DISTINCT g.name FROM GeoCoordinates g " +
@@ -29,8 +45,18 @@ import java.util.Date;
 })
 public class GeoCoordinates {
 
+    /**
+     * Ids come from the hibernate_sequence table in pooled-lo blocks of 50, so inserts need no
+     * round trip per row and can be sent as jdbc batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "geocoordinates_id")
+    @GenericGenerator(name = "geocoordinates_id", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "hibernate_sequence"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private long id;
 
     @Column(name = "name", nullable = false)
@@ -39,9 +65,39 @@ public class GeoCoordinates {
     @Column(name = "map_type", nullable = false)
     private String mapType;
 
-    @Column(name = "coords", length = 1000)
+    /**
+     * Up to 16MB of text, so detailed boundaries with many thousand vertices fit.
+     */
+    @Column(name = "coords", columnDefinition = "MEDIUMTEXT")
     private String coords;
 
+    /**
+     * Bounding box of the polygon, null if coords do not form one. Lets queries prefilter in sql.
+     */
+    @JsonIgnore
+    @Column(name = "min_lat")
+    private Double minLat;
+
+    @JsonIgnore
+    @Column(name = "min_lng")
+    private Double minLng;
+
+    @JsonIgnore
+    @Column(name = "max_lat")
+    private Double maxLat;
+
+    @JsonIgnore
+    @Column(name = "max_lng")
+    private Double maxLng;
+
+    /**
+     * Coords in the binary form of {@link FenceWireFormat#encodeGeometry(String)}, so loading needs no
+     * text parsing. Empty if the coords can only be kept as text, null for rows not yet migrated.
+     */
+    @JsonIgnore
+    @Column(name = "geometry", columnDefinition = "MEDIUMBLOB")
+    private byte[] geometry;
+
     @CreationTimestamp
     @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "created_at", nullable = false)
@@ -60,6 +116,18 @@ public class GeoCoordinates {
     @LastModifiedBy
     private String updatedBy;
 
+    @Transient
+    @JsonIgnore
+    private Polygon polygon;
+
+    /**
+     * The coords value the polygon belongs to. Merging a detached fence copies only the columns, so
+     * the polygon is parsed again when the coords instance differs.
+     */
+    @Transient
+    @JsonIgnore
+    private String polygonCoords;
+
     public long getId() {
         return id;
     }
@@ -90,6 +158,104 @@ public class GeoCoordinates {
 
     public void setCoords(String coords) {
         this.coords = coords;
+        this.polygon = null;
+    }
+
+    /**
+     * Returns the parsed form of coords, parsed once per coords value.
+     *
+     * @return Returns the polygon, null if coords do not form one.
+     */
+    @JsonIgnore
+    public Polygon getPolygon() {
+        if (coords != null && (polygon == null || polygonCoords != coords)) {
+            parsePolygon();
+        }
+        return polygon;
+    }
+
+    /**
+     * Sets the parsed form of coords, used when fences are restored from an index snapshot.
+     *
+     * @param polygon - pass the polygon parsed from the current coords.
+     */
+    @JsonIgnore
+    public void setPolygon(Polygon polygon) {
+        this.polygon = polygon;
+        this.polygonCoords = coords;
+    }
+
+    @JsonIgnore
+    public Double getMinLat() {
+        return minLat;
+    }
+
+    @JsonIgnore
+    public Double getMinLng() {
+        return minLng;
+    }
+
+    @JsonIgnore
+    public Double getMaxLat() {
+        return maxLat;
+    }
+
+    @JsonIgnore
+    public Double getMaxLng() {
+        return maxLng;
+    }
+
+    @JsonIgnore
+    public byte[] getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Derives the bounding box and the geometry blob from the current coords, done on every insert
+     * and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateGeometry() {
+        parsePolygon();
+        if (polygon == null) {
+            minLat = minLng = maxLat = maxLng = null;
+        } else {
+            minLat = polygon.getMinLat();
+            minLng = polygon.getMinLng();
+            maxLat = polygon.getMaxLat();
+            maxLng = polygon.getMaxLng();
+        }
+        byte[] encoded = polygon == null ? null : FenceWireFormat.encodeGeometry(coords);
+        geometry = encoded == null ? new byte[0] : encoded;
+    }
+
+    @PostLoad
+    void loadPolygon() {
+        if (geometry != null && geometry.length > 0) {
+            try {
+                setPolygon(FenceWireFormat.decodeGeometry(geometry));
+            } catch (IllegalArgumentException e) {
+                polygon = null;
+            }
+        }
+        parsePolygon();
+    }
+
+    private void parsePolygon() {
+        if (coords == null) {
+            polygon = null;
+            return;
+        }
+        if (polygon != null && polygonCoords == coords) {
+            return;
+        }
+        try {
+            polygon = Polygon.parse(coords);
+        } catch (IllegalArgumentException e) {
+            polygon = null;
+        }
+        polygonCoords = coords;
     }
 
     public Date getCreatedAt() {
@@ -124,6 +290,26 @@ public class GeoCoordinates {
         this.updatedBy = updatedBy;
     }
 
+    /**
+     * Returns a copy with other coords, not attached to any persistence context, so simplified fences can
+     * be served without changing the stored or cached ones.
+     *
+     * @param coords - pass the coords of the copy.
+     * @return Returns the copy.
+     */
+    public GeoCoordinates withCoords(String coords) {
+        GeoCoordinates copy = new GeoCoordinates();
+        copy.id = id;
+        copy.name = name;
+        copy.mapType = mapType;
+        copy.coords = coords;
+        copy.createdAt = createdAt;
+        copy.createdBy = createdBy;
+        copy.updatedAt = updatedAt;
+        copy.updatedBy = updatedBy;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "GeoCords{" +
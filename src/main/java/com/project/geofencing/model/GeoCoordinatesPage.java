@@ -0,0 +1,36 @@
+package com.project.geofencing.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of geo coordinates, ordered by id.
+ */
+public class GeoCoordinatesPage {
+
+    private List<GeoCoordinates> items;
+    private Long nextCursor;
+
+    public GeoCoordinatesPage(List<GeoCoordinates> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GeoCoordinates> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GeoCoordinates> items) {
+        this.items = items;
+    }
+
+    /**
+     * Returns the id to pass as cursor for the next page, null on the last page.
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.geofencing.model;
+
+/**
+ * The id, name and bounding box of a fence, read without its coords or geometry, for lists to pick a
+ * fence from. The bounding box is null for rows the geometry migration has not reached yet.
+ */
+public class GeoCoordinatesSummary {
+
+    private long id;
+
+    private String name;
+
+    private Double minLat;
+
+    private Double minLng;
+
+    private Double maxLat;
+
+    private Double maxLng;
+
+    public GeoCoordinatesSummary(long id, String name, Double minLat, Double minLng, Double maxLat,
+                                 Double maxLng) {
+        this.id = id;
+        this.name = name;
+        this.minLat = minLat;
+        this.minLng = minLng;
+        this.maxLat = maxLat;
+        this.maxLng = maxLng;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getMinLat() {
+        return minLat;
+    }
+
+    public void setMinLat(Double minLat) {
+        this.minLat = minLat;
+    }
+
+    public Double getMinLng() {
+        return minLng;
+    }
+
+    public void setMinLng(Double minLng) {
+        this.minLng = minLng;
+    }
+
+    public Double getMaxLat() {
+        return maxLat;
+    }
+
+    public void setMaxLat(Double maxLat) {
+        this.maxLat = maxLat;
+    }
+
+    public Double getMaxLng() {
+        return maxLng;
+    }
+
+    public void setMaxLng(Double maxLng) {
+        this.maxLng = maxLng;
+    }
+}
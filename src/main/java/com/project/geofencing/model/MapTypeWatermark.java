@@ -0,0 +1,31 @@
+package com.project.geofencing.model;
+
+import java.util.Date;
+
+/**
+ * The time of the latest row of a maptype, read to notice changes made by other instances.
+ */
+public class MapTypeWatermark {
+
+    private final String mapType;
+
+    private final Date latest;
+
+    public MapTypeWatermark(String mapType, Date latest) {
+        this.mapType = mapType;
+        this.latest = latest;
+    }
+
+    public String getMapType() {
+        return mapType;
+    }
+
+    public Date getLatest() {
+        return latest;
+    }
+
+    @Override
+    public String toString() {
+        return mapType + "@" + (latest == null ? 0 : latest.getTime());
+    }
+}
@@ -0,0 +1,120 @@
+package com.project.geofencing.partition;
+
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.model.FenceMapType;
+import com.project.geofencing.repository.FenceMapTypeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The maptypes fences can be stored under. Every maptype is a partition with its own caches, fence
+ * index, locks and rebuilds, all created on its first use. The maptypes of the mapType property are
+ * always registered, more can be registered at runtime. Those are kept in the geofence_map_types table,
+ * which is read at startup and again every refresh-ms in the background, so maptypes registered on
+ * another instance are picked up without requests ever waiting for the db. At most max-registered
+ * maptypes can be registered, as every one adds caches, an index, gauges and metric tag values.
+ */
+@Slf4j
+@Component
+public class MapTypeRegistry {
+
+    /**
+     * Maptype names are used in cache names, metric tags and snapshot file names.
+     */
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Autowired
+    private FenceMapTypeRepository fenceMapTypeRepository;
+
+    private final Set<String> configured;
+
+    private final int maxRegistered;
+
+    private volatile Set<String> mapTypes;
+
+    @Autowired
+    public MapTypeRegistry(@Value("${mapType}") String[] configured,
+                           @Value("${geofencing.map-types.max-registered:50}") int maxRegistered) {
+        this.configured = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(configured)));
+        this.mapTypes = this.configured;
+        this.maxRegistered = maxRegistered;
+    }
+
+    /**
+     * Returns true if the maptype is registered, as of the last read of the registered maptypes.
+     *
+     * @param mapType - pass the maptype to check.
+     * @return Returns true if fences can be stored under the maptype.
+     */
+    public boolean contains(String mapType) {
+        return mapTypes.contains(mapType);
+    }
+
+    /**
+     * Returns all registered maptypes, the configured ones first.
+     */
+    public Set<String> getMapTypes() {
+        return mapTypes;
+    }
+
+    /**
+     * Registers a maptype, its partition is created when it is first used.
+     *
+     * @param mapType - pass the name of the maptype, 1 to 64 letters, digits, _ or -.
+     * @return Returns true if the maptype was not registered before.
+     * @throws ResourceNotFoundException - If the name is invalid or max-registered maptypes are registered
+     *                                   already throws exception.
+     */
+    public synchronized boolean register(String mapType) throws ResourceNotFoundException {
+        if (mapType == null || !NAME.matcher(mapType).matches()) {
+            log.error("Invaild Map type name: {}", mapType);
+            throw new ResourceNotFoundException("Invaild Map type name: " + mapType
+                    + " :: Expected: 1 to 64 letters, digits, _ or -");
+        }
+        if (contains(mapType)) {
+            return false;
+        }
+        boolean created = !fenceMapTypeRepository.existsById(mapType);
+        if (created) {
+            if (fenceMapTypeRepository.count() >= maxRegistered) {
+                log.error("Invaild Map type registration: {} :: {} registered already", mapType, maxRegistered);
+                throw new ResourceNotFoundException("Invaild Map type registration: " + mapType
+                        + " :: Expected: at most " + maxRegistered + " registered map types");
+            }
+            fenceMapTypeRepository.save(new FenceMapType(mapType, new Date()));
+        }
+        Set<String> updated = new LinkedHashSet<>(mapTypes);
+        updated.add(mapType);
+        mapTypes = Collections.unmodifiableSet(updated);
+        log.info("Map type registered :: {}", mapType);
+        return created;
+    }
+
+    /**
+     * Reads the registered maptypes from the table, keeping the known ones if it cannot be read.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${geofencing.map-types.refresh-ms:10000}",
+            initialDelayString = "${geofencing.map-types.refresh-ms:10000}")
+    public synchronized void refresh() {
+        try {
+            Set<String> loaded = new LinkedHashSet<>(configured);
+            fenceMapTypeRepository.findAllNames().stream().sorted().limit(maxRegistered).forEach(loaded::add);
+            mapTypes = Collections.unmodifiableSet(loaded);
+        } catch (DataAccessException e) {
+            log.warn("Registered map types not read :: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.geofencing.push;
+
+import java.io.IOException;
+
+/**
+ * Connection of one subscriber, written to by one sender thread at a time.
+ */
+interface EventSink {
+
+    void send(PushEvent event) throws IOException;
+
+    /**
+     * Ends the connection, the client is expected to reconnect with the id of the last event it got.
+     */
+    void close();
+}
@@ -0,0 +1,339 @@
+package com.project.geofencing.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.event.GeoCoordinatesChangedElsewhereEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent.ChangeType;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.model.FenceChange;
+import com.project.geofencing.model.GeoCoordinates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes the fence changes of a maptype to its subscribers as server-sent events.
+ * <p>
+ * Subscribers hold no thread while idle: every subscriber has a bounded queue and is drained by a small
+ * shared pool of sender threads only while events are queued. A subscriber whose queue overflows is
+ * disconnected, and resumes from the id of the last event it got when it reconnects. The latest events
+ * of every maptype are kept for that replay; a client that missed more gets a resync event and has to
+ * refetch the fences. Bulk writes are pushed as a single resync event too, and so are the changes other
+ * instances made, as only the maptype they changed is known here.
+ */
+@Slf4j
+@Component
+public class FenceChangeBroadcaster {
+
+    private final ObjectMapper objectMapper;
+    private final Executor sender;
+    private final int queueSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+
+    /**
+     * Prefix of the event ids of this process, so ids from before a restart are recognized.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Autowired
+    public FenceChangeBroadcaster(ObjectMapper objectMapper,
+                                  @Value("${geofencing.push.sender-threads:4}") int senderThreads,
+                                  @Value("${geofencing.push.queue-size:256}") int queueSize,
+                                  @Value("${geofencing.push.replay-size:1024}") int replaySize,
+                                  @Value("${geofencing.push.timeout-ms:1800000}") long timeoutMillis) {
+        this(objectMapper, Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "fence-push-sender");
+            thread.setDaemon(true);
+            return thread;
+        }), queueSize, replaySize, timeoutMillis);
+    }
+
+    FenceChangeBroadcaster(ObjectMapper objectMapper, Executor sender, int queueSize, int replaySize,
+                           long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.sender = sender;
+        this.queueSize = queueSize;
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Subscribes to the fence changes of a maptype.
+     *
+     * @param mapType     - pass the maptype of the fences.
+     * @param lastEventId - pass the id of the last event the client got, null for a new subscription.
+     * @return Returns the emitter streaming the events.
+     */
+    public SseEmitter subscribe(String mapType, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = subscribe(mapType, lastEventId, new EmitterSink(emitter));
+        emitter.onCompletion(subscriber::unsubscribe);
+        emitter.onTimeout(subscriber::unsubscribe);
+        emitter.onError(error -> subscriber.unsubscribe());
+        return emitter;
+    }
+
+    Subscriber subscribe(String mapType, String lastEventId, EventSink sink) {
+        Channel channel = channels.computeIfAbsent(mapType, key -> new Channel());
+        Subscriber subscriber = new Subscriber(channel, sink);
+        subscriberCount.incrementAndGet();
+        channel.attach(subscriber, lastEventId);
+        log.debug("Push subscriber added for maptype :: {}, subscribers :: {}", mapType, subscriberCount.get());
+        return subscriber;
+    }
+
+    /**
+     * Returns the number of connected subscribers over all maptypes.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onGeoCoordinatesChanged(GeoCoordinatesChangedEvent event) {
+        Channel channel = channels.get(event.getMapType());
+        if (channel == null) {
+            return;
+        }
+        GeoCoordinates geoCoordinates = event.getGeoCoordinates();
+        boolean deleted = event.getChangeType() == ChangeType.DELETED;
+        FenceChange change = deleted
+                ? new FenceChange(FenceChange.Type.DELETE, geoCoordinates.getId(), geoCoordinates.getMapType(),
+                new Date(), null)
+                : FenceChange.upsert(geoCoordinates);
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            log.error("Fence change not pushed :: {}", event, e);
+            return;
+        }
+        channel.publish(deleted ? PushEvent.DELETE : PushEvent.UPSERT, data);
+    }
+
+    /**
+     * Pushes a single resync event for a bulk write, rather than one upsert per created fence that would
+     * overflow the subscriber queues.
+     */
+    @EventListener
+    public void onGeoCoordinatesImported(GeoCoordinatesImportedEvent event) {
+        Channel channel = channels.get(event.getMapType());
+        if (channel == null) {
+            return;
+        }
+        channel.publish(PushEvent.RESYNC, "{\"mapType\":\"" + event.getMapType() + "\",\"imported\":"
+                + event.getCount() + "}");
+    }
+
+    /**
+     * Pushes a resync event for changes made on another instance, noticed by the change watcher, so the
+     * subscribers of this instance refetch them.
+     */
+    @EventListener
+    public void onGeoCoordinatesChangedElsewhere(GeoCoordinatesChangedElsewhereEvent event) {
+        Channel channel = channels.get(event.getMapType());
+        if (channel == null) {
+            return;
+        }
+        channel.publish(PushEvent.RESYNC, "{\"mapType\":\"" + event.getMapType() + "\",\"changedElsewhere\":true}");
+    }
+
+    /**
+     * Sends a comment to every idle subscriber, so proxies keep the connections open and closed ones
+     * are noticed.
+     */
+    @Scheduled(fixedDelayString = "${geofencing.push.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                if (subscriber.queue.isEmpty()) {
+                    subscriber.offer(PushEvent.HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.close();
+            }
+        }
+        if (sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdown();
+        }
+    }
+
+    /**
+     * Subscribers and latest events of one maptype. Events are numbered and offered to the subscribers
+     * under the channel lock, so every subscriber sees them in order and none is missed on attach.
+     */
+    private final class Channel {
+
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<PushEvent> recent = new ArrayDeque<>();
+        private long sequence;
+
+        synchronized void publish(String name, String data) {
+            PushEvent event = new PushEvent(epoch + "-" + (++sequence), name, data);
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+
+        synchronized void attach(Subscriber subscriber, String lastEventId) {
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                long missed = missedSince(lastEventId);
+                if (missed < 0 || missed > recent.size() || missed > queueSize) {
+                    subscriber.offer(new PushEvent(epoch + "-" + sequence, PushEvent.RESYNC,
+                            "{\"sequence\":" + sequence + "}"));
+                } else {
+                    Iterator<PushEvent> iterator = recent.iterator();
+                    for (long skip = recent.size() - missed; skip > 0; skip--) {
+                        iterator.next();
+                    }
+                    while (iterator.hasNext()) {
+                        subscriber.offer(iterator.next());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the number of events published after the given id, -1 if the id is not one of this
+         * process.
+         */
+        private long missedSince(String lastEventId) {
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+                return -1;
+            }
+            try {
+                long last = Long.parseLong(lastEventId.substring(dash + 1));
+                return last < 0 || last > sequence ? -1 : sequence - last;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * One connected client. At most one sender thread drains its queue at a time.
+     */
+    final class Subscriber {
+
+        private final Channel channel;
+        private final EventSink sink;
+        private final BlockingQueue<PushEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Channel channel, EventSink sink) {
+            this.channel = channel;
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        void offer(PushEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Push subscriber too slow, disconnecting");
+                close();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                PushEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    sink.send(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Push subscriber disconnected :: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed.get() && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe();
+                queue.clear();
+                sink.close();
+            }
+        }
+
+        void unsubscribe() {
+            if (channel.subscribers.remove(this)) {
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class EmitterSink implements EventSink {
+
+        private final SseEmitter emitter;
+
+        private EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(PushEvent event) throws IOException {
+            if (event.isHeartbeat()) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                emitter.send(SseEmitter.event().id(event.getId()).name(event.getName())
+                        .data(event.getData(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
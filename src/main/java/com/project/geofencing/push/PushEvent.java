@@ -0,0 +1,42 @@
+package com.project.geofencing.push;
+
+/**
+ * One server-sent event, with its data already serialized so it is written to every subscriber as is.
+ */
+final class PushEvent {
+
+    static final String UPSERT = "upsert";
+    static final String DELETE = "delete";
+    static final String RESYNC = "resync";
+
+    /**
+     * Comment line that keeps idle connections open through proxies and detects closed ones.
+     */
+    static final PushEvent HEARTBEAT = new PushEvent(null, null, null);
+
+    private final String id;
+    private final String name;
+    private final String data;
+
+    PushEvent(String id, String name, String data) {
+        this.id = id;
+        this.name = name;
+        this.data = data;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getData() {
+        return data;
+    }
+
+    boolean isHeartbeat() {
+        return this == HEARTBEAT;
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.geofencing.repository;
+
+import com.project.geofencing.model.FenceCell;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FenceCellRepository extends JpaRepository<FenceCell, FenceCell.Key> {
+
+    List<FenceCell> findByMapTypeAndLevel(String maptype, int level);
+
+    @Modifying
+    @Query("DELETE FROM FenceCell c WHERE c.fenceId = ?1")
+    int deleteByFenceId(long fenceId);
+}
@@ -0,0 +1,15 @@
+package com.project.geofencing.repository;
+
+import com.project.geofencing.model.FenceMapType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FenceMapTypeRepository extends JpaRepository<FenceMapType, String> {
+
+    @Query("SELECT m.name FROM FenceMapType m")
+    List<String> findAllNames();
+}
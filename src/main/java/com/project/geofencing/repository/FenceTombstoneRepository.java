@@ -0,0 +1,43 @@
+package com.project.geofencing.repository;
+
+import com.project.geofencing.model.FenceTombstone;
+import com.project.geofencing.model.MapTypeWatermark;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface FenceTombstoneRepository extends JpaRepository<FenceTombstone, Long> {
+
+    /**
+     * Fetches the tombstones after the keyset position (deletedAt, fenceId) and before the upper bound,
+     * in feed order.
+     */
+    @Query("SELECT t FROM FenceTombstone t WHERE (t.deletedAt > ?1 OR (t.deletedAt = ?1 AND t.fenceId > ?2)) " +
+            "AND t.deletedAt < ?3 ORDER BY t.deletedAt ASC, t.fenceId ASC")
+    List<FenceTombstone> findDeletedAfter(Date deletedAt, long fenceId, Date before, Pageable pageable);
+
+    @Query("SELECT t FROM FenceTombstone t WHERE t.mapType = ?1 " +
+            "AND (t.deletedAt > ?2 OR (t.deletedAt = ?2 AND t.fenceId > ?3)) " +
+            "AND t.deletedAt < ?4 ORDER BY t.deletedAt ASC, t.fenceId ASC")
+    List<FenceTombstone> findDeletedAfterByMapType(String maptype, Date deletedAt, long fenceId, Date before,
+                                                  Pageable pageable);
+
+    /**
+     * Fetches the latest delete of every maptype, read from the (map_type, deleted_at) index.
+     */
+    @Query("SELECT new com.project.geofencing.model.MapTypeWatermark(t.mapType, MAX(t.deletedAt)) " +
+            "FROM FenceTombstone t GROUP BY t.mapType")
+    List<MapTypeWatermark> findWatermarks();
+
+    long countByMapTypeAndDeletedAtGreaterThan(String maptype, Date deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM FenceTombstone t WHERE t.deletedAt < ?1")
+    int deleteByDeletedAtBefore(Date cutoff);
+}
@@ -1,10 +1,21 @@
 package com.project.geofencing.repository;
 
 import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesSummary;
+import com.project.geofencing.model.MapTypeWatermark;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface GeoCoordinatesRepository extends JpaRepository<GeoCoordinates, Long> {
@@ -16,4 +27,71 @@ public interface GeoCoordinatesRepository extends JpaRepository<GeoCoordinates,
     List<GeoCoordinates> findByMapTypeAndName(String maptype, String name);
 
     List<String> findAllNamesByMapType(String type);
+
+    List<GeoCoordinates> findByMapTypeAndIdGreaterThanOrderByIdAsc(String maptype, long id, Pageable pageable);
+
+    List<GeoCoordinates> findByMapTypeAndUpdatedAtGreaterThanEqual(String maptype, Date updatedAt);
+
+    @Query("SELECT g.id FROM GeoCoordinates g WHERE g.mapType = ?1")
+    List<Long> findIdsByMapType(String maptype);
+
+    /**
+     * Fetches the id, name and bounding box of the rows of a maptype in id order, without the coords
+     * and geometry columns.
+     */
+    @Query("SELECT new com.project.geofencing.model.GeoCoordinatesSummary(g.id, g.name, g.minLat, g.minLng, " +
+            "g.maxLat, g.maxLng) FROM GeoCoordinates g WHERE g.mapType = ?1 ORDER BY g.id")
+    List<GeoCoordinatesSummary> findSummariesByMapType(String maptype);
+
+    /**
+     * Fetches the latest update of every maptype, read from the (map_type, updated_at) index.
+     */
+    @Query("SELECT new com.project.geofencing.model.MapTypeWatermark(g.mapType, MAX(g.updatedAt)) " +
+            "FROM GeoCoordinates g GROUP BY g.mapType")
+    List<MapTypeWatermark> findWatermarks();
+
+    long countByMapTypeAndUpdatedAtGreaterThan(String maptype, Date updatedAt);
+
+    /**
+     * Fetches the rows updated after the keyset position (updatedAt, id) and before the upper bound,
+     * in feed order.
+     */
+    @Query("SELECT g FROM GeoCoordinates g WHERE (g.updatedAt > ?1 OR (g.updatedAt = ?1 AND g.id > ?2)) " +
+            "AND g.updatedAt < ?3 ORDER BY g.updatedAt ASC, g.id ASC")
+    List<GeoCoordinates> findChangedAfter(Date updatedAt, long id, Date before, Pageable pageable);
+
+    @Query("SELECT g FROM GeoCoordinates g WHERE g.mapType = ?1 " +
+            "AND (g.updatedAt > ?2 OR (g.updatedAt = ?2 AND g.id > ?3)) " +
+            "AND g.updatedAt < ?4 ORDER BY g.updatedAt ASC, g.id ASC")
+    List<GeoCoordinates> findChangedAfterByMapType(String maptype, Date updatedAt, long id, Date before,
+                                                   Pageable pageable);
+
+    /**
+     * Fetches the rows whose bounding box intersects the given box, plus the rows without a bounding box
+     * yet, which the caller has to check itself.
+     */
+    @Query("SELECT g FROM GeoCoordinates g WHERE g.mapType = ?1 AND ((g.minLat <= ?4 AND g.maxLat >= ?2 " +
+            "AND g.minLng <= ?5 AND g.maxLng >= ?3) OR g.geometry IS NULL) ORDER BY g.id")
+    List<GeoCoordinates> findIntersectingBounds(String maptype, double minLat, double minLng, double maxLat,
+                                                double maxLng);
+
+    @Query("SELECT g FROM GeoCoordinates g WHERE g.geometry IS NULL AND g.id > ?1 ORDER BY g.id")
+    List<GeoCoordinates> findWithoutGeometry(long id, Pageable pageable);
+
+    /**
+     * Stores the derived geometry of a row that has none yet, without touching updated_at, so the
+     * migration neither shows up in the change feed nor overwrites a concurrent update.
+     */
+    @Modifying
+    @Query("UPDATE GeoCoordinates g SET g.minLat = ?2, g.minLng = ?3, g.maxLat = ?4, g.maxLng = ?5, " +
+            "g.geometry = ?6 WHERE g.id = ?1 AND g.geometry IS NULL")
+    int updateGeometry(long id, Double minLat, Double minLng, Double maxLat, Double maxLng, byte[] geometry);
+
+    /**
+     * Streams the rows of a maptype in fetch size batches; with MySQL this needs useCursorFetch=true
+     * on the connection url, otherwise the driver buffers the whole result.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT g FROM GeoCoordinates g WHERE g.mapType = ?1 ORDER BY g.id")
+    Stream<GeoCoordinates> streamByMapType(String maptype);
 }
@@ -0,0 +1,15 @@
+package com.project.geofencing.service;
+
+import com.project.geofencing.event.FenceTransitionEvent;
+import com.project.geofencing.model.DeviceLocation;
+
+import java.util.List;
+
+public interface DeviceTrackingService {
+
+    List<FenceTransitionEvent> trackDevices(String type, List<DeviceLocation> locations);
+
+    long[] fetchDeviceFenceIds(String type, String deviceId);
+
+    int evictIdleDevices();
+}
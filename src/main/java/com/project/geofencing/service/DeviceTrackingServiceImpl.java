@@ -0,0 +1,148 @@
+package com.project.geofencing.service;
+
+import com.project.geofencing.event.FenceTransitionEvent;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.project.geofencing.model.DeviceLocation;
+import com.project.geofencing.tracking.DeviceState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class DeviceTrackingServiceImpl implements DeviceTrackingService {
+
+    private static final long[] NO_FENCES = new long[0];
+
+    @Autowired
+    private FenceIndexRegistry fenceIndexRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${geofencing.tracking.dwell-ms:300000}")
+    private long dwellMillis;
+
+    @Value("${geofencing.tracking.idle-timeout-ms:1800000}")
+    private long idleTimeoutMillis;
+
+    @Value("${geofencing.tracking.tombstone-ms:60000}")
+    private long tombstoneMillis;
+
+    @Value("${geofencing.tracking.max-devices:500000}")
+    private int maxDevices;
+
+    /**
+     * Device states per maptype, keyed by device id. Only devices inside at least one fence are kept,
+     * and for tombstone-ms the tombstones of devices that left their last fence.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, DeviceState>> states = new ConcurrentHashMap<>();
+
+    private final AtomicInteger deviceCount = new AtomicInteger();
+
+    /**
+     * Applies the location updates in order and returns the fence transitions they cause. The fences
+     * containing all locations are looked up in one batch, then every device state is advanced atomically.
+     * Every transition is also published as a {@link FenceTransitionEvent}.
+     *
+     * @param type      - pass the maptype of the fences to track against.
+     * @param locations - pass the location updates, updates of one device in the order they were taken.
+     * @return Returns the transitions in update order.
+     */
+    @Override
+    public List<FenceTransitionEvent> trackDevices(String type, List<DeviceLocation> locations) {
+        log.debug("Received call at trackDevices");
+        double[] points = new double[locations.size() * 2];
+        for (int i = 0; i < locations.size(); i++) {
+            points[2 * i] = locations.get(i).getLat();
+            points[2 * i + 1] = locations.get(i).getLng();
+        }
+        long[][] containing = fenceIndexRegistry.getIndex(type).findContainingIds(points);
+        ConcurrentMap<String, DeviceState> devices = states.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        List<FenceTransitionEvent> events = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < locations.size(); i++) {
+            DeviceLocation location = locations.get(i);
+            long[] fenceIds = containing[i];
+            Arrays.sort(fenceIds);
+            long timestamp = location.getTimestamp() == null ? now : location.getTimestamp();
+            devices.compute(location.getDeviceId(), (deviceId, previous) -> {
+                if (previous == null && fenceIds.length > 0 && deviceCount.get() >= maxDevices) {
+                    log.warn("Device limit reached, not tracking device :: {}", deviceId);
+                    return null;
+                }
+                DeviceState next = DeviceState.advance(previous, fenceIds, timestamp, now, dwellMillis,
+                        type, deviceId, events);
+                if (previous == null && next != null) {
+                    deviceCount.incrementAndGet();
+                } else if (previous != null && next == null) {
+                    deviceCount.decrementAndGet();
+                }
+                return next;
+            });
+        }
+        for (FenceTransitionEvent event : events) {
+            eventPublisher.publishEvent(event);
+        }
+        log.debug("Tracked {} locations with {} transitions", locations.size(), events.size());
+        return events;
+    }
+
+    /**
+     * Fetches the fences the device was last seen inside.
+     *
+     * @param type     - pass the maptype of the fences.
+     * @param deviceId - pass the id of the device.
+     * @return Returns the sorted fence ids, empty if the device is outside every fence or not tracked.
+     */
+    @Override
+    public long[] fetchDeviceFenceIds(String type, String deviceId) {
+        log.debug("Received call at fetchDeviceFenceIds");
+        ConcurrentMap<String, DeviceState> devices = states.get(type);
+        DeviceState state = devices == null ? null : devices.get(deviceId);
+        return state == null ? NO_FENCES : state.getFenceIds();
+    }
+
+    /**
+     * Drops the state of devices that sent no location for longer than the idle timeout, and the
+     * tombstones older than tombstone-ms. No exit is reported for them, an evicted device that comes back
+     * enters its fences again.
+     *
+     * @return Returns the number of evicted devices.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${geofencing.tracking.eviction-interval-ms:60000}")
+    public int evictIdleDevices() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - idleTimeoutMillis;
+        long tombstoneCutoff = now - tombstoneMillis;
+        int evicted = 0;
+        for (ConcurrentMap<String, DeviceState> devices : states.values()) {
+            for (String deviceId : devices.keySet()) {
+                boolean[] removed = new boolean[1];
+                devices.computeIfPresent(deviceId, (key, state) -> {
+                    removed[0] = state.getLastSeen() < (state.isTombstone() ? tombstoneCutoff : cutoff);
+                    return removed[0] ? null : state;
+                });
+                if (removed[0]) {
+                    deviceCount.decrementAndGet();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle devices, tracking {}", evicted, deviceCount.get());
+        }
+        return evicted;
+    }
+}
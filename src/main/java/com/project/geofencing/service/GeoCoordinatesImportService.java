@@ -0,0 +1,11 @@
+package com.project.geofencing.service;
+
+import com.project.geofencing.model.BulkImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface GeoCoordinatesImportService {
+
+    BulkImportReport importGeoCords(InputStream ndjson) throws IOException;
+}
@@ -0,0 +1,192 @@
+package com.project.geofencing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.cache.MapTypeVersions;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.geometry.RingChecks;
+import com.project.geofencing.index.FenceCellStore;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.model.BulkImportReport;
+import com.project.geofencing.model.BulkImportReport.ChunkReport;
+import com.project.geofencing.model.BulkImportReport.Failure;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.validaton.CoordsError;
+import com.project.geofencing.validaton.CoordsValidator;
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Service
+public class GeoCoordinatesImportServiceImpl implements GeoCoordinatesImportService {
+
+    @Autowired
+    private GeoCoordinatesValidation geoCoordinatesValidation;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FenceCellStore fenceCellStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MapTypeVersions mapTypeVersions;
+
+    @Autowired
+    private FenceMetrics fenceMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${geofencing.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${geofencing.bulk.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public GeoCoordinatesImportServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports newline delimited json geo coordinates chunk by chunk. Every chunk is validated in
+     * parallel and its valid rows are inserted with jdbc batching in their own transaction, so a
+     * failing chunk does not roll back the chunks committed before it.
+     *
+     * @param ndjson - pass the stream with one geo coordinates json object per line.
+     * @return Returns the report with the accepted count and failures of every chunk.
+     * @throws IOException - If the stream cannot be read.
+     */
+    @Override
+    public BulkImportReport importGeoCords(InputStream ndjson) throws IOException {
+        log.debug("Received call at importGeoCords");
+        BulkImportReport report = new BulkImportReport();
+        List<GeoCoordinates> chunk = new ArrayList<>(chunkSize);
+        List<Long> lines = new ArrayList<>(chunkSize);
+        try (MappingIterator<GeoCoordinates> iterator =
+                     objectMapper.readerFor(GeoCoordinates.class).readValues(ndjson)) {
+            while (iterator.hasNextValue()) {
+                lines.add((long) iterator.getParser().getTokenLocation().getLineNr());
+                chunk.add(iterator.nextValue());
+                if (chunk.size() == chunkSize) {
+                    report.addChunk(importChunk(report.getChunks().size(), lines, chunk));
+                    chunk.clear();
+                    lines.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            long line = e.getLocation() != null ? e.getLocation().getLineNr() : -1;
+            if (chunk.size() < lines.size()) {
+                lines.remove(lines.size() - 1);
+            }
+            ChunkReport chunkReport = chunk.isEmpty() ? new ChunkReport(report.getChunks().size(), line)
+                    : importChunk(report.getChunks().size(), lines, chunk);
+            chunkReport.getFailures().add(new Failure(line, "Import stopped, invalid json :: "
+                    + e.getOriginalMessage()));
+            report.addChunk(chunkReport);
+            return report;
+        }
+        if (!chunk.isEmpty()) {
+            report.addChunk(importChunk(report.getChunks().size(), lines, chunk));
+        }
+        log.debug("Geo Co-Ordinates imported :: {} rejected :: {}", report.getAccepted(), report.getRejected());
+        return report;
+    }
+
+    /**
+     * Imports one chunk.
+     *
+     * @param lines - pass the ndjson line every geo coordinates of the chunk starts on, blank lines
+     *              and objects spread over several lines included in the count.
+     */
+    private ChunkReport importChunk(int index, List<Long> lines, List<GeoCoordinates> chunk) {
+        ChunkReport chunkReport = new ChunkReport(index, lines.get(0));
+        String[] errors = new String[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> errors[i] = validate(chunk.get(i)));
+
+        List<GeoCoordinates> valid = new ArrayList<>(chunk.size());
+        List<Long> validLines = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (errors[i] == null) {
+                GeoCoordinates geoCoordinates = chunk.get(i);
+                geoCoordinates.setId(0);
+                valid.add(geoCoordinates);
+                validLines.add(lines.get(i));
+            } else {
+                chunkReport.getFailures().add(new Failure(lines.get(i), errors[i]));
+            }
+        }
+        if (valid.isEmpty()) {
+            return chunkReport;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                for (GeoCoordinates geoCoordinates : valid) {
+                    entityManager.persist(geoCoordinates);
+                    fenceCellStore.addCells(geoCoordinates);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Geo Co-Ordinates chunk {} rolled back", index, e);
+            for (Long validLine : validLines) {
+                chunkReport.getFailures().add(new Failure(validLine, "Chunk rolled back :: " + e.getMessage()));
+            }
+            return chunkReport;
+        }
+        chunkReport.setAccepted(valid.size());
+        valid.stream().collect(Collectors.groupingBy(GeoCoordinates::getMapType, LinkedHashMap::new,
+                Collectors.counting())).forEach((mapType, count) -> {
+            eventPublisher.publishEvent(new GeoCoordinatesImportedEvent(mapType, count.intValue()));
+            mapTypeVersions.bump(mapType);
+        });
+        log.debug("Geo Co-Ordinates chunk {} imported with {} rows", index, valid.size());
+        return chunkReport;
+    }
+
+    private String validate(GeoCoordinates geoCoordinates) {
+        if (geoCoordinates.getName() == null) {
+            return "Name is not passed";
+        }
+        try {
+            geoCoordinatesValidation.validateMapType(geoCoordinates.getMapType());
+        } catch (ResourceNotFoundException e) {
+            return e.getMessage();
+        }
+        CoordsError error = CoordsValidator.validateRing(geoCoordinates.getCoords());
+        if (error != null) {
+            fenceMetrics.validationFailed(error.getCode().name());
+            return "Invaild co ordinates :: " + error;
+        }
+        geoCoordinates.setCoords(RingChecks.normalizeWinding(geoCoordinates.getCoords()));
+        return null;
+    }
+}
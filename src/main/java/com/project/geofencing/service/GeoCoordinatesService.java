@@ -1,9 +1,16 @@
 package com.project.geofencing.service;
 
+import com.project.geofencing.exception.ChangesExpiredException;
 import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.model.ChangeCursor;
+import com.project.geofencing.model.FenceChangePage;
+import com.project.geofencing.model.FenceDistance;
 import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import com.project.geofencing.model.GeoCoordinatesSummary;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface GeoCoordinatesService {
 
@@ -13,12 +20,31 @@ public interface GeoCoordinatesService {
 
     List<GeoCoordinates> fetchAllGeoCords(String type) throws ResourceNotFoundException;
 
+    GeoCoordinatesPage fetchGeoCordsPage(String type, long after, int size);
+
+    void streamGeoCords(String type, Consumer<GeoCoordinates> consumer);
+
     GeoCoordinates fetchGeoCordsById(String type, Long id) throws ResourceNotFoundException;
 
     List<GeoCoordinates> fetchGeoCordsByName(String type, String name) throws ResourceNotFoundException;
 
     List<String> fetchGeoCordsAllNames(String type) throws ResourceNotFoundException;
 
+    List<GeoCoordinatesSummary> fetchGeoCordsSummaries(String type);
+
+    List<GeoCoordinates> fetchGeoCordsContaining(String type, double lat, double lng);
+
+    long[][] fetchGeoCordIdsContaining(String type, double[] points);
+
+    List<FenceDistance> fetchGeoCordsNearest(String type, double lat, double lng, int k);
+
+    List<FenceDistance> fetchGeoCordsWithin(String type, double lat, double lng, double radius, int limit);
+
+    List<GeoCoordinates> fetchGeoCordsIntersecting(String type, double minLat, double minLng, double maxLat,
+                                                   double maxLng);
+
+    FenceChangePage fetchGeoCordsChanges(String type, ChangeCursor from, int size) throws ChangesExpiredException;
+
     GeoCoordinates removeGeoCords(Long id) throws Exception;
 
     GeoCoordinates alterGeoCords(Long id, GeoCoordinates geoCoordinates) throws ResourceNotFoundException;
@@ -1,14 +1,47 @@
 package com.project.geofencing.service;
 
+import com.project.geofencing.cache.MapTypeVersions;
+import com.project.geofencing.config.CacheConfig;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent.ChangeType;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.exception.ChangesExpiredException;
+import com.project.geofencing.index.FenceCellStore;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.geometry.RingChecks;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.repository.FenceTombstoneRepository;
 import com.project.geofencing.repository.GeoCoordinatesRepository;
 import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.model.ChangeCursor;
+import com.project.geofencing.model.FenceChangePage;
+import com.project.geofencing.model.FenceDistance;
+import com.project.geofencing.model.FenceTombstone;
 import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import com.project.geofencing.model.GeoCoordinatesSummary;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -20,6 +53,44 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
     @Autowired
     private GeoCoordinatesRepository geoCoordinatesRepository;
 
+    @Autowired
+    private FenceTombstoneRepository fenceTombstoneRepository;
+
+    @Autowired
+    private FenceIndexRegistry fenceIndexRegistry;
+
+    @Autowired
+    private FenceCellStore fenceCellStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MapTypeVersions mapTypeVersions;
+
+    @Autowired
+    private FenceMetrics fenceMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Changes younger than this are held back from the feed, so rows of transactions still in flight,
+     * whose timestamps were taken before they commit, are not skipped by a cursor moving past them.
+     */
+    @Value("${geofencing.changes.settle-ms:2000}")
+    private long changesSettleMillis;
+
+    @Value("${geofencing.changes.tombstone-retention-ms:604800000}")
+    private long tombstoneRetentionMillis;
+
+    @Autowired
+    public GeoCoordinatesServiceImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Saves the Geo coordinates in the db.
      *
@@ -29,7 +100,15 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
     @Override
     public GeoCoordinates saveGeoCords(GeoCoordinates geoCoordinates) {
         log.debug("Received call at saveGeoCords");
-        return geoCoordinatesRepository.save(geoCoordinates);
+        normalizeWinding(geoCoordinates);
+        GeoCoordinates saved = transactionTemplate.execute(status -> {
+            GeoCoordinates geoCoordinates1 = geoCoordinatesRepository.save(geoCoordinates);
+            fenceCellStore.addCells(geoCoordinates1);
+            return geoCoordinates1;
+        });
+        eventPublisher.publishEvent(new GeoCoordinatesChangedEvent(ChangeType.CREATED, saved));
+        mapTypeVersions.bump(saved.getMapType());
+        return saved;
     }
 
     /**
@@ -41,7 +120,18 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
     @Override
     public List<GeoCoordinates> saveAllGeoCords(List<GeoCoordinates> geoCords) {
         log.debug("Received call at saveAllGeoCords");
-        return geoCoordinatesRepository.saveAll(geoCords);
+        geoCords.forEach(this::normalizeWinding);
+        List<GeoCoordinates> saved = transactionTemplate.execute(status -> {
+            List<GeoCoordinates> geoCords1 = geoCoordinatesRepository.saveAll(geoCords);
+            geoCords1.forEach(fenceCellStore::addCells);
+            return geoCords1;
+        });
+        saved.stream().collect(Collectors.groupingBy(GeoCoordinates::getMapType, LinkedHashMap::new,
+                Collectors.counting())).forEach((mapType, count) -> {
+            eventPublisher.publishEvent(new GeoCoordinatesImportedEvent(mapType, count.intValue()));
+            mapTypeVersions.bump(mapType);
+        });
+        return saved;
     }
 
     /**
@@ -52,6 +142,8 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
      * @throws ResourceNotFoundException - If not found throws exception.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.GEO_CORDS_BY_MAP_TYPE, key = "#type")
+    @Transactional(readOnly = true)
     public List<GeoCoordinates> fetchAllGeoCords(String type) throws ResourceNotFoundException {
         log.debug("Received call at fetchAllGeoCords");
         List<GeoCoordinates> geoCoordinatesList = geoCoordinatesRepository.findByMapType(type);
@@ -63,6 +155,48 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
         return geoCoordinatesList;
     }
 
+    /**
+     * Fetches one page of geo coordinates ordered by id, starting after the given cursor.
+     *
+     * @param type  - pass the maptype from which it should fetch the coordinates.
+     * @param after - pass the cursor returned with the previous page, 0 for the first page.
+     * @param size  - pass the maximum number of coordinates in the page.
+     * @return Returns the page with the cursor of the next one.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public GeoCoordinatesPage fetchGeoCordsPage(String type, long after, int size) {
+        log.debug("Received call at fetchGeoCordsPage");
+        List<GeoCoordinates> geoCoordinatesList = geoCoordinatesRepository
+                .findByMapTypeAndIdGreaterThanOrderByIdAsc(type, after, PageRequest.of(0, size + 1));
+        Long nextCursor = null;
+        if (geoCoordinatesList.size() > size) {
+            geoCoordinatesList = geoCoordinatesList.subList(0, size);
+            nextCursor = geoCoordinatesList.get(size - 1).getId();
+        }
+        fenceMetrics.recordResults("page", type, geoCoordinatesList.size());
+        return new GeoCoordinatesPage(geoCoordinatesList, nextCursor);
+    }
+
+    /**
+     * Streams all the geo coordinates of the maptype to the consumer, detaching each one once consumed
+     * so the persistence context does not grow with the result.
+     *
+     * @param type     - pass the maptype from which it should fetch the coordinates.
+     * @param consumer - pass the consumer receiving the coordinates in id order.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamGeoCords(String type, Consumer<GeoCoordinates> consumer) {
+        log.debug("Received call at streamGeoCords");
+        try (Stream<GeoCoordinates> stream = geoCoordinatesRepository.streamByMapType(type)) {
+            stream.forEach(geoCoordinates -> {
+                consumer.accept(geoCoordinates);
+                entityManager.detach(geoCoordinates);
+            });
+        }
+    }
+
     /**
      * Fetches the geo coordinates for given maptype and id.
      *
@@ -72,14 +206,16 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
      * @throws ResourceNotFoundException - If not found throws exception.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.GEO_CORDS_BY_ID, key = "#type + ':' + #id")
+    @Transactional(readOnly = true)
     public GeoCoordinates fetchGeoCordsById(String type, Long id) throws ResourceNotFoundException {
         log.debug("Received call at fetchGeoCordsById");
         GeoCoordinates geoCoordinates = geoCoordinatesRepository.findByMapTypeAndId(type, id);
         if (null == geoCoordinates) {
-            log.error("Geo Co-Ordinates not found on :: " + id);
+            log.error("Geo Co-Ordinates not found on :: {}", id);
             throw new ResourceNotFoundException("Geo Co-Ordinates not found on :: " + id);
         }
-        log.debug("Geo Co-Ordinates fetched successfully with id :: " + id);
+        log.debug("Geo Co-Ordinates fetched successfully with id :: {}", id);
         return geoCoordinates;
     }
 
@@ -92,14 +228,16 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
      * @throws ResourceNotFoundException - If not found throws exception.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.GEO_CORDS_BY_NAME, key = "#type + ':' + #name")
+    @Transactional(readOnly = true)
     public List<GeoCoordinates> fetchGeoCordsByName(String type, String name) throws ResourceNotFoundException {
         log.debug("Received call at fetchGeoCordsByName");
         List<GeoCoordinates> geoCoordinatesList = geoCoordinatesRepository.findByMapTypeAndName(type, name);
         if (null == geoCoordinatesList || geoCoordinatesList.size() == 0) {
-            log.error("Geo Co-Ordinates not found with :: " + name);
+            log.error("Geo Co-Ordinates not found with :: {}", name);
             throw new ResourceNotFoundException("Geo Co-Ordinates not found with :: " + name);
         }
-        log.debug("Geo Co-Ordinates fetched successfully with name ::" + name);
+        log.debug("Geo Co-Ordinates fetched successfully with name ::{}", name);
         return geoCoordinatesList;
     }
 
@@ -111,17 +249,183 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
      * @throws ResourceNotFoundException - If not found throws exception.
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.GEO_CORDS_NAMES, key = "#type")
+    @Transactional(readOnly = true)
     public List<String> fetchGeoCordsAllNames(String type) throws ResourceNotFoundException {
         log.debug("Received call at saveAllGeoCords");
         List<String> geStrings = geoCoordinatesRepository.findAllNamesByMapType(type);
         if (null == geStrings || geStrings.size() == 0) {
-            log.error("No GeoFence available for maptype  :: " + type);
+            log.error("No GeoFence available for maptype  :: {}", type);
             throw new ResourceNotFoundException("No GeoFence available for maptype  :: " + type);
         }
-        log.debug("Geo Co-Ordinates fetched successfully for maptype ::" + type);
+        log.debug("Geo Co-Ordinates fetched successfully for maptype ::{}", type);
         return geStrings;
     }
 
+    /**
+     * Fetches the id, name and bounding box of every geo coordinates of the given maptype, without
+     * loading their coords.
+     *
+     * @param type - pass the maptype from which it should fetch the summaries.
+     * @return Returns the summaries ordered by id, empty if the maptype has no geo coordinates.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<GeoCoordinatesSummary> fetchGeoCordsSummaries(String type) {
+        log.debug("Received call at fetchGeoCordsSummaries");
+        List<GeoCoordinatesSummary> summaries = geoCoordinatesRepository.findSummariesByMapType(type);
+        fenceMetrics.recordResults("summaries", type, summaries.size());
+        return summaries;
+    }
+
+    /**
+     * Fetches the geo coordinates of the given maptype whose polygon contains the given point.
+     *
+     * @param type - pass the maptype from which it should fetch the coordinates.
+     * @param lat  - pass the latitude of the point.
+     * @param lng  - pass the longitude of the point.
+     * @return Returns the containing geo coordinates, empty if the point is outside every fence.
+     */
+    @Override
+    public List<GeoCoordinates> fetchGeoCordsContaining(String type, double lat, double lng) {
+        log.debug("Received call at fetchGeoCordsContaining");
+        List<GeoCoordinates> geoCords = fenceIndexRegistry.getIndex(type).findContaining(lat, lng);
+        fenceMetrics.recordResults("contains", type, geoCords.size());
+        return geoCords;
+    }
+
+    /**
+     * Fetches the ids of the geo coordinates of the given maptype containing each of the given points.
+     *
+     * @param type   - pass the maptype from which it should fetch the coordinates.
+     * @param points - pass the points as consecutive lat,lng pairs.
+     * @return Returns one array of geo coordinates ids per point.
+     */
+    @Override
+    public long[][] fetchGeoCordIdsContaining(String type, double[] points) {
+        log.debug("Received call at fetchGeoCordIdsContaining");
+        long[][] ids = fenceIndexRegistry.getIndex(type).findContainingIds(points);
+        int found = 0;
+        for (long[] pointIds : ids) {
+            found += pointIds.length;
+        }
+        fenceMetrics.recordResults("contains.batch", type, found);
+        return ids;
+    }
+
+    /**
+     * Fetches the k geo coordinates of the given maptype nearest to the given point.
+     *
+     * @param type - pass the maptype from which it should fetch the coordinates.
+     * @param lat  - pass the latitude of the point.
+     * @param lng  - pass the longitude of the point.
+     * @param k    - pass the maximum number of geo coordinates to fetch.
+     * @return Returns the nearest geo coordinates with their distance in meters, nearest first.
+     */
+    @Override
+    public List<FenceDistance> fetchGeoCordsNearest(String type, double lat, double lng, int k) {
+        log.debug("Received call at fetchGeoCordsNearest");
+        List<FenceDistance> nearest = fenceIndexRegistry.getIndex(type).findNearest(lat, lng, k);
+        fenceMetrics.recordResults("nearest", type, nearest.size());
+        return nearest;
+    }
+
+    /**
+     * Fetches the nearest geo coordinates of the given maptype within the given radius of the point.
+     *
+     * @param type   - pass the maptype from which it should fetch the coordinates.
+     * @param lat    - pass the latitude of the point.
+     * @param lng    - pass the longitude of the point.
+     * @param radius - pass the radius in meters.
+     * @param limit  - pass the maximum number of geo coordinates to fetch.
+     * @return Returns the geo coordinates with their distance in meters, nearest first.
+     */
+    @Override
+    public List<FenceDistance> fetchGeoCordsWithin(String type, double lat, double lng, double radius, int limit) {
+        log.debug("Received call at fetchGeoCordsWithin");
+        List<FenceDistance> within = fenceIndexRegistry.getIndex(type).findWithin(lat, lng, radius, limit);
+        fenceMetrics.recordResults("within", type, within.size());
+        return within;
+    }
+
+    /**
+     * Fetches the geo coordinates of the given maptype whose bounding box intersects the given box. The
+     * rows are prefiltered by their bounding box columns in sql, so only the matching ones are loaded.
+     *
+     * @param type   - pass the maptype from which it should fetch the coordinates.
+     * @param minLat - pass the southern latitude of the box.
+     * @param minLng - pass the western longitude of the box.
+     * @param maxLat - pass the northern latitude of the box.
+     * @param maxLng - pass the eastern longitude of the box.
+     * @return Returns the geo coordinates intersecting the box, ordered by id.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<GeoCoordinates> fetchGeoCordsIntersecting(String type, double minLat, double minLng, double maxLat,
+                                                          double maxLng) {
+        log.debug("Received call at fetchGeoCordsIntersecting");
+        List<GeoCoordinates> geoCords = new ArrayList<>();
+        for (GeoCoordinates geoCoordinates : geoCoordinatesRepository.findIntersectingBounds(type, minLat, minLng,
+                maxLat, maxLng)) {
+            // rows not migrated yet have no bounding box columns and are checked here
+            Polygon polygon = geoCoordinates.getPolygon();
+            if (geoCoordinates.getGeometry() != null || (polygon != null && polygon.getMinLat() <= maxLat
+                    && polygon.getMaxLat() >= minLat && polygon.getMinLng() <= maxLng
+                    && polygon.getMaxLng() >= minLng)) {
+                geoCords.add(geoCoordinates);
+            }
+        }
+        fenceMetrics.recordResults("bbox", type, geoCords.size());
+        return geoCords;
+    }
+
+    /**
+     * Fetches the fences created, updated or deleted after the given feed position, oldest first.
+     *
+     * @param type - pass the maptype of the changes, null for the changes of all maptypes.
+     * @param from - pass the position to continue from.
+     * @param size - pass the maximum number of changes in the page.
+     * @return Returns the page of changes with the cursor to continue from.
+     * @throws ChangesExpiredException - If the position is older than the retained tombstones.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FenceChangePage fetchGeoCordsChanges(String type, ChangeCursor from, int size)
+            throws ChangesExpiredException {
+        log.debug("Received call at fetchGeoCordsChanges");
+        long now = System.currentTimeMillis();
+        if (from.getTimestamp() > 0 && from.getTimestamp() < now - tombstoneRetentionMillis) {
+            log.error("Change feed position expired :: {}", from);
+            throw new ChangesExpiredException("Change feed position expired :: " + from
+                    + " :: Refetch all geo coordinates and start a new feed");
+        }
+        Date after = new Date(from.getTimestamp());
+        Date before = new Date(now - changesSettleMillis);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<GeoCoordinates> upserts = type == null
+                ? geoCoordinatesRepository.findChangedAfter(after, from.getId(), before, page)
+                : geoCoordinatesRepository.findChangedAfterByMapType(type, after, from.getId(), before, page);
+        List<FenceTombstone> deletes = type == null
+                ? fenceTombstoneRepository.findDeletedAfter(after, from.getDeletedIdBound(), before, page)
+                : fenceTombstoneRepository.findDeletedAfterByMapType(type, after, from.getDeletedIdBound(), before, page);
+        return FenceChangePage.merge(upserts, deletes, from, size);
+    }
+
+    /**
+     * Purges the tombstones older than the retention of the change feed.
+     *
+     * @return Returns the number of purged tombstones.
+     */
+    @Scheduled(fixedDelayString = "${geofencing.changes.purge-interval-ms:3600000}")
+    public int purgeTombstones() {
+        Date cutoff = new Date(System.currentTimeMillis() - tombstoneRetentionMillis);
+        Integer purged = transactionTemplate.execute(status -> fenceTombstoneRepository.deleteByDeletedAtBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} tombstones older than :: {}", purged, cutoff);
+        }
+        return purged == null ? 0 : purged;
+    }
+
     /**
      * Deletes the geo coordinates names for given  id.
      *
@@ -132,9 +436,19 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
     @Override
     public GeoCoordinates removeGeoCords(Long id) throws Exception {
         log.debug("Received call at removeGeoCords");
-        return geoCoordinatesRepository
+        GeoCoordinates geoCoordinates = geoCoordinatesRepository
                 .findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Geo Co-Ordinates not found on :: " + id));
+        transactionTemplate.execute(status -> {
+            fenceCellStore.deleteCells(geoCoordinates.getId());
+            geoCoordinatesRepository.delete(geoCoordinates);
+            fenceTombstoneRepository.save(new FenceTombstone(geoCoordinates.getId(), geoCoordinates.getMapType(),
+                    new Date()));
+            return null;
+        });
+        eventPublisher.publishEvent(new GeoCoordinatesChangedEvent(ChangeType.DELETED, geoCoordinates));
+        mapTypeVersions.bump(geoCoordinates.getMapType());
+        return geoCoordinates;
     }
 
     /**
@@ -153,10 +467,27 @@ public class GeoCoordinatesServiceImpl implements GeoCoordinatesService {
                 .orElseThrow(() -> new ResourceNotFoundException("Geo Co-Ordinates not found on :: " + id));
 
         geoCoordinates1.setCoords(geoCoordinates.getCoords());
+        normalizeWinding(geoCoordinates1);
         geoCoordinates1.setUpdatedBy(geoCoordinates.getUpdatedBy());
         geoCoordinates1.setUpdatedAt(new Date());
-        log.debug("Geo Co-Ordinates deleted successfully with id :: " + id);
-        return geoCoordinatesRepository.save(geoCoordinates1);
+        log.debug("Geo Co-Ordinates deleted successfully with id :: {}", id);
+        GeoCoordinates saved = transactionTemplate.execute(status -> {
+            GeoCoordinates geoCoordinates2 = geoCoordinatesRepository.save(geoCoordinates1);
+            fenceCellStore.replaceCells(geoCoordinates2);
+            return geoCoordinates2;
+        });
+        eventPublisher.publishEvent(new GeoCoordinatesChangedEvent(ChangeType.UPDATED, saved));
+        mapTypeVersions.bump(saved.getMapType());
+        return saved;
     }
 
+    /**
+     * Stores the outer rings of the geo coordinates counter clockwise and the holes clockwise, so every saved
+     * fence has the same winding.
+     *
+     * @param geoCoordinates - pass the validated geo coordinates.
+     */
+    private void normalizeWinding(GeoCoordinates geoCoordinates) {
+        geoCoordinates.setCoords(RingChecks.normalizeWinding(geoCoordinates.getCoords()));
+    }
 }
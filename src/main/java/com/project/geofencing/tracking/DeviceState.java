@@ -0,0 +1,124 @@
+package com.project.geofencing.tracking;
+
+import com.project.geofencing.event.FenceTransitionEvent;
+import com.project.geofencing.event.FenceTransitionEvent.TransitionType;
+
+import java.util.List;
+
+/**
+ * Immutable last known state of one tracked device: the sorted ids of the fences it is inside,
+ * when it entered each of them and whether its dwell was already reported.
+ * <p>
+ * A device outside every fence has no state at all, so only devices inside a fence take memory. A device
+ * that just left its last fence keeps a tombstone without fences for a short while, so an older update
+ * that arrives late is still recognized as older and does not enter the fences again.
+ */
+public final class DeviceState {
+
+    private static final long[] NO_FENCES = new long[0];
+    private static final boolean[] NO_DWELLED = new boolean[0];
+
+    private final long[] fenceIds;
+    private final long[] enteredAt;
+    private final boolean[] dwelled;
+    private final long timestamp;
+    private final long lastSeen;
+
+    private DeviceState(long[] fenceIds, long[] enteredAt, boolean[] dwelled, long timestamp, long lastSeen) {
+        this.fenceIds = fenceIds;
+        this.enteredAt = enteredAt;
+        this.dwelled = dwelled;
+        this.timestamp = timestamp;
+        this.lastSeen = lastSeen;
+    }
+
+    /**
+     * Applies a location update to the state of a device and collects the transitions it causes.
+     *
+     * @param previous    - pass the current state or tombstone of the device, null if it has none.
+     * @param containing  - pass the sorted ids of the fences containing the new location.
+     * @param timestamp   - pass the epoch millis the location was taken at.
+     * @param now         - pass the current epoch millis, used for idle eviction.
+     * @param dwellMillis - pass how long a device must stay inside a fence before a dwell is reported.
+     * @param mapType     - pass the maptype of the fences.
+     * @param deviceId    - pass the id of the device.
+     * @param events      - pass the list the transitions are added to.
+     * @return Returns the new state, a tombstone if the device is outside every fence after being inside
+     * one, null if it was outside before too. An update older than the current state or tombstone is
+     * ignored and the current state is returned. A tombstone keeps the time it was received at, so it
+     * expires after it was created however often the device reports from outside.
+     */
+    public static DeviceState advance(DeviceState previous, long[] containing, long timestamp, long now,
+                                      long dwellMillis, String mapType, String deviceId,
+                                      List<FenceTransitionEvent> events) {
+        if (previous != null && timestamp < previous.timestamp) {
+            return previous;
+        }
+        long[] oldIds = previous == null ? NO_FENCES : previous.fenceIds;
+        int n = containing.length;
+        long[] enteredAt = new long[n];
+        boolean[] dwelled = new boolean[n];
+        int i = 0;
+        int j = 0;
+        while (i < oldIds.length || j < n) {
+            if (j == n || (i < oldIds.length && oldIds[i] < containing[j])) {
+                events.add(new FenceTransitionEvent(TransitionType.EXIT, mapType, deviceId, oldIds[i], timestamp));
+                i++;
+            } else if (i == oldIds.length || containing[j] < oldIds[i]) {
+                events.add(new FenceTransitionEvent(TransitionType.ENTER, mapType, deviceId, containing[j],
+                        timestamp));
+                enteredAt[j] = timestamp;
+                j++;
+            } else {
+                enteredAt[j] = previous.enteredAt[i];
+                dwelled[j] = previous.dwelled[i];
+                i++;
+                j++;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            if (!dwelled[k] && timestamp - enteredAt[k] >= dwellMillis) {
+                events.add(new FenceTransitionEvent(TransitionType.DWELL, mapType, deviceId, containing[k],
+                        timestamp));
+                dwelled[k] = true;
+            }
+        }
+        if (n > 0) {
+            return new DeviceState(containing, enteredAt, dwelled, timestamp, now);
+        }
+        if (previous == null) {
+            return null;
+        }
+        return new DeviceState(NO_FENCES, NO_FENCES, NO_DWELLED, timestamp,
+                previous.isTombstone() ? previous.lastSeen : now);
+    }
+
+    /**
+     * Returns true if the device is outside every fence, the state only remembers its last timestamp.
+     */
+    public boolean isTombstone() {
+        return fenceIds.length == 0;
+    }
+
+    /**
+     * Returns the sorted ids of the fences the device is inside.
+     */
+    public long[] getFenceIds() {
+        return fenceIds.clone();
+    }
+
+    /**
+     * Returns the epoch millis of the last applied location.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the epoch millis the last location was received at, for a tombstone the time the device
+     * left its last fence.
+     */
+    public long getLastSeen() {
+        return lastSeen;
+    }
+}
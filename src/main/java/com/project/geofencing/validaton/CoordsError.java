@@ -0,0 +1,59 @@
+package com.project.geofencing.validaton;
+
+/**
+ * First problem found in a coords text, with the character position it was found at.
+ */
+public class CoordsError {
+
+    public enum Code {
+        EMPTY(true),
+        INVALID_CHARACTER(true),
+        MALFORMED_NUMBER(true),
+        LATITUDE_OUT_OF_RANGE(true),
+        LONGITUDE_OUT_OF_RANGE(true),
+        UNEXPECTED_SEPARATOR(false),
+        MISSING_LONGITUDE(false),
+        TOO_FEW_VERTICES(false),
+        RING_NOT_CLOSED(false),
+        SELF_INTERSECTION(false);
+
+        private final boolean format;
+
+        Code(boolean format) {
+            this.format = format;
+        }
+
+        /**
+         * Returns true for errors in the characters or numbers themselves, false for errors in
+         * how the numbers are put together into a polygon.
+         */
+        public boolean isFormat() {
+            return format;
+        }
+    }
+
+    private final Code code;
+    private final int position;
+
+    public CoordsError(Code code, int position) {
+        this.code = code;
+        this.position = position;
+    }
+
+    public Code getCode() {
+        return code;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public boolean isFormatError() {
+        return code.isFormat();
+    }
+
+    @Override
+    public String toString() {
+        return code + " at position :: " + position;
+    }
+}
@@ -0,0 +1,207 @@
+package com.project.geofencing.validaton;
+
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.geometry.RingChecks;
+
+/**
+ * Single pass, allocation free validator for {@code lat,lng;lat,lng;...} coords, one or more rings
+ * separated by '/'.
+ * <p>
+ * The text is scanned once: every character is checked against the allowed set, numbers are
+ * checked to be well formed and inside the latitude or longitude range, and the separators are
+ * checked to alternate between ',' and ';', a ring ending after a longitude. The first and last
+ * vertex of every ring are compared to make sure it is closed. Nothing is allocated unless an error
+ * is returned.
+ * <p>
+ * {@link #validateRing(CharSequence)} additionally parses well formed coords and rejects rings
+ * that cross themselves or each other.
+ */
+public final class CoordsValidator {
+
+    /**
+     * A closed triangle, the first vertex repeated at the end, for every ring.
+     */
+    public static final int MIN_VERTICES = 4;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+    private CoordsValidator() {
+    }
+
+    /**
+     * Validates the given coords.
+     *
+     * @param coords - pass the coords text.
+     * @return Returns null if the coords form closed rings, otherwise the first format error or,
+     * if there is none, the first polygon error.
+     */
+    public static CoordsError validate(CharSequence coords) {
+        if (coords == null || coords.length() == 0) {
+            return new CoordsError(CoordsError.Code.EMPTY, 0);
+        }
+        int length = coords.length();
+        int position = 0;
+        int tokens = 0;
+        int separatorError = -1;
+        double lat = 0;
+        double firstLat = 0;
+        double firstLng = 0;
+        double lastLat = 0;
+        double lastLng = 0;
+        int ringVertices = 0;
+        CoordsError.Code ringError = null;
+        int ringErrorPosition = 0;
+        while (position < length) {
+            int start = position;
+            boolean negative = coords.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean fraction = false;
+            boolean anyDigit = false;
+            char c = 0;
+            for (; position < length; position++) {
+                c = coords.charAt(position);
+                if (c >= '0' && c <= '9') {
+                    anyDigit = true;
+                    if (digits < MAX_SIGNIFICANT_DIGITS) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        if (fraction) {
+                            scale--;
+                        }
+                    } else if (!fraction) {
+                        scale++;
+                    }
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (position < length && c != ',' && c != ';' && (c != '/' || tokens % 2 == 0)) {
+                boolean allowed = c == '.' || c == '-';
+                return new CoordsError(allowed ? CoordsError.Code.MALFORMED_NUMBER
+                        : CoordsError.Code.INVALID_CHARACTER, position);
+            }
+            if (!anyDigit) {
+                return new CoordsError(CoordsError.Code.MALFORMED_NUMBER, start);
+            }
+            double value = scale < 0 ? mantissa / pow10(-scale)
+                    : scale == 0 ? mantissa : mantissa * pow10(scale);
+            if (negative) {
+                value = -value;
+            }
+            boolean latitude = tokens % 2 == 0;
+            if (latitude) {
+                if (value < -90 || value > 90) {
+                    return new CoordsError(CoordsError.Code.LATITUDE_OUT_OF_RANGE, start);
+                }
+                lat = value;
+            } else {
+                if (value < -180 || value > 180) {
+                    return new CoordsError(CoordsError.Code.LONGITUDE_OUT_OF_RANGE, start);
+                }
+                if (ringVertices == 0) {
+                    firstLat = lat;
+                    firstLng = value;
+                }
+                lastLat = lat;
+                lastLng = value;
+                ringVertices++;
+            }
+            tokens++;
+            if (position < length) {
+                if (separatorError < 0 && c != (latitude ? ',' : ';') && c != '/') {
+                    separatorError = position;
+                }
+                if (c == ';' && !latitude && position + 1 < length && coords.charAt(position + 1) == '/') {
+                    position++;
+                    c = '/';
+                }
+                if (c == '/') {
+                    if (ringError == null) {
+                        ringError = ringError(ringVertices, firstLat, firstLng, lastLat, lastLng);
+                        ringErrorPosition = position;
+                    }
+                    ringVertices = 0;
+                }
+                position++;
+            }
+        }
+        if (separatorError >= 0) {
+            return new CoordsError(CoordsError.Code.UNEXPECTED_SEPARATOR, separatorError);
+        }
+        if (tokens % 2 != 0) {
+            return new CoordsError(CoordsError.Code.MISSING_LONGITUDE, length);
+        }
+        if (ringError != null) {
+            return new CoordsError(ringError, ringErrorPosition);
+        }
+        ringError = ringError(ringVertices, firstLat, firstLng, lastLat, lastLng);
+        return ringError == null ? null : new CoordsError(ringError, length);
+    }
+
+    /**
+     * Leading zeros of a fraction are not significant digits, so the exponent can exceed the table.
+     */
+    private static double pow10(int exponent) {
+        return exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10, exponent);
+    }
+
+    private static CoordsError.Code ringError(int vertices, double firstLat, double firstLng,
+                                              double lastLat, double lastLng) {
+        if (vertices < MIN_VERTICES) {
+            return CoordsError.Code.TOO_FEW_VERTICES;
+        }
+        if (firstLat != lastLat || firstLng != lastLng) {
+            return CoordsError.Code.RING_NOT_CLOSED;
+        }
+        return null;
+    }
+
+    /**
+     * Validates the given coords and checks that no ring crosses, touches or overlaps itself or another
+     * ring. A ring without area always overlaps itself, so it is reported as a self intersection too.
+     *
+     * @param coords - pass the coords text.
+     * @return Returns null if the coords form simple closed rings apart from each other, otherwise the
+     * first error found.
+     */
+    public static CoordsError validateRing(CharSequence coords) {
+        CoordsError error = validate(coords);
+        if (error != null) {
+            return error;
+        }
+        Polygon polygon = Polygon.parse(coords);
+        int vertex = RingChecks.findSelfIntersection(polygon);
+        if (vertex >= 0) {
+            return new CoordsError(CoordsError.Code.SELF_INTERSECTION, vertexPosition(coords, vertex));
+        }
+        return null;
+    }
+
+    private static int vertexPosition(CharSequence coords, int vertex) {
+        int position = 0;
+        for (int seen = 0; seen < vertex; position++) {
+            char c = coords.charAt(position);
+            if (c == ';' || (c == '/' && coords.charAt(position - 1) != ';')) {
+                seen++;
+            }
+        }
+        if (position < coords.length() && coords.charAt(position) == '/') {
+            position++;
+        }
+        return position;
+    }
+}
@@ -1,26 +1,50 @@
 package com.project.geofencing.validaton;
 
 import com.project.geofencing.controller.GeoCoordinatesController;
+import com.project.geofencing.exception.InvalidGeoCoordinatesException;
 import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.partition.MapTypeRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 
 @Slf4j
 @Component
 public class GeoCoordinatesValidation {
 
-    @Value("${mapType}")
-    public String[] mapTypes;
+    private final Supplier<Collection<String>> registeredMapTypes;
+
+    private final Consumer<String> failureCounter;
 
     private static final org.slf4j.Logger log =
             org.slf4j.LoggerFactory.getLogger(GeoCoordinatesController.class);
 
+    /**
+     * Validates against the given maptypes only and counts no failures.
+     *
+     * @param mapTypes - pass the maptypes to accept.
+     */
+    public GeoCoordinatesValidation(String... mapTypes) {
+        Collection<String> fixed = Collections.unmodifiableList(Arrays.asList(mapTypes.clone()));
+        this.registeredMapTypes = () -> fixed;
+        this.failureCounter = code -> {
+        };
+    }
+
+    @Autowired
+    public GeoCoordinatesValidation(MapTypeRegistry mapTypeRegistry, FenceMetrics fenceMetrics) {
+        this.registeredMapTypes = mapTypeRegistry::getMapTypes;
+        this.failureCounter = fenceMetrics::validationFailed;
+    }
+
     /**
      * To Check if the given maptype  present or not in maptypes array.
      *
@@ -29,61 +53,81 @@ public class GeoCoordinatesValidation {
      */
     public boolean validateMapType(String mapType) throws ResourceNotFoundException {
         boolean flag = true;
-        if (!Arrays.asList(mapTypes).contains(mapType)) {
+        if (!isMapType(mapType)) {
             flag = false;
-            log.error("Invaild Map type: " + mapType
-                    + " :: Expected: " + Arrays.asList(mapTypes));
+            failureCounter.accept("MAP_TYPE");
+            log.error("Invaild Map type: {} :: Expected: {}", mapType, registeredMapTypes.get());
             throw new ResourceNotFoundException("Invaild Map type: " + mapType
-                    + " :: Expected: " + Arrays.asList(mapTypes));
+                    + " :: Expected: " + registeredMapTypes.get());
         }
         log.debug("Map Type vaildated successfully");
         return flag;
     }
 
     /**
-     * To Check if the given co ordinates matches the regular expression or not
+     * To Check if the given maptype is registered or not, without raising an error.
+     *
+     * @param mapType - pass the maptype to check.
+     * @return Returns true if the maptype is configured or registered.
+     */
+    public boolean isMapType(String mapType) {
+        return registeredMapTypes.get().contains(mapType);
+    }
+
+    /**
+     * To Check if the given co ordinates are made of well formed numbers within the lat/lng ranges.
      *
      * @param coords - pass the co ordinates to validate.
      * @throws ResourceNotFoundException If not matched throws exception.
      */
     public boolean validateCoords(String coords) throws ResourceNotFoundException {
-        String regex = "^[0-9.,;/-]+$";
-        Pattern p = Pattern.compile(regex);
-        Matcher m = p.matcher(coords);
-        boolean flag = true;
-        if (!m.matches()) {
-            flag = false;
-            log.error("Invaild co ordinates format");
-            throw new ResourceNotFoundException("Invaild co ordinates format");
+        CoordsError error = CoordsValidator.validate(coords);
+        if (error != null && error.isFormatError()) {
+            failureCounter.accept(error.getCode().name());
+            log.error("Invaild co ordinates format :: {}", error);
+            throw new InvalidGeoCoordinatesException("Invaild co ordinates format", error);
         }
-        return flag;
+        return true;
     }
 
     /**
-     * To Check if the given co ordinates forms a polygon or not
+     * To Check if the given co ordinates form closed rings that do not cross themselves or each other or not
      *
      * @param coords - pass the co ordinates to validate .
      * @throws ResourceNotFoundException not matched throws exception.
      */
     public boolean vaildatePolygon(String coords) throws ResourceNotFoundException {
-        boolean flag = true;
-        if (coords != null && coords.length() > 0) {
-            int length = coords.length();
-            if (coords.charAt(length - 1) == ';') {
-                coords = coords.substring(0, (length - 1));
-            }
-            int valuesCount = (coords.split(";")).length;
-            if (valuesCount == (coords.split(",")).length - 1) {
-                log.debug("Polygon can be formed using given co ordinates");
-            } else {
-                log.error("Polygon cannot be formed using given co ordinates");
-                throw new ResourceNotFoundException("Polygon cannot be formed using given co ordinates");
-            }
-        } else {
-            flag = false;
+        if (coords == null || coords.length() == 0) {
+            failureCounter.accept(CoordsError.Code.EMPTY.name());
             log.error("Co ordinates are not passed");
             throw new ResourceNotFoundException("Co ordinates are not passed");
         }
-        return flag;
+        CoordsError error = CoordsValidator.validateRing(coords);
+        if (error != null) {
+            failureCounter.accept(error.getCode().name());
+            log.error("Polygon cannot be formed using given co ordinates :: {}", error);
+            throw new InvalidGeoCoordinatesException("Polygon cannot be formed using given co ordinates", error);
+        }
+        log.debug("Polygon can be formed using given co ordinates");
+        return true;
+    }
+
+    /**
+     * To Check if the given co ordinates are well formed and form closed rings, the outer rings, holes and
+     * islands separated by '/', that do not cross themselves or each other.
+     *
+     * @param coords - pass the co ordinates to validate.
+     * @throws ResourceNotFoundException If not valid throws exception with the error position.
+     */
+    public boolean validateFence(String coords) throws ResourceNotFoundException {
+        CoordsError error = CoordsValidator.validateRing(coords);
+        if (error != null) {
+            failureCounter.accept(error.getCode().name());
+            String message = error.isFormatError() ? "Invaild co ordinates format"
+                    : "Polygon cannot be formed using given co ordinates";
+            log.error("{} :: {}", message, error);
+            throw new InvalidGeoCoordinatesException(message, error);
+        }
+        return true;
     }
 }
@@ -0,0 +1,123 @@
+package com.project.geofencing.wire;
+
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes fences, lists and pages of fences as {@link FenceWireFormat} when the client asks
+ * for {@code application/x-protobuf}, so the existing endpoints serve both representations.
+ */
+public class FenceProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    public FenceProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    /**
+     * Returns whether the client prefers the binary format over json.
+     *
+     * @param accept - pass the Accept header of the request.
+     * @return Returns true if protobuf is the first acceptable of protobuf and json.
+     */
+    public static boolean preferred(String accept) {
+        if (accept == null || accept.indexOf(APPLICATION_PROTOBUF_VALUE) < 0) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.equalsTypeAndSubtype(APPLICATION_PROTOBUF)) {
+                return true;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GeoCoordinates.class.isAssignableFrom(clazz) || GeoCoordinatesPage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isFenceList(type) ? canRead(mediaType) : type instanceof Class && canRead((Class<?>) type, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (type != null && isFenceList(type)) {
+            return canWrite(mediaType);
+        }
+        return canWrite(clazz, mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException {
+        byte[] bytes = StreamUtils.copyToByteArray(inputMessage.getBody());
+        try {
+            return isFenceList(type) ? FenceWireFormat.decodeList(bytes) : FenceWireFormat.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Invaild protobuf body :: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes;
+        if (value instanceof GeoCoordinatesPage) {
+            bytes = FenceWireFormat.encodePage((GeoCoordinatesPage) value);
+        } else if (value instanceof Collection) {
+            bytes = FenceWireFormat.encodeList((Collection<GeoCoordinates>) value);
+        } else {
+            bytes = FenceWireFormat.encode((GeoCoordinates) value);
+        }
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+
+    private static boolean isFenceList(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType parameterizedType = (ParameterizedType) type;
+        return parameterizedType.getRawType() instanceof Class
+                && ((Class<?>) parameterizedType.getRawType()).isAssignableFrom(List.class)
+                && Collection.class.isAssignableFrom((Class<?>) parameterizedType.getRawType())
+                && parameterizedType.getActualTypeArguments()[0] == GeoCoordinates.class;
+    }
+}
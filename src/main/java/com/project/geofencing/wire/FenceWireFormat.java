@@ -0,0 +1,483 @@
+package com.project.geofencing.wire;
+
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact binary encoding of fences in protobuf wire format, see {@code geofence.proto}.
+ * <p>
+ * The coords are sent as fixed point integers: every number is scaled by 10^precision, where the
+ * precision is the largest number of fraction digits in the coords, so the encoding is lossless. The
+ * values are interleaved lat,lng and each one is the difference to the previous value of the same
+ * axis, packed as zigzag varints like a protobuf {@code packed sint64} field. Neighbouring vertices are
+ * close, so most differences take one to three bytes. The vertices of all rings are sent as one list,
+ * with the vertex count of every ring alongside when there is more than one. Coords that cannot be
+ * encoded that way are sent as text.
+ */
+public final class FenceWireFormat {
+
+    /**
+     * Largest supported precision, 10^9 times 180 still fits a long with room for differences.
+     */
+    public static final int MAX_PRECISION = 9;
+
+    private static final int FENCE_ID = 1;
+    private static final int FENCE_NAME = 2;
+    private static final int FENCE_MAP_TYPE = 3;
+    private static final int FENCE_PRECISION = 4;
+    private static final int FENCE_COORDS = 5;
+    private static final int FENCE_COORDS_TEXT = 6;
+    private static final int FENCE_CREATED_AT = 7;
+    private static final int FENCE_CREATED_BY = 8;
+    private static final int FENCE_UPDATED_AT = 9;
+    private static final int FENCE_UPDATED_BY = 10;
+    private static final int FENCE_RING_SIZES = 11;
+
+    private static final int LIST_FENCES = 1;
+
+    private static final int PAGE_ITEMS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+
+    /**
+     * Set in the precision of a geometry blob when ring sizes follow it.
+     */
+    private static final int GEOMETRY_RINGS = 16;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+    };
+
+    private FenceWireFormat() {
+    }
+
+    /**
+     * Encodes one fence as a {@code GeoFence} message.
+     *
+     * @param geoCoordinates - pass the fence to encode.
+     * @return Returns the encoded message.
+     */
+    public static byte[] encode(GeoCoordinates geoCoordinates) {
+        ProtoWriter out = new ProtoWriter(estimate(geoCoordinates));
+        writeFence(out, geoCoordinates, new ProtoWriter(64), new ProtoWriter(8));
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes fences as a {@code GeoFenceList} message.
+     *
+     * @param geoCords - pass the fences to encode.
+     * @return Returns the encoded message.
+     */
+    public static byte[] encodeList(Collection<GeoCoordinates> geoCords) {
+        ProtoWriter out = new ProtoWriter(64);
+        writeFences(out, LIST_FENCES, geoCords);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes a page of fences as a {@code GeoFencePage} message.
+     *
+     * @param page - pass the page to encode.
+     * @return Returns the encoded message.
+     */
+    public static byte[] encodePage(GeoCoordinatesPage page) {
+        ProtoWriter out = new ProtoWriter(64);
+        writeFences(out, PAGE_ITEMS, page.getItems());
+        if (page.getNextCursor() != null) {
+            out.writeVarintField(PAGE_NEXT_CURSOR, page.getNextCursor());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a {@code GeoFence} message.
+     *
+     * @param bytes - pass the encoded message.
+     * @return Returns the fence, its coords as canonical text with every number at the encoded precision.
+     * @throws IllegalArgumentException - If the message is malformed.
+     */
+    public static GeoCoordinates decode(byte[] bytes) {
+        return readFence(new ProtoReader(bytes));
+    }
+
+    /**
+     * Decodes a {@code GeoFenceList} message.
+     *
+     * @param bytes - pass the encoded message.
+     * @return Returns the fences.
+     * @throws IllegalArgumentException - If the message is malformed.
+     */
+    public static List<GeoCoordinates> decodeList(byte[] bytes) {
+        ProtoReader in = new ProtoReader(bytes);
+        List<GeoCoordinates> geoCords = new ArrayList<>();
+        while (in.hasRemaining()) {
+            int tag = in.readTag();
+            if (tag == (LIST_FENCES << 3 | ProtoWriter.LENGTH_DELIMITED)) {
+                geoCords.add(readFence(in.readEmbedded()));
+            } else {
+                in.skip(tag);
+            }
+        }
+        return geoCords;
+    }
+
+    /**
+     * Encodes the coords as a geometry blob for storage: the precision as varint followed by the packed
+     * coords, the content of the precision and coords fields of a {@code GeoFence}. With more than one
+     * ring the precision has {@code 16} added and the ring count and the vertex count of every ring
+     * follow it as varints.
+     *
+     * @param coords - pass the coords text.
+     * @return Returns the geometry blob, null if the coords can only be kept as text.
+     */
+    public static byte[] encodeGeometry(String coords) {
+        int precision = coords == null ? -1 : precision(coords);
+        if (precision < 0) {
+            return null;
+        }
+        ProtoWriter packed = new ProtoWriter(coords.length() / 3 + 16);
+        ProtoWriter ringSizes = new ProtoWriter(8);
+        int rings = writeCoords(packed, coords, precision, ringSizes);
+        if (rings == 0) {
+            return null;
+        }
+        ProtoWriter out = new ProtoWriter(packed.size() + ringSizes.size() + 8);
+        if (rings == 1) {
+            out.writeVarint(precision);
+        } else {
+            out.writeVarint(precision | GEOMETRY_RINGS);
+            out.writeVarint(rings);
+            out.write(ringSizes);
+        }
+        out.write(packed);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a geometry blob into a polygon, equal to the one parsed from the text it was encoded from.
+     *
+     * @param geometry - pass the geometry blob.
+     * @return Returns the polygon.
+     * @throws IllegalArgumentException - If the blob is malformed.
+     */
+    public static Polygon decodeGeometry(byte[] geometry) {
+        ProtoReader in = new ProtoReader(geometry);
+        long header = in.readVarint();
+        long precision = header & ~GEOMETRY_RINGS;
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Unsupported precision :: " + precision);
+        }
+        int[] ringEnds = null;
+        if ((header & GEOMETRY_RINGS) != 0) {
+            long rings = in.readVarint();
+            if (rings < 1 || rings > geometry.length) {
+                throw new IllegalArgumentException("Invaild ring count :: " + rings);
+            }
+            ringEnds = new int[(int) rings];
+            long end = 0;
+            for (int ring = 0; ring < ringEnds.length; ring++) {
+                end += in.readVarint();
+                if (end > geometry.length) {
+                    throw new IllegalArgumentException("Invaild ring size at ring :: " + ring);
+                }
+                ringEnds[ring] = (int) end;
+            }
+        }
+        double scale = POWERS_OF_TEN[(int) precision];
+        // every value takes at least one byte
+        double[] vertices = new double[geometry.length];
+        int count = 0;
+        long lat = 0;
+        long lng = 0;
+        while (in.hasRemaining()) {
+            lat += in.readSignedVarint();
+            lng += in.readSignedVarint();
+            vertices[count++] = lat / scale;
+            vertices[count++] = lng / scale;
+        }
+        vertices = Arrays.copyOf(vertices, count);
+        return ringEnds == null ? Polygon.of(vertices) : Polygon.of(vertices, ringEnds);
+    }
+
+    private static void writeFences(ProtoWriter out, int field, Collection<GeoCoordinates> geoCords) {
+        ProtoWriter fence = new ProtoWriter(256);
+        ProtoWriter scratch = new ProtoWriter(256);
+        ProtoWriter ringSizes = new ProtoWriter(8);
+        for (GeoCoordinates geoCoordinates : geoCords) {
+            fence.reset();
+            writeFence(fence, geoCoordinates, scratch, ringSizes);
+            out.writeBytesField(field, fence);
+        }
+    }
+
+    private static void writeFence(ProtoWriter out, GeoCoordinates geoCoordinates, ProtoWriter scratch,
+                                   ProtoWriter ringSizes) {
+        if (geoCoordinates.getId() != 0) {
+            out.writeVarintField(FENCE_ID, geoCoordinates.getId());
+        }
+        if (geoCoordinates.getName() != null) {
+            out.writeStringField(FENCE_NAME, geoCoordinates.getName());
+        }
+        if (geoCoordinates.getMapType() != null) {
+            out.writeStringField(FENCE_MAP_TYPE, geoCoordinates.getMapType());
+        }
+        String coords = geoCoordinates.getCoords();
+        if (coords != null) {
+            int precision = precision(coords);
+            scratch.reset();
+            ringSizes.reset();
+            int rings = precision < 0 ? 0 : writeCoords(scratch, coords, precision, ringSizes);
+            if (rings > 0) {
+                if (precision > 0) {
+                    out.writeVarintField(FENCE_PRECISION, precision);
+                }
+                out.writeBytesField(FENCE_COORDS, scratch);
+                if (rings > 1) {
+                    out.writeBytesField(FENCE_RING_SIZES, ringSizes);
+                }
+            } else {
+                out.writeStringField(FENCE_COORDS_TEXT, coords);
+            }
+        }
+        if (geoCoordinates.getCreatedAt() != null) {
+            out.writeVarintField(FENCE_CREATED_AT, geoCoordinates.getCreatedAt().getTime());
+        }
+        if (geoCoordinates.getCreatedBy() != null) {
+            out.writeStringField(FENCE_CREATED_BY, geoCoordinates.getCreatedBy());
+        }
+        if (geoCoordinates.getUpdatedAt() != null) {
+            out.writeVarintField(FENCE_UPDATED_AT, geoCoordinates.getUpdatedAt().getTime());
+        }
+        if (geoCoordinates.getUpdatedBy() != null) {
+            out.writeStringField(FENCE_UPDATED_BY, geoCoordinates.getUpdatedBy());
+        }
+    }
+
+    private static GeoCoordinates readFence(ProtoReader in) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        int precision = 0;
+        ProtoReader coords = null;
+        ProtoReader ringSizes = null;
+        while (in.hasRemaining()) {
+            int tag = in.readTag();
+            switch (tag) {
+                case FENCE_ID << 3 | ProtoWriter.VARINT:
+                    geoCoordinates.setId(in.readVarint());
+                    break;
+                case FENCE_NAME << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    geoCoordinates.setName(in.readString());
+                    break;
+                case FENCE_MAP_TYPE << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    geoCoordinates.setMapType(in.readString());
+                    break;
+                case FENCE_PRECISION << 3 | ProtoWriter.VARINT:
+                    long value = in.readVarint();
+                    if (value < 0 || value > MAX_PRECISION) {
+                        throw new IllegalArgumentException("Unsupported precision :: " + value);
+                    }
+                    precision = (int) value;
+                    break;
+                case FENCE_COORDS << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    coords = in.readEmbedded();
+                    break;
+                case FENCE_COORDS_TEXT << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    geoCoordinates.setCoords(in.readString());
+                    break;
+                case FENCE_CREATED_AT << 3 | ProtoWriter.VARINT:
+                    geoCoordinates.setCreatedAt(new Date(in.readVarint()));
+                    break;
+                case FENCE_CREATED_BY << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    geoCoordinates.setCreatedBy(in.readString());
+                    break;
+                case FENCE_UPDATED_AT << 3 | ProtoWriter.VARINT:
+                    geoCoordinates.setUpdatedAt(new Date(in.readVarint()));
+                    break;
+                case FENCE_UPDATED_BY << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    geoCoordinates.setUpdatedBy(in.readString());
+                    break;
+                case FENCE_RING_SIZES << 3 | ProtoWriter.LENGTH_DELIMITED:
+                    ringSizes = in.readEmbedded();
+                    break;
+                default:
+                    in.skip(tag);
+            }
+        }
+        if (coords != null) {
+            geoCoordinates.setCoords(readCoords(coords, precision, ringSizes));
+        }
+        return geoCoordinates;
+    }
+
+    /**
+     * Returns the largest number of fraction digits in the coords, -1 if the coords contain anything
+     * but numbers and separators or need more than {@link #MAX_PRECISION} digits.
+     */
+    private static int precision(String coords) {
+        int precision = 0;
+        int fraction = -1;
+        for (int i = 0; i < coords.length(); i++) {
+            char c = coords.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else if (c == '.') {
+                if (fraction >= 0) {
+                    return -1;
+                }
+                fraction = 0;
+            } else if (c == ',' || c == ';' || c == '/') {
+                precision = Math.max(precision, fraction);
+                fraction = -1;
+            } else if (c != '-') {
+                return -1;
+            }
+        }
+        precision = Math.max(precision, fraction);
+        return precision > MAX_PRECISION ? -1 : precision;
+    }
+
+    /**
+     * Writes the coords as packed differences of fixed point values and the vertex count of every ring as
+     * varints to ringSizes. Returns the number of rings, 0 if the coords are not an even count of well
+     * formed numbers separated by ',' and ';', with rings separated by '/' after a longitude.
+     */
+    private static int writeCoords(ProtoWriter out, String coords, int precision, ProtoWriter ringSizes) {
+        long previousLat = 0;
+        long previousLng = 0;
+        int count = 0;
+        int rings = 0;
+        int ringStart = 0;
+        int length = coords.length();
+        int position = 0;
+        while (position < length) {
+            char expected = count % 2 == 0 ? ',' : ';';
+            boolean negative = coords.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long integer = 0;
+            long fraction = 0;
+            int integerDigits = 0;
+            int fractionDigits = -1;
+            for (; position < length; position++) {
+                char c = coords.charAt(position);
+                if (c >= '0' && c <= '9') {
+                    if (fractionDigits < 0) {
+                        if (++integerDigits > 9) {
+                            return 0;
+                        }
+                        integer = integer * 10 + (c - '0');
+                    } else {
+                        fractionDigits++;
+                        fraction = fraction * 10 + (c - '0');
+                    }
+                } else if (c == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else {
+                    break;
+                }
+            }
+            if (integerDigits == 0 && fractionDigits <= 0) {
+                return 0;
+            }
+            boolean ringEnd = false;
+            if (position < length) {
+                if (expected == ';' && coords.startsWith(";/", position)) {
+                    position++;
+                }
+                if (coords.charAt(position) == '/' && expected == ';') {
+                    ringEnd = true;
+                } else if (coords.charAt(position) != expected) {
+                    return 0;
+                }
+                position++;
+            }
+            long value = integer * POWERS_OF_TEN[precision]
+                    + fraction * POWERS_OF_TEN[precision - Math.max(fractionDigits, 0)];
+            if (negative) {
+                value = -value;
+            }
+            if (count % 2 == 0) {
+                out.writeSignedVarint(value - previousLat);
+                previousLat = value;
+            } else {
+                out.writeSignedVarint(value - previousLng);
+                previousLng = value;
+            }
+            count++;
+            if (ringEnd) {
+                if (position == length) {
+                    return 0;
+                }
+                ringSizes.writeVarint((count - ringStart) / 2);
+                ringStart = count;
+                rings++;
+            }
+        }
+        if (count == ringStart || count % 2 != 0) {
+            return 0;
+        }
+        ringSizes.writeVarint((count - ringStart) / 2);
+        return rings + 1;
+    }
+
+    private static String readCoords(ProtoReader in, int precision, ProtoReader ringSizes) {
+        StringBuilder coords = new StringBuilder();
+        long lat = 0;
+        long lng = 0;
+        long ringEnd = ringSizes == null ? Long.MAX_VALUE : ringSizes.readVarint();
+        long vertices = 0;
+        boolean latitude = true;
+        while (in.hasRemaining()) {
+            if (latitude) {
+                lat += in.readSignedVarint();
+                appendFixed(coords, lat, precision).append(',');
+            } else {
+                lng += in.readSignedVarint();
+                appendFixed(coords, lng, precision).append(';');
+                if (++vertices == ringEnd && ringSizes.hasRemaining()) {
+                    coords.append('/');
+                    ringEnd += ringSizes.readVarint();
+                }
+            }
+            latitude = !latitude;
+        }
+        if (!latitude) {
+            throw new IllegalArgumentException("Coords without longitude");
+        }
+        if (ringSizes != null && (vertices != ringEnd || ringSizes.hasRemaining())) {
+            throw new IllegalArgumentException("Ring sizes do not match the coords");
+        }
+        return coords.toString();
+    }
+
+    private static StringBuilder appendFixed(StringBuilder out, long value, int precision) {
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        long scale = POWERS_OF_TEN[precision];
+        out.append(value / scale);
+        if (precision > 0) {
+            out.append('.');
+            String fraction = Long.toString(value % scale);
+            for (int i = fraction.length(); i < precision; i++) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+        return out;
+    }
+
+    private static int estimate(GeoCoordinates geoCoordinates) {
+        return 64 + (geoCoordinates.getCoords() == null ? 0 : geoCoordinates.getCoords().length() / 2);
+    }
+}
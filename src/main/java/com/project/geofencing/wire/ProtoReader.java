@@ -0,0 +1,110 @@
+package com.project.geofencing.wire;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads protobuf wire format fields from a byte range. Malformed input throws
+ * {@link IllegalArgumentException}.
+ */
+final class ProtoReader {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    ProtoReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private ProtoReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Returns the next tag, the field number shifted left by 3 or'ed with the wire type.
+     */
+    int readTag() {
+        long tag = readVarint();
+        if (tag >>> 3 == 0 || tag > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid tag :: " + tag);
+        }
+        return (int) tag;
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+            byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    long readSignedVarint() {
+        long value = readVarint();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Returns a reader over the next length delimited field, an embedded message or a packed field.
+     */
+    ProtoReader readEmbedded() {
+        int length = readLength();
+        ProtoReader embedded = new ProtoReader(buffer, position, position + length);
+        position += length;
+        return embedded;
+    }
+
+    void skip(int tag) {
+        switch (tag & 7) {
+            case ProtoWriter.VARINT:
+                readVarint();
+                break;
+            case 1:
+                skipBytes(8);
+                break;
+            case ProtoWriter.LENGTH_DELIMITED:
+                skipBytes(readLength());
+                break;
+            case 5:
+                skipBytes(4);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported wire type :: " + (tag & 7));
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Invalid length :: " + length);
+        }
+        return (int) length;
+    }
+
+    private void skipBytes(int count) {
+        if (count > limit - position) {
+            throw new IllegalArgumentException("Truncated field");
+        }
+        position += count;
+    }
+}
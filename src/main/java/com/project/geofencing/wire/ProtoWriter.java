@@ -0,0 +1,92 @@
+package com.project.geofencing.wire;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable buffer writing protobuf wire format fields.
+ */
+final class ProtoWriter {
+
+    static final int VARINT = 0;
+    static final int LENGTH_DELIMITED = 2;
+
+    private byte[] buffer;
+    private int size;
+
+    ProtoWriter(int capacity) {
+        buffer = new byte[Math.max(16, capacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    void writeTag(int field, int wireType) {
+        writeVarint(field << 3 | wireType);
+    }
+
+    void writeVarint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a signed value as a zigzag varint, as protobuf does for sint64, so small negative values
+     * stay short.
+     */
+    void writeSignedVarint(long value) {
+        writeVarint(value << 1 ^ value >> 63);
+    }
+
+    void writeVarintField(int field, long value) {
+        writeTag(field, VARINT);
+        writeVarint(value);
+    }
+
+    void writeStringField(int field, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeTag(field, LENGTH_DELIMITED);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    /**
+     * Writes the content of another writer as a length delimited field, an embedded message or a packed
+     * repeated field.
+     */
+    void writeBytesField(int field, ProtoWriter content) {
+        writeTag(field, LENGTH_DELIMITED);
+        writeVarint(content.size);
+        write(content);
+    }
+
+    /**
+     * Appends the content of another writer as is.
+     */
+    void write(ProtoWriter content) {
+        ensure(content.size);
+        System.arraycopy(content.buffer, 0, buffer, size, content.size);
+        size += content.size;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -69,15 +69,15 @@ public class ApplicationTests {
 
     @Test
     public void testValidateMapType() {
-        GeoCoordinatesValidation geoCoordinatesValidation = new GeoCoordinatesValidation();
-        geoCoordinatesValidation.mapTypes = new String[]{"GoogleMaps", "MapBox"};
+        String[] mapTypes = {"GoogleMaps", "MapBox"};
+        GeoCoordinatesValidation geoCoordinatesValidation = new GeoCoordinatesValidation(mapTypes);
         String[] string = {"GoogleMaps", "MapBox", "", "googlemaps", "maps"};
         for (String s : string) {
             try {
                 Assert.assertTrue(geoCoordinatesValidation.validateMapType(s));
             } catch (ResourceNotFoundException e) {
                 Assert.assertEquals(e.getMessage(), "Invaild Map type: " + s
-                        + " :: Expected: " + Arrays.asList(geoCoordinatesValidation.mapTypes));
+                        + " :: Expected: " + Arrays.asList(mapTypes));
             }
         }
     }
@@ -0,0 +1,103 @@
+package com.project.geofencing.bulkhead;
+
+import com.project.geofencing.exception.ResourceNotFoundException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DatabaseBulkheadTest {
+
+    private DatabaseBulkhead databaseBulkhead;
+
+    @Before
+    public void setUp() {
+        databaseBulkhead = new DatabaseBulkhead(1, 2, 0);
+    }
+
+    @After
+    public void tearDown() {
+        databaseBulkhead.shutdown();
+    }
+
+    @Test
+    public void testResultAndException() throws Exception {
+        Assert.assertEquals("fence", databaseBulkhead.supply(() -> "fence").get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> failed = databaseBulkhead.supply(() -> {
+            throw new ResourceNotFoundException("Geo Co-Ordinates not found on :: 1");
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ResourceNotFoundException);
+        }
+        Assert.assertTrue(failed.handle((value, error) -> error).get() instanceof ResourceNotFoundException);
+    }
+
+    @Test
+    public void testRejectedWhenQueueFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = databaseBulkhead.supply(() -> {
+            started.countDown();
+            release.await();
+            return 1;
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> first = databaseBulkhead.supply(() -> 2);
+        CompletableFuture<Integer> second = databaseBulkhead.supply(() -> 3);
+        Assert.assertEquals(1, databaseBulkhead.getActiveCount());
+        Assert.assertEquals(2, databaseBulkhead.getQueuedCount());
+        try {
+            databaseBulkhead.supply(() -> 4);
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            Assert.assertEquals(1, databaseBulkhead.getRejectedCount());
+        }
+
+        release.countDown();
+        Assert.assertEquals(1, (int) running.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, (int) first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, (int) second.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(5, (int) databaseBulkhead.supply(() -> 5).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testTimedOutCallIsSkipped() throws Exception {
+        DatabaseBulkhead timed = new DatabaseBulkhead(1, 2, 100);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> running = timed.supply(() -> {
+                release.await();
+                return 1;
+            });
+            AtomicBoolean called = new AtomicBoolean();
+            CompletableFuture<Integer> queued = timed.supply(() -> {
+                called.set(true);
+                return 2;
+            });
+            try {
+                queued.get(5, TimeUnit.SECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof AsyncRequestTimeoutException);
+            }
+            Assert.assertTrue(running.isCompletedExceptionally());
+            release.countDown();
+            Assert.assertEquals(3, (int) timed.supply(() -> 3).get(5, TimeUnit.SECONDS));
+            Assert.assertFalse(called.get());
+        } finally {
+            timed.shutdown();
+        }
+    }
+}
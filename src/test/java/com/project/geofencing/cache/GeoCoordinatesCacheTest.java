@@ -0,0 +1,129 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.config.CacheConfig;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent.ChangeType;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.model.GeoCoordinates;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = GeoCoordinatesCacheTest.Config.class)
+public class GeoCoordinatesCacheTest {
+
+    @Autowired
+    private Fences fences;
+
+    @Autowired
+    private GeoCoordinatesCache geoCoordinatesCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Counts the loads per maptype of every cached list.
+     */
+    static class Fences {
+
+        private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+        @Cacheable(cacheNames = CacheConfig.GEO_CORDS_BY_MAP_TYPE, key = "#mapType")
+        public String byMapType(String mapType) {
+            return mapType + "@" + loads(CacheConfig.GEO_CORDS_BY_MAP_TYPE, mapType).incrementAndGet();
+        }
+
+        @Cacheable(cacheNames = CacheConfig.GEO_CORDS_NAMES, key = "#mapType")
+        public String names(String mapType) {
+            return mapType + "@" + loads(CacheConfig.GEO_CORDS_NAMES, mapType).incrementAndGet();
+        }
+
+        private AtomicInteger loads(String cacheName, String mapType) {
+            return loads.computeIfAbsent(CacheConfig.partition(cacheName, mapType), key -> new AtomicInteger());
+        }
+
+        int loads(String mapType) {
+            return loads(CacheConfig.GEO_CORDS_BY_MAP_TYPE, mapType).get()
+                    + loads(CacheConfig.GEO_CORDS_NAMES, mapType).get();
+        }
+    }
+
+    @Configuration
+    @Import(CacheConfig.class)
+    static class Config {
+
+        @Bean
+        public Fences fences() {
+            return new Fences();
+        }
+
+        @Bean
+        public GeoCoordinatesCache geoCoordinatesCache() {
+            return new GeoCoordinatesCache();
+        }
+    }
+
+    private static GeoCoordinates fence(long id, String mapType) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType(mapType);
+        geoCoordinates.setName("fence-" + id);
+        return geoCoordinates;
+    }
+
+    /**
+     * Reads every list of both maptypes, loading only those not cached.
+     */
+    private void readAll() {
+        for (String mapType : new String[]{"GoogleMaps", "MapBox"}) {
+            fences.byMapType(mapType);
+            fences.names(mapType);
+        }
+    }
+
+    @Test
+    public void testWritesEvictOnlyTheirMapType() {
+        readAll();
+        readAll();
+        Assert.assertEquals(2, fences.loads("GoogleMaps"));
+        Assert.assertEquals(2, fences.loads("MapBox"));
+        Assert.assertNotNull(cacheManager.getCache(
+                CacheConfig.partition(CacheConfig.GEO_CORDS_BY_MAP_TYPE, "GoogleMaps")).get("GoogleMaps"));
+
+        geoCoordinatesCache.onGeoCoordinatesChanged(
+                new GeoCoordinatesChangedEvent(ChangeType.UPDATED, fence(1, "GoogleMaps")));
+        readAll();
+        Assert.assertEquals(4, fences.loads("GoogleMaps"));
+        Assert.assertEquals(2, fences.loads("MapBox"));
+        Assert.assertNotNull(cacheManager.getCache(
+                CacheConfig.partition(CacheConfig.GEO_CORDS_BY_ID, "GoogleMaps"))
+                .get(GeoCoordinatesCache.idKey("GoogleMaps", 1)));
+        Assert.assertNull(cacheManager.getCache(CacheConfig.partition(CacheConfig.GEO_CORDS_BY_ID, "MapBox"))
+                .get(GeoCoordinatesCache.idKey("GoogleMaps", 1)));
+
+        geoCoordinatesCache.onGeoCoordinatesImported(new GeoCoordinatesImportedEvent("MapBox", 3));
+        readAll();
+        Assert.assertEquals(4, fences.loads("GoogleMaps"));
+        Assert.assertEquals(4, fences.loads("MapBox"));
+
+        geoCoordinatesCache.evictAll("GoogleMaps");
+        readAll();
+        Assert.assertEquals(6, fences.loads("GoogleMaps"));
+        Assert.assertEquals(4, fences.loads("MapBox"));
+        Assert.assertNull(cacheManager.getCache(CacheConfig.partition(CacheConfig.GEO_CORDS_BY_ID, "GoogleMaps"))
+                .get(GeoCoordinatesCache.idKey("GoogleMaps", 1)));
+    }
+}
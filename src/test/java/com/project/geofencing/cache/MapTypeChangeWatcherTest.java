@@ -0,0 +1,162 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.event.GeoCoordinatesChangedElsewhereEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.index.FenceIndexRegistry;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.MapTypeWatermark;
+import com.project.geofencing.repository.FenceTombstoneRepository;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class MapTypeChangeWatcherTest {
+
+    private MapTypeChangeWatcher watcher;
+
+    /**
+     * The counts the repositories answer for rows and tombstones after the previous watermark.
+     */
+    private long rowsAfter;
+
+    private long tombstonesAfter;
+
+    private List<MapTypeWatermark> rowWatermarks = Collections.emptyList();
+
+    private List<MapTypeWatermark> tombstoneWatermarks = Collections.emptyList();
+
+    private final List<Object> events = new ArrayList<>();
+
+    private static MapTypeWatermark mark(String mapType, long latest) {
+        return new MapTypeWatermark(mapType, new Date(latest));
+    }
+
+    private static GeoCoordinatesChangedEvent change(GeoCoordinatesChangedEvent.ChangeType changeType, long id) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType("GoogleMaps");
+        return new GeoCoordinatesChangedEvent(changeType, geoCoordinates);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T repository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "countByMapTypeAndUpdatedAtGreaterThan":
+                            return rowsAfter;
+                        case "countByMapTypeAndDeletedAtGreaterThan":
+                            return tombstonesAfter;
+                        case "findWatermarks":
+                            return type == GeoCoordinatesRepository.class ? rowWatermarks : tombstoneWatermarks;
+                        case "toString":
+                            return type.getSimpleName();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Before
+    public void setUp() {
+        watcher = new MapTypeChangeWatcher();
+        ReflectionTestUtils.setField(watcher, "geoCoordinatesRepository", repository(GeoCoordinatesRepository.class));
+        ReflectionTestUtils.setField(watcher, "fenceTombstoneRepository", repository(FenceTombstoneRepository.class));
+        GeoCoordinatesCache geoCoordinatesCache = new GeoCoordinatesCache();
+        ReflectionTestUtils.setField(geoCoordinatesCache, "cacheManager", new ConcurrentMapCacheManager());
+        ReflectionTestUtils.setField(watcher, "geoCoordinatesCache", geoCoordinatesCache);
+        ReflectionTestUtils.setField(watcher, "fenceIndexRegistry", new FenceIndexRegistry());
+        ReflectionTestUtils.setField(watcher, "mapTypeVersions", new MapTypeVersions());
+        ReflectionTestUtils.setField(watcher, "eventPublisher", (ApplicationEventPublisher) events::add);
+    }
+
+    @Test
+    public void testChangeElsewhereIsPublished() {
+        rowWatermarks = Collections.singletonList(mark("GoogleMaps", 1000));
+        watcher.poll();
+        Assert.assertTrue(events.isEmpty());
+
+        rowWatermarks = Collections.singletonList(mark("GoogleMaps", 2000));
+        rowsAfter = 1;
+        watcher.poll();
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("GoogleMaps", ((GeoCoordinatesChangedElsewhereEvent) events.get(0)).getMapType());
+
+        watcher.poll();
+        Assert.assertEquals(1, events.size());
+    }
+
+    @Test
+    public void testChangedMapTypes() {
+        List<MapTypeWatermark> none = Collections.emptyList();
+        List<MapTypeWatermark> rows = Arrays.asList(mark("GoogleMaps", 1000), mark("MapBox", 2000));
+        Assert.assertTrue(watcher.changedMapTypes(rows, none).isEmpty());
+        Assert.assertTrue(watcher.changedMapTypes(rows, none).isEmpty());
+
+        Assert.assertEquals(Collections.singleton("GoogleMaps"), watcher.changedMapTypes(
+                Arrays.asList(mark("GoogleMaps", 3000), mark("MapBox", 2000)), none));
+        Assert.assertEquals(Collections.singleton("MapBox"), watcher.changedMapTypes(
+                Arrays.asList(mark("GoogleMaps", 3000), mark("MapBox", 1500)),
+                Collections.singletonList(mark("MapBox", 2500))));
+        Assert.assertEquals(Collections.singleton("Tiles"), watcher.changedMapTypes(
+                Arrays.asList(mark("GoogleMaps", 3000), mark("Tiles", 4000)),
+                Collections.singletonList(mark("MapBox", 2500))));
+        Assert.assertTrue(watcher.changedMapTypes(
+                Arrays.asList(mark("GoogleMaps", 3000), mark("Tiles", 4000)),
+                Collections.singletonList(mark("MapBox", 2500))).isEmpty());
+
+        // purged tombstones are not a change
+        Assert.assertTrue(watcher.changedMapTypes(
+                Arrays.asList(mark("GoogleMaps", 3000), mark("Tiles", 4000)), none).isEmpty());
+    }
+
+    @Test
+    public void testLocalWritesAreSkipped() {
+        List<MapTypeWatermark> none = Collections.emptyList();
+        watcher.changedMapTypes(Collections.singletonList(mark("GoogleMaps", 1000)), none);
+
+        watcher.onGeoCoordinatesChanged(change(GeoCoordinatesChangedEvent.ChangeType.CREATED, 1));
+        watcher.onGeoCoordinatesChanged(change(GeoCoordinatesChangedEvent.ChangeType.UPDATED, 1));
+        watcher.onGeoCoordinatesImported(new GeoCoordinatesImportedEvent("GoogleMaps", 3));
+        rowsAfter = 4;
+        Assert.assertTrue(watcher.changedMapTypes(Collections.singletonList(mark("GoogleMaps", 2000)), none)
+                .isEmpty());
+
+        watcher.onGeoCoordinatesChanged(change(GeoCoordinatesChangedEvent.ChangeType.UPDATED, 2));
+        watcher.onGeoCoordinatesChanged(change(GeoCoordinatesChangedEvent.ChangeType.DELETED, 1));
+        rowsAfter = 1;
+        tombstonesAfter = 1;
+        Assert.assertTrue(watcher.changedMapTypes(Collections.singletonList(mark("GoogleMaps", 3000)),
+                Collections.singletonList(mark("GoogleMaps", 3000))).isEmpty());
+
+        // a row another instance wrote in the same poll
+        watcher.onGeoCoordinatesChanged(change(GeoCoordinatesChangedEvent.ChangeType.UPDATED, 2));
+        rowsAfter = 2;
+        tombstonesAfter = 0;
+        Assert.assertEquals(Collections.singleton("GoogleMaps"), watcher.changedMapTypes(
+                Collections.singletonList(mark("GoogleMaps", 4000)),
+                Collections.singletonList(mark("GoogleMaps", 3000))));
+
+        // local writes are only counted for the poll they happened in
+        rowsAfter = 1;
+        Assert.assertEquals(Collections.singleton("GoogleMaps"), watcher.changedMapTypes(
+                Collections.singletonList(mark("GoogleMaps", 5000)),
+                Collections.singletonList(mark("GoogleMaps", 3000))));
+    }
+}
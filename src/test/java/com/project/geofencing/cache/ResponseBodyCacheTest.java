@@ -0,0 +1,73 @@
+package com.project.geofencing.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.cache.ResponseBodyCache.CachedBody;
+import com.project.geofencing.exception.ResourceNotFoundException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+public class ResponseBodyCacheTest {
+
+    private MapTypeVersions mapTypeVersions;
+    private ResponseBodyCache responseBodyCache;
+
+    @Before
+    public void setUp() {
+        mapTypeVersions = new MapTypeVersions();
+        responseBodyCache = new ResponseBodyCache();
+        ReflectionTestUtils.setField(responseBodyCache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(responseBodyCache, "mapTypeVersions", mapTypeVersions);
+    }
+
+    @Test
+    public void testLoadedOncePerVersion() throws ResourceNotFoundException, IOException {
+        AtomicInteger loads = new AtomicInteger();
+        ResponseBodyCache.BodyLoader loader = () -> {
+            loads.incrementAndGet();
+            return Arrays.asList("a", "b");
+        };
+        CachedBody first = responseBodyCache.get("names", "GoogleMaps", loader);
+        CachedBody second = responseBodyCache.get("names", "GoogleMaps", loader);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals("[\"a\",\"b\"]", new String(first.getBody(), StandardCharsets.UTF_8));
+        byte[] unzipped = StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(first.getGzip())));
+        Assert.assertArrayEquals(first.getBody(), unzipped);
+
+        responseBodyCache.get("names", "MapBox", loader);
+        Assert.assertEquals(2, loads.get());
+
+        mapTypeVersions.bump("GoogleMaps");
+        CachedBody reloaded = responseBodyCache.get("names", "GoogleMaps", loader);
+        Assert.assertNotSame(first, reloaded);
+        Assert.assertEquals(3, loads.get());
+        Assert.assertEquals(first.getETag(false), reloaded.getETag(false));
+        Assert.assertNotEquals(first.getETag(false), first.getETag(true));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testLoaderExceptionNotCached() throws ResourceNotFoundException {
+        responseBodyCache.get("names", "GoogleMaps", () -> {
+            throw new ResourceNotFoundException("No GeoFence available for maptype  :: GoogleMaps");
+        });
+    }
+
+    @Test
+    public void testVersionETags() {
+        String initial = mapTypeVersions.etag(mapTypeVersions.current("GoogleMaps"));
+        mapTypeVersions.bump("GoogleMaps");
+        Assert.assertNotEquals(initial, mapTypeVersions.etag(mapTypeVersions.current("GoogleMaps")));
+        Assert.assertEquals(initial, mapTypeVersions.etag(mapTypeVersions.current("MapBox")));
+        Assert.assertTrue(initial.startsWith("\"") && initial.endsWith("\""));
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.geofencing.cache;
+
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent.ChangeType;
+import com.project.geofencing.model.GeoCoordinates;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimplifiedCoordsCacheTest {
+
+    private static final String BUMPY = "0,0;0,5;0,10;10,10.50;10,0;5,0.001;0,0;";
+
+    private static GeoCoordinates fence(long id, String coords) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType("GoogleMaps");
+        geoCoordinates.setCoords(coords);
+        return geoCoordinates;
+    }
+
+    @Test
+    public void testSimplifiedOncePerCoords() {
+        SimplifiedCoordsCache cache = new SimplifiedCoordsCache(1000000);
+        GeoCoordinates written = fence(1, BUMPY);
+        cache.onGeoCoordinatesChanged(new GeoCoordinatesChangedEvent(ChangeType.CREATED, written));
+
+        String simplified = cache.simplify(fence(1, new String(BUMPY)), 6);
+        Assert.assertEquals("0,0;0,10;10,10.50;10,0;0,0;", simplified);
+        Assert.assertSame(simplified, cache.simplify(fence(1, new String(BUMPY)), 6));
+
+        String square = "0,0;0,10;10,10;10,0;0,0;";
+        GeoCoordinates updated = fence(1, square);
+        Assert.assertSame(square, cache.simplify(updated, 6));
+        Assert.assertSame(square, cache.simplify(updated, 0));
+        Assert.assertNull(cache.simplify(fence(2, null), 0));
+
+        cache.onGeoCoordinatesChanged(new GeoCoordinatesChangedEvent(ChangeType.DELETED, updated));
+        Assert.assertEquals("0,0;0,10;10,10.50;10,0;0,0;", cache.simplify(fence(1, BUMPY), 6));
+    }
+
+    @Test
+    public void testCoordsWithTheSameHashAreSimplifiedAgain() {
+        String first = "0,0;0,5.640;0,10.919;10,10.790;10,0;5,0.937;0,0;";
+        String second = "0,0;0,5.256;0,10.171;10,10.606;10,0;5,0.675;0,0;";
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+        Assert.assertEquals(first.length(), second.length());
+
+        SimplifiedCoordsCache cache = new SimplifiedCoordsCache(1000000);
+        String simplified = cache.simplify(fence(1, first), 6);
+        Assert.assertTrue(simplified.contains("0,10.919"));
+        Assert.assertEquals(new SimplifiedCoordsCache(1000000).simplify(fence(1, second), 6),
+                cache.simplify(fence(1, second), 6));
+        Assert.assertTrue(cache.simplify(fence(1, second), 6).contains("0,10.171"));
+    }
+}
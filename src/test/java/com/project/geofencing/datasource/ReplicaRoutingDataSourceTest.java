@@ -0,0 +1,90 @@
+package com.project.geofencing.datasource;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private static DataSource primary;
+    private static DataSource replica1;
+    private static DataSource replica2;
+
+    @BeforeClass
+    public static void setUpDatabases() {
+        primary = database("primary");
+        replica1 = database("replica1");
+        replica2 = database("replica2");
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(16))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static final class Routed {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readWrite;
+        private final TransactionTemplate readOnly;
+
+        private Routed(ReplicaRoutingDataSource routing) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readWrite = new TransactionTemplate(transactionManager);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+        }
+
+        private String node(TransactionTemplate transactionTemplate) {
+            return transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+
+    @Test
+    public void testReadOnlyTransactionsTakeTurnsOnReplicas() {
+        Routed routed = new Routed(new ReplicaRoutingDataSource(primary, Arrays.asList(replica1, replica2), 1000));
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(routed.node(routed.readOnly));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("replica1", "replica2")), nodes);
+        Assert.assertEquals("primary", routed.node(routed.readWrite));
+        Assert.assertEquals("primary", routed.jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    public void testReadsAfterWriteGoToPrimary() {
+        Routed lagging = new Routed(new ReplicaRoutingDataSource(primary, Collections.singletonList(replica1), 60000));
+        Assert.assertEquals("replica1", lagging.node(lagging.readOnly));
+        Assert.assertEquals("primary", lagging.node(lagging.readWrite));
+        Assert.assertEquals("primary", lagging.node(lagging.readOnly));
+
+        Routed current = new Routed(new ReplicaRoutingDataSource(primary, Collections.singletonList(replica1), 0));
+        Assert.assertEquals("primary", current.node(current.readWrite));
+        Assert.assertEquals("replica1", current.node(current.readOnly));
+    }
+
+    @Test
+    public void testUnavailableReplicaFallsBackToPrimary() {
+        DataSource missing = new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        Routed routed = new Routed(new ReplicaRoutingDataSource(primary, Collections.singletonList(missing), 0));
+        Assert.assertEquals("primary", routed.node(routed.readOnly));
+    }
+}
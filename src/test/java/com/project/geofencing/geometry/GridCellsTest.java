@@ -0,0 +1,70 @@
+package com.project.geofencing.geometry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class GridCellsTest {
+
+    @Test
+    public void testCellId() {
+        Assert.assertEquals(0, GridCells.cellId(-90, -180, 16));
+        Assert.assertEquals(GridCells.cellId(89.9999, 179.9999, 16), GridCells.cellId(90, 180, 16));
+        Assert.assertEquals(3, GridCells.cellId(45, 90, 1));
+        Assert.assertEquals(1, GridCells.cellId(-45, 90, 1));
+        Assert.assertEquals(2, GridCells.cellId(45, -90, 1));
+    }
+
+    @Test
+    public void testCoverClassifiesCells() {
+        Polygon square = Polygon.parse("0,0;0,10;10,10;10,0;0,0");
+        GridCells.Covering covering = GridCells.cover(square, 8, 10000);
+        int inside = 0;
+        for (int i = 0; i < covering.size(); i++) {
+            if (covering.isInside(i)) {
+                inside++;
+            }
+        }
+        Assert.assertTrue(inside > 0);
+        Assert.assertTrue(covering.size() > inside);
+        Assert.assertNull(GridCells.cover(square, 16, 10000));
+    }
+
+    @Test
+    public void testCoverMatchesContains() {
+        Random random = new Random(5);
+        int level = 10;
+        for (int round = 0; round < 200; round++) {
+            double lat = random.nextDouble() * 40 - 20;
+            double lng = random.nextDouble() * 80 - 40;
+            int n = 3 + random.nextInt(8);
+            double[] vertices = new double[2 * n];
+            for (int i = 0; i < n; i++) {
+                double angle = 2 * Math.PI * i / n;
+                double radius = 0.5 + random.nextDouble() * 4;
+                vertices[2 * i] = lat + radius * Math.sin(angle);
+                vertices[2 * i + 1] = lng + radius * Math.cos(angle);
+            }
+            Polygon polygon = Polygon.of(vertices);
+            GridCells.Covering covering = GridCells.cover(polygon, level, 100000);
+            Map<Long, Boolean> cells = new HashMap<>();
+            for (int i = 0; i < covering.size(); i++) {
+                cells.put(covering.getCellId(i), covering.isInside(i));
+            }
+            for (int i = 0; i < 2000; i++) {
+                double pointLat = lat - 5 + random.nextDouble() * 10;
+                double pointLng = lng - 5 + random.nextDouble() * 10;
+                Boolean inside = cells.get(GridCells.cellId(pointLat, pointLng, level));
+                boolean contains = polygon.contains(pointLat, pointLng);
+                if (inside == null) {
+                    Assert.assertFalse(contains);
+                } else if (inside) {
+                    Assert.assertTrue(contains);
+                }
+            }
+        }
+    }
+}
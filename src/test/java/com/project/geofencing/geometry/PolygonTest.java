@@ -0,0 +1,100 @@
+package com.project.geofencing.geometry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PolygonTest {
+
+    @Test
+    public void testParse() {
+        String[] coords = {"12.935022836471118,77.61171432204848;12.934913042283574,-77.61184977360374;"
+                + "-0.000123,180;12.935022836471118,77.61171432204848;",
+                "12.935022836471118,77.61171432204848;12.934913042283574,-77.61184977360374;-0.000123,180"};
+        for (String s : coords) {
+            Polygon polygon = Polygon.parse(s);
+            Assert.assertEquals(s.endsWith(";") ? 4 : 3, polygon.getVertexCount());
+            Assert.assertEquals(s.endsWith(";"), polygon.isClosed());
+            Assert.assertEquals(12.935022836471118, polygon.getLat(0), 1e-15);
+            Assert.assertEquals(-77.61184977360374, polygon.getLng(1), 1e-13);
+            Assert.assertEquals(-0.000123, polygon.getLat(2), 0);
+            Assert.assertEquals(-0.000123, polygon.getMinLat(), 0);
+            Assert.assertEquals(180, polygon.getMaxLng(), 0);
+        }
+    }
+
+    @Test
+    public void testParseRejectsMalformed() {
+        String[] coords = {"", "1,2;3,4;", "1,2;3,4;5", "1,2;3,4;5,6;;", "1,2;3,4;5,6;7,8,9;", "1,2;3,4;5,.;",
+                "1,2;3,4;5,-;", "1,2;3,4;5;6,7;", "12.93502283647111877.61171432204848;1,2;3,4;", "1,2;3,4;5,6;x"};
+        for (String s : coords) {
+            try {
+                Polygon.parse(s);
+                Assert.fail("Parsed malformed coords :: " + s);
+            } catch (IllegalArgumentException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testContains() {
+        Polygon polygon = Polygon.parse("0,0;10,0;10,10;5,5;0,10;0,0;");
+        Assert.assertTrue(polygon.contains(1, 1));
+        Assert.assertTrue(polygon.contains(8, 5));
+        Assert.assertFalse(polygon.contains(3, 8));
+        Assert.assertFalse(polygon.contains(11, 5));
+        Assert.assertFalse(polygon.contains(-1, 5));
+    }
+
+    @Test
+    public void testDistance() {
+        Polygon square = Polygon.parse("0,0;0,10;10,10;10,0;0,0");
+        Assert.assertEquals(0, square.distance(5, 5, 1, 1), 0);
+        Assert.assertEquals(3, square.distance(5, 13, 1, 1), 1e-12);
+        Assert.assertEquals(5, square.distance(13, 14, 1, 1), 1e-12);
+        Assert.assertEquals(6, square.distance(-3, 5, 2, 1), 1e-12);
+        Assert.assertEquals(2, square.distance(5, -1, 1, 2), 1e-12);
+    }
+
+    @Test
+    public void testParseRings() {
+        Polygon polygon = Polygon.parse("0,0;0,10;10,10;10,0;0,0;/2,2;4,2;4,4;2,4;2,2/20,20;20,30;30,30;20,20");
+        Assert.assertEquals(3, polygon.getRingCount());
+        Assert.assertEquals(14, polygon.getVertexCount());
+        Assert.assertEquals(5, polygon.getRingStart(1));
+        Assert.assertEquals(10, polygon.getRingEnd(1));
+        Assert.assertEquals(2, polygon.getLat(5), 0);
+        Assert.assertEquals(30, polygon.getMaxLat(), 0);
+        Assert.assertTrue(polygon.isClosed());
+        Assert.assertFalse(Polygon.parse("0,0;0,10;10,10;0,0;/2,2;4,2;4,4").isClosed());
+
+        String[] malformed = {"0,0;0,10;10,10;0,0;/", "0,0;0,10;10,10;0,0;//1,1;1,2;2,2;", "0,0;0,10;10,10;0,0;/1,1;1,2;",
+                "0,0;0,10;10/10;0,0;", "/0,0;0,10;10,10;0,0;"};
+        for (String s : malformed) {
+            try {
+                Polygon.parse(s);
+                Assert.fail("Parsed malformed coords :: " + s);
+            } catch (IllegalArgumentException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testContainsWithHolesAndParts() {
+        Polygon polygon = Polygon.parse("0,0;0,10;10,10;10,0;0,0;/2,2;8,2;8,8;2,8;2,2;/4,4;4,6;6,6;6,4;4,4;/"
+                + "20,20;20,30;30,30;30,20;20,20;");
+        Assert.assertTrue(polygon.contains(1, 1));
+        Assert.assertFalse(polygon.contains(3, 3));
+        Assert.assertTrue(polygon.contains(5, 5));
+        Assert.assertFalse(polygon.contains(15, 15));
+        Assert.assertTrue(polygon.contains(25, 25));
+        Assert.assertFalse(polygon.contains(31, 25));
+        Assert.assertTrue(polygon.ringContains(1, 3, 3));
+        Assert.assertFalse(polygon.ringContains(3, 3, 3));
+
+        Assert.assertEquals(0, polygon.distance(5, 5, 1, 1), 0);
+        Assert.assertEquals(1, polygon.distance(3, 5, 1, 1), 1e-12);
+        Assert.assertEquals(5, polygon.distance(15, 5, 1, 1), 1e-12);
+    }
+}
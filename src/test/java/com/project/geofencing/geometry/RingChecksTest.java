@@ -0,0 +1,144 @@
+package com.project.geofencing.geometry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class RingChecksTest {
+
+    @Test
+    public void testSignedAreaAndWinding() {
+        String counterClockwise = "0,0;0,10;10,10;10,0;0,0;";
+        String clockwise = "0,0;10,0;10,10;0,10;0,0;";
+        Assert.assertEquals(100, RingChecks.signedArea(Polygon.parse(counterClockwise)), 0);
+        Assert.assertEquals(-100, RingChecks.signedArea(Polygon.parse(clockwise)), 0);
+        Assert.assertSame(counterClockwise, RingChecks.counterClockwise(counterClockwise));
+        Assert.assertEquals("0,0;0,10;10,10;10,0;0,0;", RingChecks.counterClockwise(clockwise));
+        Assert.assertEquals("0,0;0,10.50;10,10;10,0;0,0", RingChecks.counterClockwise("0,0;10,0;10,10;0,10.50;0,0"));
+    }
+
+    @Test
+    public void testFindSelfIntersection() {
+        Assert.assertEquals(-1, RingChecks.findSelfIntersection(Polygon.parse("0,0;10,0;10,10;0,10;0,0;")));
+        Assert.assertEquals(-1, RingChecks.findSelfIntersection(Polygon.parse("0,0;10,0;10,10;5,5;0,10;0,0;")));
+        Assert.assertEquals(-1, RingChecks.findSelfIntersection(Polygon.parse("0,0;10,0;10,0;10,10;0,10;0,0;")));
+        Assert.assertTrue(RingChecks.findSelfIntersection(Polygon.parse("0,0;10,10;10,0;0,10;0,0;")) >= 0);
+        Assert.assertTrue(RingChecks.findSelfIntersection(Polygon.parse("0,0;10,0;10,10;10,5;0,10;0,0;")) >= 0);
+        Assert.assertTrue(RingChecks.findSelfIntersection(Polygon.parse("0,0;10,0;5,0;5,5;0,0;")) >= 0);
+        Assert.assertTrue(RingChecks.findSelfIntersection(Polygon.parse("0,0;4,0;4,4;2,0;0,4;0,0;")) >= 0);
+    }
+
+    @Test
+    public void testNormalizeWinding() {
+        String normalized = "0,0;0,10;10,10;10,0;0,0;/2,2;4,2;4,4;2,4;2,2;/3,3;3,3.5;3.5,3.5;3,3;/20,20;20,30;30,30;20,20";
+        Assert.assertSame(normalized, RingChecks.normalizeWinding(normalized));
+        Assert.assertEquals(normalized, RingChecks.normalizeWinding(
+                "0,0;10,0;10,10;0,10;0,0;/2,2;2,4;4,4;4,2;2,2;/3,3;3.5,3.5;3,3.5;3,3;/20,20;20,30;30,30;20,20"));
+        Assert.assertEquals("0,0;0,10;10,10;0,0/2,5;4,6;3,8;2,5",
+                RingChecks.normalizeWinding("0,0;10,10;0,10;0,0/2,5;3,8;4,6;2,5"));
+        Assert.assertEquals("0,0;0,10;10,10;10,0;0,0;", RingChecks.normalizeWinding("0,0;10,0;10,10;0,10;0,0;"));
+
+        Polygon polygon = Polygon.parse(normalized);
+        Assert.assertEquals(100 - 4 + 0.125 + 50, RingChecks.signedArea(polygon), 1e-12);
+        Assert.assertEquals(-4, RingChecks.signedArea(polygon, 1), 1e-12);
+    }
+
+    @Test
+    public void testFindIntersectionBetweenRings() {
+        Assert.assertEquals(-1, RingChecks.findSelfIntersection(
+                Polygon.parse("0,0;0,10;10,10;10,0;0,0;/2,2;4,2;4,4;2,4;2,2;/20,20;20,30;30,30;20,20;")));
+        Assert.assertTrue(RingChecks.findSelfIntersection(
+                Polygon.parse("0,0;0,10;10,10;10,0;0,0;/5,5;5,15;15,15;15,5;5,5;")) >= 0);
+        Assert.assertTrue(RingChecks.findSelfIntersection(
+                Polygon.parse("0,0;0,10;10,10;10,0;0,0;/0,5;2,6;2,4;0,5;")) >= 0);
+        Assert.assertTrue(RingChecks.findSelfIntersection(
+                Polygon.parse("0,0;0,10;10,10;10,0;0,0;/0,0;0,10;10,10;10,0;0,0;")) >= 0);
+        Assert.assertEquals(5, RingChecks.findSelfIntersection(
+                Polygon.parse("0,0;0,10;10,10;10,0;0,0;/2,2;2,2;3,3;2,2;")));
+    }
+
+    @Test
+    public void testFindIntersectionBetweenRingsMatchesBruteForce() {
+        Random random = new Random(5);
+        for (int round = 0; round < 10000; round++) {
+            int n = 3 + random.nextInt(6);
+            int grid = round % 2 == 0 ? 6 : 1000;
+            double[] vertices = new double[4 * n];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = random.nextInt(grid);
+            }
+            Polygon polygon = Polygon.of(vertices, new int[]{n, 2 * n});
+            Polygon first = Polygon.of(java.util.Arrays.copyOf(vertices, 2 * n));
+            Polygon second = Polygon.of(java.util.Arrays.copyOfRange(vertices, 2 * n, 4 * n));
+            boolean expected = bruteForce(first) || bruteForce(second) || ringsCross(polygon);
+            Assert.assertEquals("Rings :: " + java.util.Arrays.toString(vertices),
+                    expected, RingChecks.findSelfIntersection(polygon) >= 0);
+        }
+    }
+
+    @Test
+    public void testFindSelfIntersectionMatchesBruteForce() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20000; round++) {
+            int n = 4 + random.nextInt(round % 2 == 0 ? 6 : 30);
+            int grid = round % 3 == 0 ? 4 : 1000;
+            double[] vertices = new double[2 * n];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = random.nextInt(grid);
+            }
+            Polygon polygon = Polygon.of(vertices);
+            Assert.assertEquals("Ring :: " + java.util.Arrays.toString(vertices),
+                    bruteForce(polygon), RingChecks.findSelfIntersection(polygon) >= 0);
+        }
+    }
+
+    private static boolean bruteForce(Polygon polygon) {
+        int n = polygon.getVertexCount();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m > 0 && xs[m - 1] == polygon.getLng(i) && ys[m - 1] == polygon.getLat(i)) {
+                continue;
+            }
+            xs[m] = polygon.getLng(i);
+            ys[m++] = polygon.getLat(i);
+        }
+        if (m > 1 && xs[m - 1] == xs[0] && ys[m - 1] == ys[0]) {
+            m--;
+        }
+        if (m < 3) {
+            return m > 0;
+        }
+        for (int a = 0; a < m; a++) {
+            for (int b = a + 1; b < m; b++) {
+                if (RingChecks.segmentsIntersect(xs, ys, a, (a + 1) % m, b, (b + 1) % m)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean ringsCross(Polygon polygon) {
+        int n = polygon.getVertexCount();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = polygon.getLng(i);
+            ys[i] = polygon.getLat(i);
+        }
+        int end = polygon.getRingEnd(0);
+        for (int a = 0; a < end; a++) {
+            for (int b = end; b < n; b++) {
+                int a2 = a + 1 == end ? 0 : a + 1;
+                int b2 = b + 1 == n ? end : b + 1;
+                if (RingChecks.segmentsIntersect(xs, ys, a, a2, b, b2)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.geofencing.geometry;
+
+import com.project.geofencing.validaton.CoordsValidator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SimplifierTest {
+
+    /**
+     * Builds a closed ring of n vertices around a center, counter clockwise.
+     */
+    private static String circle(double lat, double lng, double radius, int n) {
+        StringBuilder coords = new StringBuilder();
+        for (int i = 0; i <= n; i++) {
+            double angle = 2 * Math.PI * (i % n) / n;
+            coords.append(lat + radius * Math.sin(angle)).append(',').append(lng + radius * Math.cos(angle))
+                    .append(';');
+        }
+        return coords.toString();
+    }
+
+    @Test
+    public void testLevels() {
+        Assert.assertEquals(360.0 / 256, Simplifier.tolerance(0), 0);
+        Assert.assertEquals(0, Simplifier.levelForZoom(0));
+        Assert.assertEquals(4, Simplifier.levelForZoom(3));
+        Assert.assertEquals(4, Simplifier.levelForZoom(4));
+        Assert.assertEquals(14, Simplifier.levelForZoom(14));
+        Assert.assertEquals(-1, Simplifier.levelForZoom(15));
+        Assert.assertEquals(0, Simplifier.levelForTolerance(10));
+        Assert.assertEquals(4, Simplifier.levelForTolerance(Simplifier.tolerance(3)));
+        Assert.assertEquals(4, Simplifier.levelForTolerance(Simplifier.tolerance(4)));
+        Assert.assertEquals(-1, Simplifier.levelForTolerance(0));
+    }
+
+    @Test
+    public void testSimplifyKeepsVertexTextAndValidRings() {
+        Assert.assertEquals("0,0;0,10;10,10.50;10,0;0,0;",
+                Simplifier.simplify("0,0;0,5;0,10;10,10.50;10,0;5,0.001;0,0", 0.01));
+        String square = "0,0;0,10;10,10;10,0;0,0;";
+        Assert.assertSame(square, Simplifier.simplify(square, 0.1));
+        Assert.assertEquals("0,0;10,10;10,0;0,0;", Simplifier.simplify(square, 100));
+        Assert.assertSame("invalid", Simplifier.simplify("invalid", 1));
+
+        String circle = circle(45, 10, 1, 2000);
+        String previous = circle;
+        for (int level = Simplifier.MIN_LEVEL; level <= Simplifier.MAX_LEVEL; level += 2) {
+            String simplified = Simplifier.simplify(circle, Simplifier.tolerance(level));
+            Assert.assertNull(CoordsValidator.validateRing(simplified));
+            int vertices = Polygon.parse(simplified).getVertexCount();
+            Assert.assertTrue(vertices >= 4 && vertices <= 2001);
+            if (level > Simplifier.MIN_LEVEL) {
+                Assert.assertTrue(vertices >= Polygon.parse(previous).getVertexCount());
+            }
+            previous = simplified;
+        }
+        Assert.assertTrue(Polygon.parse(Simplifier.simplify(circle, Simplifier.tolerance(4))).getVertexCount() < 100);
+    }
+
+    @Test
+    public void testSimplifyKeepsHolesInside() {
+        String bump = "0,0;0,4;-1,5;0,6;0,10;10,10;10,0;0,0;/-0.4,4.9;-0.2,4.9;-0.2,5.1;-0.4,5.1;-0.4,4.9;";
+        String simplified = Simplifier.simplify(bump, 1.5);
+        Assert.assertNull(CoordsValidator.validateRing(simplified));
+        Polygon polygon = Polygon.parse(simplified);
+        Assert.assertEquals(2, polygon.getRingCount());
+        Assert.assertTrue(polygon.ringContains(0, -0.22, 5));
+        Assert.assertFalse(polygon.contains(-0.22, 5));
+        Assert.assertTrue(simplified.startsWith("0,0;0,4;-1,5;0,6;"));
+
+        String notch = "0,0;0,4;-1,5;0,6;0,10;-10,10;-10,0;0,0;/-0.4,4.9;-0.4,5.1;-0.2,5;-0.4,4.9;";
+        simplified = Simplifier.simplify(notch, 1.5);
+        Assert.assertNull(CoordsValidator.validateRing(simplified));
+        Assert.assertTrue(Polygon.parse(simplified).contains(-0.3, 5));
+        Assert.assertTrue(simplified.startsWith("0,0;0,4;-1,5;0,6;"));
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FenceIndexRegistryTest {
+
+    private final List<GeoCoordinates> table = new ArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    /**
+     * Loads of the table after the first one wait for this latch, when set.
+     */
+    private volatile CountDownLatch release;
+
+    private volatile CountDownLatch loading;
+
+    private FenceIndexRegistry registry;
+
+    private static GeoCoordinates fence(long id) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType("GoogleMaps");
+        geoCoordinates.setName("fence-" + id);
+        geoCoordinates.setCoords(id + ",0;" + id + ",1;" + (id + 1) + ",1;" + (id + 1) + ",0;" + id + ",0;");
+        return geoCoordinates;
+    }
+
+    @Before
+    public void setUp() {
+        GeoCoordinatesRepository repository = (GeoCoordinatesRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{GeoCoordinatesRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findByMapType":
+                            List<GeoCoordinates> rows;
+                            synchronized (table) {
+                                rows = new ArrayList<>(table);
+                            }
+                            if (loads.incrementAndGet() > 1 && release != null) {
+                                loading.countDown();
+                                Assert.assertTrue(release.await(10, TimeUnit.SECONDS));
+                            }
+                            return rows;
+                        case "toString":
+                            return "GeoCoordinatesRepository";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        registry = new FenceIndexRegistry();
+        ReflectionTestUtils.setField(registry, "geoCoordinatesRepository", repository);
+        ReflectionTestUtils.setField(registry, "fenceCellStore", new FenceCellStore(new String[0], 16, 65536));
+        ReflectionTestUtils.setField(registry, "fenceMetrics", new FenceMetrics(new SimpleMeterRegistry()));
+    }
+
+    @After
+    public void tearDown() {
+        registry.shutdown();
+    }
+
+    private void add(long id) {
+        synchronized (table) {
+            table.add(fence(id));
+        }
+    }
+
+    /**
+     * Waits until the index of the maptype has the given size, as rebuilds run in the background.
+     */
+    private void awaitSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (registry.getIndex("GoogleMaps").size() != size) {
+            Assert.assertTrue("index size " + registry.getIndex("GoogleMaps").size(),
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPreviousIndexServesDuringRebuild() throws InterruptedException {
+        add(1);
+        Assert.assertFalse(registry.isBuilt("GoogleMaps"));
+        FenceIndex first = registry.getIndex("GoogleMaps");
+        Assert.assertTrue(registry.isBuilt("GoogleMaps"));
+        Assert.assertEquals(1, first.size());
+
+        release = new CountDownLatch(1);
+        loading = new CountDownLatch(1);
+        add(2);
+        registry.invalidate("GoogleMaps");
+        Assert.assertTrue(loading.await(10, TimeUnit.SECONDS));
+        Assert.assertSame(first, registry.getIndex("GoogleMaps"));
+        Assert.assertTrue(registry.isBuilt("GoogleMaps"));
+
+        release.countDown();
+        awaitSize(2);
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testBuildFinishedDuringWritesIsInstalled() throws InterruptedException {
+        add(1);
+        registry.getIndex("GoogleMaps");
+
+        release = new CountDownLatch(1);
+        loading = new CountDownLatch(1);
+        add(2);
+        registry.invalidate("GoogleMaps");
+        Assert.assertTrue(loading.await(10, TimeUnit.SECONDS));
+        for (long id = 3; id <= 10; id++) {
+            add(id);
+            registry.invalidate("GoogleMaps");
+        }
+        release.countDown();
+        awaitSize(10);
+        Assert.assertEquals(3, loads.get());
+    }
+}
@@ -0,0 +1,147 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.geometry.GridCells;
+import com.project.geofencing.model.FenceCell;
+import com.project.geofencing.model.FenceDistance;
+import com.project.geofencing.model.GeoCoordinates;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class FenceIndexSnapshotTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("fence-snapshot");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Path file : Files.newDirectoryStream(dir)) {
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    private static List<GeoCoordinates> fences(Random random, int count) {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double lat = random.nextDouble() * 10;
+            double lng = random.nextDouble() * 10;
+            double size = random.nextDouble() * 0.5;
+            GeoCoordinates geoCoordinates = new GeoCoordinates();
+            geoCoordinates.setId(i + 1);
+            geoCoordinates.setMapType("GoogleMaps");
+            geoCoordinates.setName("fence-" + i);
+            geoCoordinates.setCoords(plain(lat) + "," + plain(lng) + ";" + plain(lat + size) + "," + plain(lng) + ";"
+                    + plain(lat + size) + "," + plain(lng + size) + ";" + plain(lat) + "," + plain(lng) + ";");
+            geoCoordinates.setUpdatedAt(new Date(1_500_000_000_000L + i));
+            fences.add(geoCoordinates);
+        }
+        return fences;
+    }
+
+    private static String plain(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+
+    private static void assertSameResults(FenceIndex expected, FenceIndex actual, Random random) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < 2000; i++) {
+            double lat = random.nextDouble() * 11;
+            double lng = random.nextDouble() * 11;
+            List<GeoCoordinates> want = expected.findContaining(lat, lng);
+            List<GeoCoordinates> got = actual.findContaining(lat, lng);
+            Assert.assertEquals(want.size(), got.size());
+            for (int j = 0; j < want.size(); j++) {
+                Assert.assertEquals(want.get(j).getId(), got.get(j).getId());
+                Assert.assertEquals(want.get(j).getCoords(), got.get(j).getCoords());
+            }
+            List<FenceDistance> nearest = expected.findNearest(lat, lng, 3);
+            List<FenceDistance> restored = actual.findNearest(lat, lng, 3);
+            Assert.assertEquals(nearest.size(), restored.size());
+            for (int j = 0; j < nearest.size(); j++) {
+                Assert.assertEquals(nearest.get(j).getDistance(), restored.get(j).getDistance(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(23);
+        List<GeoCoordinates> fences = fences(random, 1500);
+        FenceIndex index = FenceIndex.build(fences);
+        Path file = dir.resolve("fences.snap");
+
+        long watermark = FenceIndexSnapshot.write(file, "GoogleMaps", -1, index);
+        FenceIndexSnapshot snapshot = FenceIndexSnapshot.read(file, "GoogleMaps");
+
+        Assert.assertEquals(1_500_000_000_000L + 1499, watermark);
+        Assert.assertEquals(watermark, snapshot.getWatermark());
+        Assert.assertEquals(-1, snapshot.getCellLevel());
+        assertSameResults(index, snapshot.getIndex(), random);
+    }
+
+    @Test
+    public void testRoundTripWithCells() throws IOException {
+        Random random = new Random(29);
+        List<GeoCoordinates> fences = fences(random, 1000);
+        int level = 12;
+        List<FenceCell> cells = new ArrayList<>();
+        for (GeoCoordinates geoCoordinates : fences) {
+            GridCells.Covering covering = GridCells.cover(geoCoordinates.getPolygon(), level, 100);
+            for (int i = 0; covering != null && i < covering.size(); i++) {
+                cells.add(new FenceCell(geoCoordinates.getId(), covering.getCellId(i), "GoogleMaps", level,
+                        covering.isInside(i)));
+            }
+        }
+        FenceIndex index = FenceIndex.build(fences, cells, level);
+        Path file = dir.resolve("fences.snap");
+
+        FenceIndexSnapshot.write(file, "GoogleMaps", level, index);
+        FenceIndexSnapshot snapshot = FenceIndexSnapshot.read(file, "GoogleMaps");
+
+        Assert.assertEquals(level, snapshot.getCellLevel());
+        assertSameResults(index, snapshot.getIndex(), random);
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherMapTypeRejected() throws IOException {
+        Path file = dir.resolve("fences.snap");
+        FenceIndexSnapshot.write(file, "GoogleMaps", -1, FenceIndex.build(fences(new Random(31), 10)));
+        FenceIndexSnapshot.read(file, "OpenStreetMaps");
+    }
+
+    @Test(expected = IOException.class)
+    public void testOtherVersionRejected() throws IOException {
+        Path file = dir.resolve("fences.snap");
+        FenceIndexSnapshot.write(file, "GoogleMaps", -1, FenceIndex.build(fences(new Random(37), 10)));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[7]++;
+        Files.write(file, bytes);
+        FenceIndexSnapshot.read(file, "GoogleMaps");
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedRejected() throws IOException {
+        Path file = dir.resolve("fences.snap");
+        FenceIndexSnapshot.write(file, "GoogleMaps", -1, FenceIndex.build(fences(new Random(41), 10)));
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(file, truncated);
+        FenceIndexSnapshot.read(file, "GoogleMaps");
+    }
+}
@@ -0,0 +1,184 @@
+package com.project.geofencing.index;
+
+import com.project.geofencing.geometry.GridCells;
+import com.project.geofencing.model.FenceCell;
+import com.project.geofencing.model.FenceDistance;
+import com.project.geofencing.model.GeoCoordinates;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class FenceIndexTest {
+
+    private static GeoCoordinates fence(long id, String coords) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType("GoogleMaps");
+        geoCoordinates.setName("fence-" + id);
+        geoCoordinates.setCoords(coords);
+        return geoCoordinates;
+    }
+
+    private static String square(double lat, double lng, double size) {
+        String minLat = plain(lat);
+        String minLng = plain(lng);
+        String maxLat = plain(lat + size);
+        String maxLng = plain(lng + size);
+        return minLat + "," + minLng + ";" + maxLat + "," + minLng + ";" + maxLat + "," + maxLng + ";"
+                + minLat + "," + maxLng + ";" + minLat + "," + minLng + ";";
+    }
+
+    private static String plain(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+
+    @Test
+    public void testFindContaining() {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        fences.add(fence(1, square(12.0, 77.0, 1.0)));
+        fences.add(fence(2, square(12.5, 77.5, 1.0)));
+        fences.add(fence(3, "12.0,77.0;13.0,77.0;12.0,78.0;"));
+        fences.add(fence(4, "not a polygon"));
+        FenceIndex index = FenceIndex.build(fences);
+
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(2, index.findContaining(12.2, 77.2).size());
+        Assert.assertEquals(2, index.findContaining(12.7, 77.7).size());
+        Assert.assertEquals(2L, index.findContaining(13.2, 78.2).get(0).getId());
+        Assert.assertFalse(index.findContaining(12.9, 77.9).isEmpty());
+        Assert.assertTrue(index.findContaining(10.0, 10.0).isEmpty());
+    }
+
+    @Test
+    public void testFindContainingMatchesBruteForce() {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            fences.add(fence(i, square(random.nextDouble() * 10, random.nextDouble() * 10, random.nextDouble())));
+        }
+        FenceIndex index = FenceIndex.build(fences);
+        for (int i = 0; i < 500; i++) {
+            double lat = random.nextDouble() * 11;
+            double lng = random.nextDouble() * 11;
+            int expected = 0;
+            for (GeoCoordinates geoCoordinates : fences) {
+                if (geoCoordinates.getPolygon().contains(lat, lng)) {
+                    expected++;
+                }
+            }
+            Assert.assertEquals(expected, index.findContaining(lat, lng).size());
+        }
+    }
+
+    @Test
+    public void testFindContainingIds() {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            fences.add(fence(i, square(random.nextDouble() * 10, random.nextDouble() * 10, random.nextDouble())));
+        }
+        FenceIndex index = FenceIndex.build(fences);
+        double[] points = new double[2 * 5000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = random.nextDouble() * 11;
+        }
+        long[][] ids = index.findContainingIds(points);
+        Assert.assertEquals(5000, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            List<GeoCoordinates> expected = index.findContaining(points[2 * i], points[2 * i + 1]);
+            Assert.assertEquals(expected.size(), ids[i].length);
+            for (int j = 0; j < ids[i].length; j++) {
+                Assert.assertEquals(expected.get(j).getId(), ids[i][j]);
+            }
+        }
+    }
+
+    @Test
+    public void testFindContainingWithCellsMatchesBruteForce() {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 1000; i++) {
+            double lat = random.nextDouble() * 10;
+            double lng = random.nextDouble() * 10;
+            double size = random.nextDouble() * 0.5;
+            fences.add(fence(i, i % 2 == 0 ? square(lat, lng, size) : plain(lat) + "," + plain(lng) + ";"
+                    + plain(lat + size) + "," + plain(lng + size / 3) + ";" + plain(lat + size / 4) + ","
+                    + plain(lng + size) + ";" + plain(lat) + "," + plain(lng) + ";"));
+        }
+        int level = 12;
+        List<FenceCell> cells = new ArrayList<>();
+        for (GeoCoordinates geoCoordinates : fences) {
+            GridCells.Covering covering = GridCells.cover(geoCoordinates.getPolygon(), level, 100);
+            for (int i = 0; covering != null && i < covering.size(); i++) {
+                cells.add(new FenceCell(geoCoordinates.getId(), covering.getCellId(i), "GoogleMaps", level,
+                        covering.isInside(i)));
+            }
+        }
+        FenceIndex index = FenceIndex.build(fences, cells, level);
+        for (int i = 0; i < 5000; i++) {
+            double lat = random.nextDouble() * 11;
+            double lng = random.nextDouble() * 11;
+            int expected = 0;
+            for (GeoCoordinates geoCoordinates : fences) {
+                if (geoCoordinates.getPolygon().contains(lat, lng)) {
+                    expected++;
+                }
+            }
+            Assert.assertEquals(expected, index.findContaining(lat, lng).size());
+        }
+    }
+
+    @Test
+    public void testFindNearestAndWithinMatchBruteForce() {
+        List<GeoCoordinates> fences = new ArrayList<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 3000; i++) {
+            fences.add(fence(i, square(12 + random.nextDouble(), 77 + random.nextDouble(), random.nextDouble() * 0.01)));
+        }
+        FenceIndex index = FenceIndex.build(fences);
+        double metersPerDegree = 6371008.8 * Math.PI / 180;
+        for (int i = 0; i < 200; i++) {
+            double lat = 12 + random.nextDouble();
+            double lng = 77 + random.nextDouble();
+            double lngScale = metersPerDegree * Math.cos(Math.toRadians(lat));
+            double[] distances = new double[fences.size()];
+            for (int j = 0; j < fences.size(); j++) {
+                distances[j] = fences.get(j).getPolygon().distance(lat, lng, metersPerDegree, lngScale);
+            }
+            double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+
+            List<FenceDistance> nearest = index.findNearest(lat, lng, 10);
+            Assert.assertEquals(10, nearest.size());
+            for (int j = 0; j < nearest.size(); j++) {
+                Assert.assertEquals(sorted[j], nearest.get(j).getDistance(), 1e-9);
+                Assert.assertEquals(distances[(int) nearest.get(j).getGeoCoordinates().getId()],
+                        nearest.get(j).getDistance(), 1e-9);
+            }
+
+            double radius = 2000;
+            int expected = 0;
+            for (double distance : distances) {
+                if (distance <= radius) {
+                    expected++;
+                }
+            }
+            List<FenceDistance> within = index.findWithin(lat, lng, radius);
+            Assert.assertEquals(expected, within.size());
+            for (int j = 1; j < within.size(); j++) {
+                Assert.assertTrue(within.get(j - 1).getDistance() <= within.get(j).getDistance());
+            }
+            List<FenceDistance> limited = index.findWithin(lat, lng, 1e9, 5);
+            Assert.assertEquals(5, limited.size());
+            for (int j = 0; j < limited.size(); j++) {
+                Assert.assertEquals(sorted[j], limited.get(j).getDistance(), 1e-9);
+            }
+        }
+        Assert.assertTrue(FenceIndex.build(new ArrayList<>()).findNearest(1, 1, 5).isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.geofencing.metrics;
+
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Collections;
+
+public class PayloadMetricsFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private MapTypeTagsProvider mapTypeTagsProvider;
+    private PayloadMetricsFilter payloadMetricsFilter;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        GeoCoordinatesValidation geoCoordinatesValidation = new GeoCoordinatesValidation("GoogleMaps", "MapBox");
+        mapTypeTagsProvider = new MapTypeTagsProvider(geoCoordinatesValidation);
+        payloadMetricsFilter = new PayloadMetricsFilter();
+        ReflectionTestUtils.setField(payloadMetricsFilter, "fenceMetrics", new FenceMetrics(meterRegistry));
+        ReflectionTestUtils.setField(payloadMetricsFilter, "mapTypeTagsProvider", mapTypeTagsProvider);
+    }
+
+    @Test
+    public void testMapTypeTag() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/geocoordinates/maptype/MapBox");
+        Assert.assertEquals("none", mapTypeTagsProvider.mapType(request).getValue());
+
+        request.setParameter("mapType", "GoogleMaps");
+        Assert.assertEquals("GoogleMaps", mapTypeTagsProvider.mapType(request).getValue());
+
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Collections.singletonMap("mapType", "MapBox"));
+        Assert.assertEquals("MapBox", mapTypeTagsProvider.mapType(request).getValue());
+
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Collections.singletonMap("mapType", "random-" + System.nanoTime()));
+        Assert.assertEquals("UNKNOWN", mapTypeTagsProvider.mapType(request).getValue());
+    }
+
+    @Test
+    public void testPayloadSizesRecorded() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/geocoordinates");
+        request.setContent(new byte[123]);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/geocoordinates");
+        request.setParameter("mapType", "GoogleMaps");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        payloadMetricsFilter.doFilter(request, response, (req, res) -> {
+            res.getOutputStream().write(new byte[40]);
+            res.getOutputStream().write(7);
+        });
+
+        DistributionSummary requestSize = meterRegistry.get(FenceMetrics.REQUEST_SIZE)
+                .tags("uri", "/geocoordinates", "method", "POST", "mapType", "GoogleMaps").summary();
+        Assert.assertEquals(1, requestSize.count());
+        Assert.assertEquals(123, requestSize.totalAmount(), 0);
+        DistributionSummary responseSize = meterRegistry.get(FenceMetrics.RESPONSE_SIZE)
+                .tags("uri", "/geocoordinates", "method", "POST", "mapType", "GoogleMaps").summary();
+        Assert.assertEquals(41, responseSize.totalAmount(), 0);
+        Assert.assertEquals(41, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testWriterResponseNotCounted() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/geocoordinates/names");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        payloadMetricsFilter.doFilter(request, response, (req, res) -> res.getWriter().write("names"));
+
+        Assert.assertNull(meterRegistry.find(FenceMetrics.RESPONSE_SIZE).summary());
+        Assert.assertEquals("names", response.getContentAsString());
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.geofencing.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class ChangeCursorTest {
+
+    private static GeoCoordinates upsert(long id, long updatedAt) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType("GoogleMaps");
+        geoCoordinates.setUpdatedAt(new Date(updatedAt));
+        return geoCoordinates;
+    }
+
+    private static FenceTombstone delete(long id, long deletedAt) {
+        return new FenceTombstone(id, "GoogleMaps", new Date(deletedAt));
+    }
+
+    @Test
+    public void testParse() {
+        ChangeCursor cursor = new ChangeCursor(1500000000000L, 42, true);
+        Assert.assertEquals("1500000000000:42:d", cursor.toString());
+        Assert.assertEquals(cursor, ChangeCursor.parse(cursor.toString()));
+        Assert.assertEquals(new ChangeCursor(5, 7, false), ChangeCursor.parse("5:7:u"));
+        Assert.assertNull(ChangeCursor.parse(""));
+        Assert.assertNull(ChangeCursor.parse("5:7"));
+        Assert.assertNull(ChangeCursor.parse("5:7:x"));
+        Assert.assertNull(ChangeCursor.parse("5:seven:u"));
+        Assert.assertNull(ChangeCursor.parse("5:7:u:1"));
+    }
+
+    @Test
+    public void testOrder() {
+        List<ChangeCursor> cursors = new ArrayList<>(Arrays.asList(
+                new ChangeCursor(2, 1, false),
+                new ChangeCursor(1, 9, true),
+                new ChangeCursor(1, 9, false),
+                ChangeCursor.since(2),
+                new ChangeCursor(1, 3, true)));
+        Collections.sort(cursors);
+        Assert.assertEquals(Arrays.asList(
+                new ChangeCursor(1, 3, true),
+                new ChangeCursor(1, 9, false),
+                new ChangeCursor(1, 9, true),
+                ChangeCursor.since(2),
+                new ChangeCursor(2, 1, false)), cursors);
+    }
+
+    @Test
+    public void testMerge() {
+        List<GeoCoordinates> upserts = Arrays.asList(upsert(3, 10), upsert(5, 10), upsert(1, 12));
+        List<FenceTombstone> deletes = Arrays.asList(delete(4, 10), delete(5, 10), delete(2, 11));
+        ChangeCursor from = ChangeCursor.since(10);
+
+        FenceChangePage page = FenceChangePage.merge(upserts, deletes, from, 4);
+        Assert.assertTrue(page.isHasMore());
+        Assert.assertEquals(4, page.getChanges().size());
+        Assert.assertEquals(3, page.getChanges().get(0).getId());
+        Assert.assertEquals(FenceChange.Type.DELETE, page.getChanges().get(1).getType());
+        Assert.assertEquals(4, page.getChanges().get(1).getId());
+        Assert.assertEquals(FenceChange.Type.UPSERT, page.getChanges().get(2).getType());
+        Assert.assertEquals(5, page.getChanges().get(2).getId());
+        Assert.assertEquals(FenceChange.Type.DELETE, page.getChanges().get(3).getType());
+        Assert.assertEquals(5, page.getChanges().get(3).getId());
+        Assert.assertEquals("10:5:d", page.getNextCursor());
+
+        page = FenceChangePage.merge(upserts.subList(2, 3), deletes.subList(2, 3), ChangeCursor.parse("10:5:d"), 4);
+        Assert.assertFalse(page.isHasMore());
+        Assert.assertEquals(2, page.getChanges().size());
+        Assert.assertEquals(2, page.getChanges().get(0).getId());
+        Assert.assertEquals(1, page.getChanges().get(1).getId());
+        Assert.assertEquals("12:1:u", page.getNextCursor());
+    }
+
+    @Test
+    public void testMergeEmptyKeepsCursor() {
+        ChangeCursor from = new ChangeCursor(10, 5, false);
+        FenceChangePage page = FenceChangePage.merge(Collections.emptyList(), Collections.emptyList(), from, 10);
+        Assert.assertFalse(page.isHasMore());
+        Assert.assertTrue(page.getChanges().isEmpty());
+        Assert.assertEquals(from.toString(), page.getNextCursor());
+    }
+}
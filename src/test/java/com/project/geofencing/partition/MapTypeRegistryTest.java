@@ -0,0 +1,133 @@
+package com.project.geofencing.partition;
+
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.model.FenceMapType;
+import com.project.geofencing.repository.FenceMapTypeRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class MapTypeRegistryTest {
+
+    private Map<String, FenceMapType> table;
+
+    private int reads;
+
+    @Before
+    public void setUp() {
+        table = new LinkedHashMap<>();
+        reads = 0;
+    }
+
+    /**
+     * Returns a registry over the table, as if the table was the geofence_map_types table.
+     */
+    private MapTypeRegistry registry() {
+        return registry(50);
+    }
+
+    private MapTypeRegistry registry(int maxRegistered) {
+        FenceMapTypeRepository repository = (FenceMapTypeRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{FenceMapTypeRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findAllNames":
+                            reads++;
+                            return new ArrayList<>(table.keySet());
+                        case "count":
+                            return (long) table.size();
+                        case "existsById":
+                            return table.containsKey(args[0]);
+                        case "save":
+                            FenceMapType mapType = (FenceMapType) args[0];
+                            table.put(mapType.getName(), mapType);
+                            return mapType;
+                        case "toString":
+                            return "FenceMapTypeRepository" + table.keySet();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        MapTypeRegistry registry = new MapTypeRegistry(new String[]{"GoogleMaps", "MapBox"}, maxRegistered);
+        ReflectionTestUtils.setField(registry, "fenceMapTypeRepository", repository);
+        registry.refresh();
+        return registry;
+    }
+
+    @Test
+    public void testConfiguredThenRegisteredMapTypes() throws ResourceNotFoundException {
+        table.put("Tiles", new FenceMapType("Tiles", null));
+        table.put("Here", new FenceMapType("Here", null));
+        MapTypeRegistry registry = registry();
+
+        Assert.assertTrue(registry.contains("GoogleMaps"));
+        Assert.assertEquals(Arrays.asList("GoogleMaps", "MapBox", "Here", "Tiles"),
+                new ArrayList<>(registry.getMapTypes()));
+
+        Assert.assertTrue(registry.register("Osm"));
+        Assert.assertTrue(table.containsKey("Osm"));
+        Assert.assertTrue(registry.contains("Osm"));
+        Assert.assertFalse(registry.register("Osm"));
+        Assert.assertFalse(registry.register("MapBox"));
+        Assert.assertFalse(table.containsKey("MapBox"));
+    }
+
+    @Test
+    public void testUnknownMapTypeDoesNotReadTable() {
+        MapTypeRegistry registry = registry();
+        Assert.assertEquals(1, reads);
+        table.put("Tiles", new FenceMapType("Tiles", null));
+        Assert.assertFalse(registry.contains("Tiles"));
+        Assert.assertFalse(registry.contains(null));
+        Assert.assertEquals(1, reads);
+
+        registry.refresh();
+        Assert.assertTrue(registry.contains("Tiles"));
+        Assert.assertTrue(registry.contains("GoogleMaps"));
+        Assert.assertEquals(2, reads);
+    }
+
+    @Test
+    public void testRegisteredMapTypesAreCapped() throws ResourceNotFoundException {
+        table.put("Tiles", new FenceMapType("Tiles", null));
+        table.put("Here", new FenceMapType("Here", null));
+        table.put("Bing", new FenceMapType("Bing", null));
+        MapTypeRegistry registry = registry(2);
+        Assert.assertEquals(Arrays.asList("GoogleMaps", "MapBox", "Bing", "Here"),
+                new ArrayList<>(registry.getMapTypes()));
+        try {
+            registry.register("Osm");
+            Assert.fail();
+        } catch (ResourceNotFoundException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Invaild Map type registration: Osm"));
+        }
+        Assert.assertFalse(table.containsKey("Osm"));
+        Assert.assertFalse(registry.register("Here"));
+        Assert.assertFalse(registry.register("GoogleMaps"));
+    }
+
+    @Test
+    public void testInvalidName() {
+        MapTypeRegistry registry = registry();
+        for (String name : Arrays.asList("", "a:b", "a/b", "a b", new String(new char[65]).replace('\0', 'a'))) {
+            try {
+                registry.register(name);
+                Assert.fail(name);
+            } catch (ResourceNotFoundException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Invaild Map type name: "));
+            }
+        }
+        Assert.assertTrue(table.isEmpty());
+    }
+}
@@ -0,0 +1,195 @@
+package com.project.geofencing.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.event.GeoCoordinatesChangedElsewhereEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent;
+import com.project.geofencing.event.GeoCoordinatesChangedEvent.ChangeType;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.model.GeoCoordinates;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+
+public class FenceChangeBroadcasterTest {
+
+    private static final class RecordingSink implements EventSink {
+
+        private final List<PushEvent> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(PushEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private List<String> names() {
+            List<String> names = new ArrayList<>();
+            for (PushEvent event : events) {
+                names.add(event.isHeartbeat() ? "heartbeat" : event.getName());
+            }
+            return names;
+        }
+
+        private String lastId() {
+            return events.get(events.size() - 1).getId();
+        }
+    }
+
+    private static GeoCoordinatesChangedEvent change(ChangeType changeType, long id, String mapType) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setMapType(mapType);
+        geoCoordinates.setName("fence-" + id);
+        geoCoordinates.setCoords("12.0,77.0;13.0,77.0;13.0,78.0;12.0,77.0;");
+        geoCoordinates.setUpdatedAt(new Date());
+        return new GeoCoordinatesChangedEvent(changeType, geoCoordinates);
+    }
+
+    @Test
+    public void testBroadcastToMapTypeSubscribers() {
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), Runnable::run, 16, 64, 0);
+        RecordingSink google = new RecordingSink();
+        RecordingSink mapBox = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, google);
+        broadcaster.subscribe("MapBox", null, mapBox);
+
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 1, "GoogleMaps"));
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.UPDATED, 1, "GoogleMaps"));
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.DELETED, 1, "GoogleMaps"));
+        broadcaster.sendHeartbeats();
+
+        Assert.assertEquals(2, broadcaster.getSubscriberCount());
+        Assert.assertEquals(Arrays.asList("upsert", "upsert", "delete", "heartbeat"), google.names());
+        Assert.assertTrue(google.events.get(0).getData().contains("\"type\":\"UPSERT\""));
+        Assert.assertTrue(google.events.get(2).getData().contains("\"type\":\"DELETE\""));
+        Assert.assertEquals(Arrays.asList("heartbeat"), mapBox.names());
+    }
+
+    @Test
+    public void testReplayAfterReconnect() {
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), Runnable::run, 16, 4, 0);
+        RecordingSink first = new RecordingSink();
+        FenceChangeBroadcaster.Subscriber subscriber = broadcaster.subscribe("GoogleMaps", null, first);
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 1, "GoogleMaps"));
+        String lastId = first.lastId();
+        subscriber.close();
+        Assert.assertTrue(first.closed);
+        Assert.assertEquals(0, broadcaster.getSubscriberCount());
+
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 2, "GoogleMaps"));
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.DELETED, 1, "GoogleMaps"));
+        RecordingSink resumed = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", lastId, resumed);
+        Assert.assertEquals(Arrays.asList("upsert", "delete"), resumed.names());
+        Assert.assertTrue(resumed.events.get(0).getData().contains("\"id\":2"));
+
+        RecordingSink upToDate = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", resumed.lastId(), upToDate);
+        Assert.assertTrue(upToDate.events.isEmpty());
+    }
+
+    @Test
+    public void testImportPushedAsOneResync() {
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), Runnable::run, 2, 64, 0);
+        RecordingSink google = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, google);
+
+        broadcaster.onGeoCoordinatesImported(new GeoCoordinatesImportedEvent("GoogleMaps", 1000));
+        broadcaster.onGeoCoordinatesImported(new GeoCoordinatesImportedEvent("MapBox", 10));
+
+        Assert.assertEquals(1, broadcaster.getSubscriberCount());
+        Assert.assertEquals(Arrays.asList("resync"), google.names());
+        Assert.assertEquals("{\"mapType\":\"GoogleMaps\",\"imported\":1000}", google.events.get(0).getData());
+
+        RecordingSink resumed = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", google.events.get(0).getId().replaceAll("-\\d+$", "-0"), resumed);
+        Assert.assertEquals(Arrays.asList("resync"), resumed.names());
+    }
+
+    @Test
+    public void testChangeElsewherePushedAsResync() {
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), Runnable::run, 16, 64, 0);
+        RecordingSink google = new RecordingSink();
+        RecordingSink mapBox = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, google);
+        broadcaster.subscribe("MapBox", null, mapBox);
+
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 1, "GoogleMaps"));
+        broadcaster.onGeoCoordinatesChangedElsewhere(new GeoCoordinatesChangedElsewhereEvent("GoogleMaps"));
+
+        Assert.assertEquals(Arrays.asList("upsert", "resync"), google.names());
+        Assert.assertEquals("{\"mapType\":\"GoogleMaps\",\"changedElsewhere\":true}", google.events.get(1).getData());
+        Assert.assertTrue(mapBox.names().isEmpty());
+
+        RecordingSink resumed = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", google.events.get(0).getId(), resumed);
+        Assert.assertEquals(Arrays.asList("resync"), resumed.names());
+    }
+
+    @Test
+    public void testResyncWhenReplayIsNotPossible() {
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), Runnable::run, 16, 2, 0);
+        RecordingSink first = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, first).close();
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 1, "GoogleMaps"));
+        RecordingSink second = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, second);
+        for (int i = 2; i <= 4; i++) {
+            broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, i, "GoogleMaps"));
+        }
+        String secondId = second.events.get(0).getId();
+        String firstId = secondId.substring(0, secondId.lastIndexOf('-')) + "-1";
+
+        RecordingSink tooOld = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", firstId, tooOld);
+        Assert.assertEquals(Arrays.asList("resync"), tooOld.names());
+        Assert.assertEquals(second.lastId(), tooOld.lastId());
+
+        RecordingSink otherProcess = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", "abc-1", otherProcess);
+        Assert.assertEquals(Arrays.asList("resync"), otherProcess.names());
+
+        RecordingSink garbage = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", "not an id", garbage);
+        Assert.assertEquals(Arrays.asList("resync"), garbage.names());
+    }
+
+    @Test
+    public void testSlowSubscriberDisconnected() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        FenceChangeBroadcaster broadcaster = new FenceChangeBroadcaster(new ObjectMapper(), pending::add, 2, 64, 0);
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        broadcaster.subscribe("GoogleMaps", null, first);
+        broadcaster.subscribe("GoogleMaps", null, second);
+
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 1, "GoogleMaps"));
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 2, "GoogleMaps"));
+        Assert.assertEquals(2, pending.size());
+        pending.remove().run();
+        RecordingSink drained = first.events.isEmpty() ? second : first;
+        RecordingSink stalled = first.events.isEmpty() ? first : second;
+        Assert.assertEquals(2, drained.events.size());
+
+        broadcaster.onGeoCoordinatesChanged(change(ChangeType.CREATED, 3, "GoogleMaps"));
+        Assert.assertTrue(stalled.closed);
+        Assert.assertFalse(drained.closed);
+        Assert.assertEquals(1, broadcaster.getSubscriberCount());
+        while (!pending.isEmpty()) {
+            pending.remove().run();
+        }
+        Assert.assertEquals(3, drained.events.size());
+        Assert.assertTrue(stalled.events.isEmpty());
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.geofencing.repository;
+
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesSummary;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class GeoCoordinatesRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    private GeoCoordinates persist(String name, String mapType, String coords) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setName(name);
+        geoCoordinates.setMapType(mapType);
+        geoCoordinates.setCoords(coords);
+        return entityManager.persist(geoCoordinates);
+    }
+
+    @Test
+    public void testSummariesInIdOrderWithBoundingBox() {
+        GeoCoordinates first = persist("first", "GoogleMaps", "12.0,77.0;13.0,77.0;13.0,78.5;12.0,77.0;");
+        persist("other", "MapBox", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        GeoCoordinates unmigrated = persist("unmigrated", "GoogleMaps", "20.0,70.0;21.0,70.0;21.0,71.0;20.0,70.0;");
+        GeoCoordinates invalid = persist("invalid", "GoogleMaps", "not coords");
+        entityManager.flush();
+        entityManager.getEntityManager().createNativeQuery("UPDATE geocoordinates SET min_lat = NULL, " +
+                "min_lng = NULL, max_lat = NULL, max_lng = NULL, geometry = NULL WHERE id = ?1")
+                .setParameter(1, unmigrated.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        List<GeoCoordinatesSummary> summaries = geoCoordinatesRepository.findSummariesByMapType("GoogleMaps");
+
+        Assert.assertEquals(3, summaries.size());
+        Assert.assertTrue(summaries.get(0).getId() < summaries.get(1).getId());
+        Assert.assertTrue(summaries.get(1).getId() < summaries.get(2).getId());
+
+        GeoCoordinatesSummary summary = summaries.get(0);
+        Assert.assertEquals(first.getId(), summary.getId());
+        Assert.assertEquals("first", summary.getName());
+        Assert.assertEquals(12.0, summary.getMinLat(), 0);
+        Assert.assertEquals(77.0, summary.getMinLng(), 0);
+        Assert.assertEquals(13.0, summary.getMaxLat(), 0);
+        Assert.assertEquals(78.5, summary.getMaxLng(), 0);
+
+        for (GeoCoordinatesSummary withoutBox : summaries.subList(1, 3)) {
+            Assert.assertNull(withoutBox.getMinLat());
+            Assert.assertNull(withoutBox.getMinLng());
+            Assert.assertNull(withoutBox.getMaxLat());
+            Assert.assertNull(withoutBox.getMaxLng());
+        }
+        Assert.assertEquals(unmigrated.getId(), summaries.get(1).getId());
+        Assert.assertEquals(invalid.getId(), summaries.get(2).getId());
+        Assert.assertTrue(geoCoordinatesRepository.findSummariesByMapType("Tiles").isEmpty());
+    }
+
+    @Test
+    public void testKeysetPageAfterId() {
+        GeoCoordinates first = persist("first", "GoogleMaps", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        persist("other", "MapBox", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        GeoCoordinates second = persist("second", "GoogleMaps", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        GeoCoordinates third = persist("third", "GoogleMaps", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        entityManager.flush();
+
+        List<GeoCoordinates> page = geoCoordinatesRepository.findByMapTypeAndIdGreaterThanOrderByIdAsc(
+                "GoogleMaps", 0, PageRequest.of(0, 2));
+        Assert.assertEquals(Arrays.asList(first.getId(), second.getId()),
+                page.stream().map(GeoCoordinates::getId).collect(Collectors.toList()));
+
+        page = geoCoordinatesRepository.findByMapTypeAndIdGreaterThanOrderByIdAsc(
+                "GoogleMaps", second.getId(), PageRequest.of(0, 2));
+        Assert.assertEquals(Arrays.asList(third.getId()),
+                page.stream().map(GeoCoordinates::getId).collect(Collectors.toList()));
+        Assert.assertTrue(geoCoordinatesRepository.findByMapTypeAndIdGreaterThanOrderByIdAsc(
+                "GoogleMaps", third.getId(), PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    public void testStreamByMapTypeInIdOrder() {
+        GeoCoordinates first = persist("first", "GoogleMaps", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        persist("other", "MapBox", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        GeoCoordinates second = persist("second", "GoogleMaps", "1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<GeoCoordinates> stream = geoCoordinatesRepository.streamByMapType("GoogleMaps")) {
+            Assert.assertEquals(Arrays.asList(first.getId(), second.getId()),
+                    stream.map(GeoCoordinates::getId).collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.geofencing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.geofencing.cache.MapTypeVersions;
+import com.project.geofencing.event.GeoCoordinatesImportedEvent;
+import com.project.geofencing.index.FenceCellStore;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.model.BulkImportReport;
+import com.project.geofencing.model.BulkImportReport.ChunkReport;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.partition.MapTypeRegistry;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import com.project.geofencing.validaton.GeoCoordinatesValidation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs outside the test transaction, as every chunk commits or rolls back in its own.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class GeoCoordinatesImportServiceImplTest {
+
+    private static final String SQUARE = "12.0,77.0;12.0,78.0;13.0,78.0;13.0,77.0;12.0,77.0;";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private GeoCoordinatesImportServiceImpl importService;
+
+    private final List<Object> events = new ArrayList<>();
+
+    private static String line(String name, String mapType) {
+        return "{\"name\":\"" + name + "\",\"mapType\":\"" + mapType + "\",\"coords\":\"" + SQUARE + "\"}\n";
+    }
+
+    @Before
+    public void setUp() {
+        FenceMetrics fenceMetrics = new FenceMetrics(new SimpleMeterRegistry());
+        importService = new GeoCoordinatesImportServiceImpl(transactionManager);
+        ReflectionTestUtils.setField(importService, "geoCoordinatesValidation", new GeoCoordinatesValidation(
+                new MapTypeRegistry(new String[]{"GoogleMaps", "MapBox"}, 50), fenceMetrics));
+        ReflectionTestUtils.setField(importService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "fenceCellStore", new FenceCellStore(new String[0], 16, 65536));
+        ReflectionTestUtils.setField(importService, "eventPublisher", (ApplicationEventPublisher) events::add);
+        ReflectionTestUtils.setField(importService, "mapTypeVersions", new MapTypeVersions());
+        ReflectionTestUtils.setField(importService, "fenceMetrics", fenceMetrics);
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        ReflectionTestUtils.setField(importService, "batchSize", 100);
+    }
+
+    @After
+    public void tearDown() {
+        geoCoordinatesRepository.deleteAllInBatch();
+    }
+
+    private BulkImportReport importLines(String ndjson) throws IOException {
+        return importService.importGeoCords(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> storedNames() {
+        return geoCoordinatesRepository.findAll().stream().map(GeoCoordinates::getName).sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testChunksCommitAndRollBackOnTheirOwn() throws IOException {
+        String tooLong = String.join("", Collections.nCopies(300, "x"));
+        BulkImportReport report = importLines(line("first", "GoogleMaps")
+                + line("osm", "Osm")
+                + line("rolled-back", "GoogleMaps")
+                + line(tooLong, "GoogleMaps")
+                + "\n"
+                + line("second", "GoogleMaps")
+                + line("third", "MapBox"));
+
+        Assert.assertEquals(3, report.getChunks().size());
+        Assert.assertEquals(3, report.getAccepted());
+        Assert.assertEquals(3, report.getRejected());
+
+        ChunkReport first = report.getChunks().get(0);
+        Assert.assertEquals(1, first.getFirstLine());
+        Assert.assertEquals(1, first.getAccepted());
+        Assert.assertEquals(1, first.getFailures().size());
+        Assert.assertEquals(2, first.getFailures().get(0).getLine());
+        Assert.assertEquals("Invaild Map type: Osm :: Expected: [GoogleMaps, MapBox]",
+                first.getFailures().get(0).getMessage());
+
+        ChunkReport rolledBack = report.getChunks().get(1);
+        Assert.assertEquals(3, rolledBack.getFirstLine());
+        Assert.assertEquals(0, rolledBack.getAccepted());
+        Assert.assertEquals(2, rolledBack.getFailures().size());
+        Assert.assertEquals(3, rolledBack.getFailures().get(0).getLine());
+        Assert.assertEquals(4, rolledBack.getFailures().get(1).getLine());
+        Assert.assertTrue(rolledBack.getFailures().get(0).getMessage().startsWith("Chunk rolled back :: "));
+
+        ChunkReport last = report.getChunks().get(2);
+        Assert.assertEquals(6, last.getFirstLine());
+        Assert.assertEquals(2, last.getAccepted());
+        Assert.assertTrue(last.getFailures().isEmpty());
+
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), storedNames());
+    }
+
+    @Test
+    public void testEventsPublishedPerCommittedChunkAndMapType() throws IOException {
+        importLines(line("first", "GoogleMaps")
+                + line("second", "MapBox")
+                + line("third", "GoogleMaps")
+                + line("fourth", "GoogleMaps")
+                + line("fifth", "MapBox")
+                + line(String.join("", Collections.nCopies(300, "x")), "MapBox"));
+
+        Assert.assertEquals(Arrays.asList("GoogleMaps=1", "MapBox=1", "GoogleMaps=2"), events.stream()
+                .map(event -> (GeoCoordinatesImportedEvent) event)
+                .map(event -> event.getMapType() + "=" + event.getCount())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testInvalidJsonStopsImport() throws IOException {
+        BulkImportReport report = importLines(line("first", "GoogleMaps")
+                + line("second", "GoogleMaps")
+                + line("third", "GoogleMaps")
+                + "{\"name\":\"broken\",}\n"
+                + line("after", "GoogleMaps"));
+
+        Assert.assertEquals(2, report.getChunks().size());
+        Assert.assertEquals(3, report.getAccepted());
+        Assert.assertEquals(1, report.getRejected());
+        ChunkReport last = report.getChunks().get(1);
+        Assert.assertEquals(3, last.getFirstLine());
+        Assert.assertEquals(1, last.getAccepted());
+        Assert.assertEquals(4, last.getFailures().get(0).getLine());
+        Assert.assertTrue(last.getFailures().get(0).getMessage().startsWith("Import stopped, invalid json :: "));
+        Assert.assertEquals(Arrays.asList("first", "second", "third"), storedNames());
+    }
+}
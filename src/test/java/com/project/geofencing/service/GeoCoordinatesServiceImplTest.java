@@ -0,0 +1,110 @@
+package com.project.geofencing.service;
+
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import com.project.geofencing.repository.GeoCoordinatesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class GeoCoordinatesServiceImplTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private GeoCoordinatesRepository geoCoordinatesRepository;
+
+    private GeoCoordinatesServiceImpl geoCoordinatesService;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private GeoCoordinates persist(String name, String mapType) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setName(name);
+        geoCoordinates.setMapType(mapType);
+        geoCoordinates.setCoords("1.0,1.0;2.0,1.0;2.0,2.0;1.0,1.0;");
+        return entityManager.persist(geoCoordinates);
+    }
+
+    private static List<Long> idsOf(List<GeoCoordinates> geoCoordinatesList) {
+        return geoCoordinatesList.stream().map(GeoCoordinates::getId).collect(Collectors.toList());
+    }
+
+    @Before
+    public void setUp() {
+        geoCoordinatesService = new GeoCoordinatesServiceImpl(transactionManager);
+        ReflectionTestUtils.setField(geoCoordinatesService, "geoCoordinatesRepository", geoCoordinatesRepository);
+        ReflectionTestUtils.setField(geoCoordinatesService, "fenceMetrics",
+                new FenceMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(geoCoordinatesService, "entityManager", entityManager.getEntityManager());
+        for (int i = 0; i < 5; i++) {
+            ids.add(persist("fence-" + i, "GoogleMaps").getId());
+            persist("other-" + i, "MapBox");
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testPagesFollowNextCursor() {
+        GeoCoordinatesPage page = geoCoordinatesService.fetchGeoCordsPage("GoogleMaps", 0, 2);
+        Assert.assertEquals(ids.subList(0, 2), idsOf(page.getItems()));
+        Assert.assertEquals(ids.get(1), page.getNextCursor());
+
+        page = geoCoordinatesService.fetchGeoCordsPage("GoogleMaps", page.getNextCursor(), 2);
+        Assert.assertEquals(ids.subList(2, 4), idsOf(page.getItems()));
+        Assert.assertEquals(ids.get(3), page.getNextCursor());
+
+        page = geoCoordinatesService.fetchGeoCordsPage("GoogleMaps", page.getNextCursor(), 2);
+        Assert.assertEquals(ids.subList(4, 5), idsOf(page.getItems()));
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testFullLastPageHasNoNextCursor() {
+        GeoCoordinatesPage page = geoCoordinatesService.fetchGeoCordsPage("GoogleMaps", 0, 5);
+        Assert.assertEquals(ids, idsOf(page.getItems()));
+        Assert.assertNull(page.getNextCursor());
+
+        page = geoCoordinatesService.fetchGeoCordsPage("GoogleMaps", ids.get(4), 5);
+        Assert.assertEquals(Collections.emptyList(), page.getItems());
+        Assert.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void testStreamedRowsAreDetached() {
+        List<GeoCoordinates> streamed = new ArrayList<>();
+        geoCoordinatesService.streamGeoCords("GoogleMaps", geoCoordinates -> {
+            Assert.assertTrue(entityManager.getEntityManager().contains(geoCoordinates));
+            streamed.add(geoCoordinates);
+        });
+
+        Assert.assertEquals(ids, idsOf(streamed));
+        for (GeoCoordinates geoCoordinates : streamed) {
+            Assert.assertFalse(entityManager.getEntityManager().contains(geoCoordinates));
+        }
+        Assert.assertEquals(Arrays.asList("fence-0", "fence-4"),
+                Arrays.asList(streamed.get(0).getName(), streamed.get(4).getName()));
+    }
+}
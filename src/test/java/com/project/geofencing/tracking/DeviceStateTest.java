@@ -0,0 +1,99 @@
+package com.project.geofencing.tracking;
+
+import com.project.geofencing.event.FenceTransitionEvent;
+import com.project.geofencing.event.FenceTransitionEvent.TransitionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DeviceStateTest {
+
+    private static final long DWELL = 1000;
+
+    private final List<FenceTransitionEvent> events = new ArrayList<>();
+
+    private DeviceState advance(DeviceState previous, long timestamp, long... containing) {
+        events.clear();
+        return DeviceState.advance(previous, containing, timestamp, timestamp, DWELL, "GoogleMaps", "d1", events);
+    }
+
+    private void assertEvents(String... expected) {
+        List<String> actual = new ArrayList<>();
+        for (FenceTransitionEvent event : events) {
+            actual.add(event.getTransitionType() + ":" + event.getFenceId());
+        }
+        Assert.assertEquals(Arrays.asList(expected), actual);
+    }
+
+    @Test
+    public void testEnterDwellExit() {
+        DeviceState state = advance(null, 0);
+        Assert.assertNull(state);
+        assertEvents();
+
+        state = advance(null, 100, 1, 2);
+        assertEvents(TransitionType.ENTER + ":1", TransitionType.ENTER + ":2");
+        Assert.assertArrayEquals(new long[]{1, 2}, state.getFenceIds());
+
+        state = advance(state, 600, 2, 3);
+        assertEvents(TransitionType.EXIT + ":1", TransitionType.ENTER + ":3");
+
+        state = advance(state, 1100, 2, 3);
+        assertEvents(TransitionType.DWELL + ":2");
+
+        state = advance(state, 1700, 2, 3);
+        assertEvents(TransitionType.DWELL + ":3");
+
+        state = advance(state, 5000, 2, 3);
+        assertEvents();
+
+        state = advance(state, 5100);
+        assertEvents(TransitionType.EXIT + ":2", TransitionType.EXIT + ":3");
+        Assert.assertTrue(state.isTombstone());
+        Assert.assertArrayEquals(new long[0], state.getFenceIds());
+    }
+
+    @Test
+    public void testLateUpdateAfterExitIsIgnored() {
+        DeviceState state = advance(null, 100, 1);
+        DeviceState tombstone = advance(state, 200);
+        assertEvents(TransitionType.EXIT + ":1");
+        Assert.assertSame(tombstone, advance(tombstone, 150, 1));
+        assertEvents();
+
+        events.clear();
+        DeviceState later = DeviceState.advance(tombstone, new long[0], 300, 5000, DWELL, "GoogleMaps", "d1",
+                events);
+        assertEvents();
+        Assert.assertEquals(300, later.getTimestamp());
+        Assert.assertEquals(200, later.getLastSeen());
+        Assert.assertSame(later, advance(later, 250, 1));
+
+        advance(later, 400, 1);
+        assertEvents(TransitionType.ENTER + ":1");
+        Assert.assertNull(advance(null, 500));
+    }
+
+    @Test
+    public void testOutOfOrderUpdateIsIgnored() {
+        DeviceState state = advance(null, 100, 1);
+        DeviceState stale = advance(state, 50);
+        Assert.assertSame(state, stale);
+        assertEvents();
+    }
+
+    @Test
+    public void testReEnterRestartsDwell() {
+        DeviceState state = advance(null, 0, 1);
+        state = advance(state, 1000, 1);
+        assertEvents(TransitionType.DWELL + ":1");
+        state = advance(state, 1100);
+        state = advance(state, 1200, 1);
+        assertEvents(TransitionType.ENTER + ":1");
+        advance(state, 1300, 1);
+        assertEvents();
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.geofencing.validaton;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CoordsValidatorTest {
+
+    private static void assertError(String coords, CoordsError.Code code, int position) {
+        CoordsError error = CoordsValidator.validate(coords);
+        Assert.assertNotNull("Expected " + code + " for :: " + coords, error);
+        Assert.assertEquals(coords, code, error.getCode());
+        Assert.assertEquals(coords, position, error.getPosition());
+    }
+
+    @Test
+    public void testValidRings() {
+        Assert.assertNull(CoordsValidator.validate("0,0;10,0;10,10;0,0;"));
+        Assert.assertNull(CoordsValidator.validate("0,0;10,0;10,10;0,0"));
+        Assert.assertNull(CoordsValidator.validate("-12.9350228364711183,-77.61171432204848;-12.93,-77.6;"
+                + "-12.94,-77.62;-90,180;-12.9350228364711183,-77.61171432204848;"));
+        Assert.assertNull(CoordsValidator.validate("0.0000000000000000000000001,0;10,0.000000000000000000001;"
+                + "10.12345678901234567890123,10;0.0000000000000000000000001,0;"));
+    }
+
+    @Test
+    public void testFormatErrors() {
+        assertError("", CoordsError.Code.EMPTY, 0);
+        assertError(null, CoordsError.Code.EMPTY, 0);
+        assertError("0,0;1a,0;", CoordsError.Code.INVALID_CHARACTER, 5);
+        assertError("0,0;1 ,0;", CoordsError.Code.INVALID_CHARACTER, 5);
+        assertError("0,0;1/2,0;", CoordsError.Code.INVALID_CHARACTER, 5);
+        assertError("0,0;1.2.3,0;", CoordsError.Code.MALFORMED_NUMBER, 7);
+        assertError("0,0;1-2,0;", CoordsError.Code.MALFORMED_NUMBER, 5);
+        assertError("0,0;-,0;", CoordsError.Code.MALFORMED_NUMBER, 4);
+        assertError("0,0;.,0;", CoordsError.Code.MALFORMED_NUMBER, 4);
+        assertError("0,0;;1,0;", CoordsError.Code.MALFORMED_NUMBER, 4);
+        assertError("0,0;90.0001,0;", CoordsError.Code.LATITUDE_OUT_OF_RANGE, 4);
+        assertError("0,0;1,-180.5;", CoordsError.Code.LONGITUDE_OUT_OF_RANGE, 6);
+    }
+
+    @Test
+    public void testPolygonErrors() {
+        assertError("0,0;10;10,10;0,0;", CoordsError.Code.UNEXPECTED_SEPARATOR, 6);
+        assertError("0,0;10,0,10;0,0;", CoordsError.Code.UNEXPECTED_SEPARATOR, 8);
+        assertError("0,0;10,0;10,10;0", CoordsError.Code.MISSING_LONGITUDE, 16);
+        assertError("0,0;10,0;10,10;0,", CoordsError.Code.MISSING_LONGITUDE, 17);
+        assertError("0,0;10,0;0,0;", CoordsError.Code.TOO_FEW_VERTICES, 13);
+        assertError("0,0;10,0;10,10;0,10;", CoordsError.Code.RING_NOT_CLOSED, 20);
+    }
+
+    @Test
+    public void testFormatErrorsWinOverPolygonErrors() {
+        assertError("0,0,0;10,0;10,10;x", CoordsError.Code.INVALID_CHARACTER, 17);
+    }
+
+    @Test
+    public void testRingErrors() {
+        Assert.assertNull(CoordsValidator.validateRing("0,0;10,0;10,10;0,0;"));
+        Assert.assertNull(CoordsValidator.validateRing("0,0;0,10;10,10;10,0;0,0"));
+        Assert.assertEquals(CoordsError.Code.RING_NOT_CLOSED,
+                CoordsValidator.validateRing("0,0;10,0;10,10;0,10;").getCode());
+        Assert.assertEquals(CoordsError.Code.SELF_INTERSECTION,
+                CoordsValidator.validateRing("0,0;5,0;10,0;0,0;").getCode());
+        CoordsError bowTie = CoordsValidator.validateRing("0,0;10,10;10,0;0,10;0,0;");
+        Assert.assertEquals(CoordsError.Code.SELF_INTERSECTION, bowTie.getCode());
+        Assert.assertFalse(bowTie.isFormatError());
+        Assert.assertTrue(bowTie.getPosition() == 0 || "0,0;10,10;10,0;0,10;0,0;".charAt(bowTie.getPosition() - 1) == ';');
+    }
+
+    @Test
+    public void testMultipleRings() {
+        Assert.assertNull(CoordsValidator.validate("0,0;0,10;10,10;0,0;/2,3;3,8;4,6;2,3;"));
+        Assert.assertNull(CoordsValidator.validate("0,0;0,10;10,10;0,0/2,3;3,8;4,6;2,3"));
+        assertError("0,0;0,10;10,10;0,0;/2,3;3,8;2,3;", CoordsError.Code.TOO_FEW_VERTICES, 32);
+        assertError("0,0;0,10;10,10;0,10;/2,3;3,8;4,6;2,3;", CoordsError.Code.RING_NOT_CLOSED, 20);
+        assertError("0,0;0,10;10,10;0,0;/", CoordsError.Code.TOO_FEW_VERTICES, 20);
+        assertError("0,0;0,10;10,10;0,0;//2,3;3,8;4,6;2,3;", CoordsError.Code.INVALID_CHARACTER, 20);
+        assertError("0,0;0,10;10,10;0,0;/2,3;3,8;x", CoordsError.Code.INVALID_CHARACTER, 28);
+        assertError("0,0;10,10;0,10;/2,3;3,8,4,6;2,3;", CoordsError.Code.UNEXPECTED_SEPARATOR, 23);
+
+        Assert.assertNull(CoordsValidator.validateRing("0,0;0,10;10,10;10,0;0,0;/2,2;4,2;4,4;2,4;2,2;"));
+        CoordsError crossing = CoordsValidator.validateRing("0,0;0,10;10,10;10,0;0,0;/5,5;5,15;15,15;15,5;5,5;");
+        Assert.assertEquals(CoordsError.Code.SELF_INTERSECTION, crossing.getCode());
+        String touching = "0,0;0,10;10,10;10,0;0,0;/2,2;2,2;3,3;2,2;";
+        Assert.assertEquals(25, CoordsValidator.validateRing(touching).getPosition());
+        Assert.assertEquals(24, CoordsValidator.validateRing(touching.replace(";/", "/")).getPosition());
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.geofencing.validaton;
+
+import com.project.geofencing.exception.ResourceNotFoundException;
+import com.project.geofencing.metrics.FenceMetrics;
+import com.project.geofencing.partition.MapTypeRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GeoCoordinatesValidationTest {
+
+    @Test
+    public void testFailuresCountedWhenInjected() throws ResourceNotFoundException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GeoCoordinatesValidation validation = new GeoCoordinatesValidation(
+                new MapTypeRegistry(new String[]{"GoogleMaps", "MapBox"}, 50), new FenceMetrics(meterRegistry));
+
+        Assert.assertTrue(validation.validateMapType("MapBox"));
+        try {
+            validation.validateMapType("Osm");
+            Assert.fail();
+        } catch (ResourceNotFoundException e) {
+            Assert.assertEquals("Invaild Map type: Osm :: Expected: [GoogleMaps, MapBox]", e.getMessage());
+        }
+        try {
+            validation.validateFence("1,2;x,4;");
+            Assert.fail();
+        } catch (ResourceNotFoundException e) {
+            Assert.assertEquals("Invaild co ordinates format", e.getMessage());
+        }
+        Assert.assertEquals(1, meterRegistry.get(FenceMetrics.VALIDATION_FAILURES).tag("code", "MAP_TYPE")
+                .counter().count(), 0);
+        Assert.assertEquals(2, meterRegistry.get(FenceMetrics.VALIDATION_FAILURES).counters().size());
+    }
+
+    @Test
+    public void testPlainInstanceValidatesAgainstMapTypes() throws ResourceNotFoundException {
+        GeoCoordinatesValidation validation = new GeoCoordinatesValidation("GoogleMaps");
+        Assert.assertTrue(validation.isMapType("GoogleMaps"));
+        Assert.assertFalse(validation.isMapType("MapBox"));
+        try {
+            validation.vaildatePolygon("");
+            Assert.fail();
+        } catch (ResourceNotFoundException e) {
+            Assert.assertEquals("Co ordinates are not passed", e.getMessage());
+        }
+    }
+}
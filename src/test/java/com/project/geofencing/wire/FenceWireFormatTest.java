@@ -0,0 +1,173 @@
+package com.project.geofencing.wire;
+
+import com.project.geofencing.geometry.Polygon;
+import com.project.geofencing.model.GeoCoordinates;
+import com.project.geofencing.model.GeoCoordinatesPage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class FenceWireFormatTest {
+
+    private static GeoCoordinates fence(long id, String coords) {
+        GeoCoordinates geoCoordinates = new GeoCoordinates();
+        geoCoordinates.setId(id);
+        geoCoordinates.setName("fence-" + id);
+        geoCoordinates.setMapType("GoogleMaps");
+        geoCoordinates.setCoords(coords);
+        geoCoordinates.setCreatedAt(new Date(1500000000000L));
+        geoCoordinates.setCreatedBy("admin");
+        geoCoordinates.setUpdatedAt(new Date(1500000001234L));
+        return geoCoordinates;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        GeoCoordinates geoCoordinates = fence(7, "12.9716,77.5946;12.98,77.6;12.9716,77.61;12.9716,77.5946;");
+        byte[] bytes = FenceWireFormat.encode(geoCoordinates);
+        GeoCoordinates decoded = FenceWireFormat.decode(bytes);
+        Assert.assertEquals(7, decoded.getId());
+        Assert.assertEquals("fence-7", decoded.getName());
+        Assert.assertEquals("GoogleMaps", decoded.getMapType());
+        Assert.assertEquals("12.9716,77.5946;12.9800,77.6000;12.9716,77.6100;12.9716,77.5946;",
+                decoded.getCoords());
+        Assert.assertEquals(geoCoordinates.getCreatedAt(), decoded.getCreatedAt());
+        Assert.assertEquals("admin", decoded.getCreatedBy());
+        Assert.assertEquals(geoCoordinates.getUpdatedAt(), decoded.getUpdatedAt());
+        Assert.assertNull(decoded.getUpdatedBy());
+
+        GeoCoordinates coordsOnly = new GeoCoordinates();
+        coordsOnly.setCoords(geoCoordinates.getCoords());
+        Assert.assertTrue(FenceWireFormat.encode(coordsOnly).length
+                < coordsOnly.getCoords().getBytes(StandardCharsets.UTF_8).length / 2);
+    }
+
+    @Test
+    public void testNegativeAndIntegerCoords() {
+        GeoCoordinates decoded = FenceWireFormat.decode(FenceWireFormat.encode(
+                fence(1, "-33.8688,151.2093;-33.9,-0.5;0,0;-33.8688,151.2093")));
+        Assert.assertEquals("-33.8688,151.2093;-33.9000,-0.5000;0.0000,0.0000;-33.8688,151.2093;",
+                decoded.getCoords());
+
+        decoded = FenceWireFormat.decode(FenceWireFormat.encode(fence(2, "1,2;3,4;5,6;1,2;")));
+        Assert.assertEquals("1,2;3,4;5,6;1,2;", decoded.getCoords());
+    }
+
+    @Test
+    public void testTextFallback() {
+        String[] unencodable = {
+                "12.1234567891,77.5;13,77;13,78;12.1234567891,77.5;",
+                "12.5,77.5;13,77;13;",
+                "12.5,77.5;abc,77;13,78;12.5,77.5;",
+                "12..5,77.5;13,77;13,78;12..5,77.5;",
+                ""
+        };
+        for (String coords : unencodable) {
+            Assert.assertEquals(coords, FenceWireFormat.decode(FenceWireFormat.encode(fence(3, coords))).getCoords());
+        }
+    }
+
+    @Test
+    public void testListAndPage() {
+        List<GeoCoordinates> geoCords = Arrays.asList(fence(1, "1.5,2.5;3,4;5,6;1.5,2.5;"), fence(2, "7,8;9,10;11,12;7,8;"));
+        List<GeoCoordinates> decoded = FenceWireFormat.decodeList(FenceWireFormat.encodeList(geoCords));
+        Assert.assertEquals(2, decoded.size());
+        Assert.assertEquals(1, decoded.get(0).getId());
+        Assert.assertEquals("7,8;9,10;11,12;7,8;", decoded.get(1).getCoords());
+
+        byte[] page = FenceWireFormat.encodePage(new GeoCoordinatesPage(geoCords, 2L));
+        Assert.assertEquals(2, FenceWireFormat.decodeList(page).size());
+        Assert.assertTrue(FenceWireFormat.decodeList(FenceWireFormat.encodeList(Arrays.asList())).isEmpty());
+    }
+
+    @Test
+    public void testMalformed() {
+        byte[] bytes = FenceWireFormat.encode(fence(1, "1.5,2.5;3,4;5,6;1.5,2.5;"));
+        byte[][] malformed = {
+                Arrays.copyOf(bytes, bytes.length - 1),
+                {(byte) 0x80},
+                {0x00},
+                {0x2A, 0x05, 0x01},
+                {0x20, 0x0A}
+        };
+        for (byte[] input : malformed) {
+            try {
+                FenceWireFormat.decode(input);
+                Assert.fail("Expected malformed input to fail :: " + Arrays.toString(input));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testGeometryMatchesParsedPolygon() {
+        String coords = "-33.8688,151.2093;-33.9,-0.5;0.1,0.000001;12.98,77.6;-33.8688,151.2093;";
+        assertSameGeometry(coords);
+        assertSameGeometry("0,0;0,10;10,10;10,0;0,0;/2.5,2;4,2;4,4.125;2.5,2;/20,20;20,30;30,30;20,20");
+        Assert.assertNull(FenceWireFormat.encodeGeometry("12.1234567891,77.5;13,77;13,78;12.1234567891,77.5;"));
+    }
+
+    private static void assertSameGeometry(String coords) {
+        Polygon decoded = FenceWireFormat.decodeGeometry(FenceWireFormat.encodeGeometry(coords));
+        Polygon parsed = Polygon.parse(coords);
+        Assert.assertEquals(parsed.getVertexCount(), decoded.getVertexCount());
+        Assert.assertEquals(parsed.getRingCount(), decoded.getRingCount());
+        for (int ring = 0; ring < parsed.getRingCount(); ring++) {
+            Assert.assertEquals(parsed.getRingEnd(ring), decoded.getRingEnd(ring));
+        }
+        for (int i = 0; i < parsed.getVertexCount(); i++) {
+            Assert.assertEquals(Double.doubleToLongBits(parsed.getLat(i)), Double.doubleToLongBits(decoded.getLat(i)));
+            Assert.assertEquals(Double.doubleToLongBits(parsed.getLng(i)), Double.doubleToLongBits(decoded.getLng(i)));
+        }
+    }
+
+    @Test
+    public void testRings() {
+        GeoCoordinates decoded = FenceWireFormat.decode(FenceWireFormat.encode(
+                fence(4, "0,0;0,10;10,10;10,0;0,0;/2.5,2;4,2;4,4;2.5,2/20,20;20,30;30,30;20,20")));
+        Assert.assertEquals("0.0,0.0;0.0,10.0;10.0,10.0;10.0,0.0;0.0,0.0;/2.5,2.0;4.0,2.0;4.0,4.0;2.5,2.0;/"
+                + "20.0,20.0;20.0,30.0;30.0,30.0;20.0,20.0;", decoded.getCoords());
+        Assert.assertEquals(3, decoded.getPolygon().getRingCount());
+
+        String trailing = "0,0;0,10;10,10;0,0;/";
+        Assert.assertEquals(trailing, FenceWireFormat.decode(FenceWireFormat.encode(fence(5, trailing))).getCoords());
+        byte[] mismatched = {0x2A, 0x02, 0x02, 0x02, 0x5A, 0x01, 0x02};
+        try {
+            FenceWireFormat.decode(mismatched);
+            Assert.fail("Expected ring sizes beyond the coords to fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDerivedGeometry() {
+        GeoCoordinates geoCoordinates = fence(1, "12.5,77.5;13,77;13.25,78;12.5,77.5;");
+        geoCoordinates.updateGeometry();
+        Assert.assertEquals(12.5, geoCoordinates.getMinLat(), 0);
+        Assert.assertEquals(77, geoCoordinates.getMinLng(), 0);
+        Assert.assertEquals(13.25, geoCoordinates.getMaxLat(), 0);
+        Assert.assertEquals(78, geoCoordinates.getMaxLng(), 0);
+        Assert.assertTrue(geoCoordinates.getGeometry().length > 0);
+
+        geoCoordinates.setCoords("not a polygon");
+        geoCoordinates.updateGeometry();
+        Assert.assertNull(geoCoordinates.getMinLat());
+        Assert.assertEquals(0, geoCoordinates.getGeometry().length);
+    }
+
+    @Test
+    public void testPreferred() {
+        Assert.assertTrue(FenceProtobufHttpMessageConverter.preferred("application/x-protobuf"));
+        Assert.assertTrue(FenceProtobufHttpMessageConverter.preferred("application/json;q=0.5, application/x-protobuf"));
+        Assert.assertFalse(FenceProtobufHttpMessageConverter.preferred("application/json, application/x-protobuf;q=0.9"));
+        Assert.assertFalse(FenceProtobufHttpMessageConverter.preferred("*/*"));
+        Assert.assertFalse(FenceProtobufHttpMessageConverter.preferred(null));
+        Assert.assertFalse(FenceProtobufHttpMessageConverter.preferred("application/x-protobuf;q=0"));
+    }
+}